@@ -0,0 +1,76 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for SimpleKeyHandler sending Events to its Listeners.<br>
+ * <br>
+ * The Events come from a HeadlessKeySource, so this runs without a sketch or a
+ * display.<br>
+ * <br>
+ * Run with "ant -f resources/build.xml benchmark".
+ *
+ * @author Unlishema
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+	/**
+	 * The amount of Listeners added to the Handler
+	 */
+	@Param({ "1", "100", "10000" })
+	public int listeners;
+
+	private SimpleKeyHandler handler;
+	private final HeadlessKeySource keys = new HeadlessKeySource(0L);
+
+	@Setup(Level.Trial)
+	public void setup(final Blackhole blackhole) {
+		this.handler = new SimpleKeyHandler(this.keys);
+		for (int i = 0; i < this.listeners; i++) {
+			this.handler.addListener(new SimpleKeyListener() {
+				public void onKeyPressed(final SimpleKeyEvent event) {
+					blackhole.consume(event.isKeyPressed('A'));
+				}
+
+				public void onKeyReleased(final SimpleKeyEvent event) {
+					blackhole.consume(event.isKeyPressed('A'));
+				}
+
+				public void onKeyTyped(final SimpleKeyEvent event) {
+					blackhole.consume(event.getLastKeyTyped());
+				}
+			});
+		}
+	}
+
+	@Benchmark
+	public void pressAndRelease() {
+		this.keys.tap('A');
+	}
+
+	@Benchmark
+	public void type() {
+		this.keys.type('a');
+	}
+}
@@ -0,0 +1,118 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.awt.event.KeyEvent;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+
+/**
+ * Benchmarks for the key state of a SimpleKeyEvent. These do not need a sketch
+ * or a display, so they can run anywhere.<br>
+ * <br>
+ * Run with "ant -f resources/build.xml benchmark".
+ *
+ * @author Unlishema
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyStateBenchmark {
+
+	/**
+	 * The Modifier to check with isModifierPressed (All 16 of them)
+	 */
+	@State(Scope.Thread)
+	public static class Modifiers {
+		@Param({ "NONE", "ALT", "CTRL", "SHIFT", "WIN", "ALT_CTRL", "ALT_SHIFT", "ALT_WIN", "CTRL_SHIFT", "CTRL_WIN",
+				"SHIFT_WIN", "ALT_CTRL_SHIFT", "ALT_CTRL_WIN", "ALT_SHIFT_WIN", "CTRL_SHIFT_WIN", "ALT_CTRL_SHIFT_WIN" })
+		public String modifier;
+
+		ModifierKey modifierKey;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.modifierKey = ModifierKey.valueOf(this.modifier);
+		}
+	}
+
+	/**
+	 * The keys to check with isKeysPressed
+	 */
+	@State(Scope.Thread)
+	public static class Keys {
+		@Param({ "1", "2", "4", "8" })
+		public int arity;
+
+		int[] keys;
+		KeyChord chord;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.keys = new int[this.arity];
+			for (int i = 0; i < this.arity; i++) this.keys[i] = 'A' + i;
+			this.chord = KeyChord.of(this.keys);
+		}
+	}
+
+	private final SimpleKeyEvent event = new SimpleKeyEvent();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// Hold every key that is checked as well as CTRL and SHIFT
+		for (int i = 0; i < 8; i++) this.event.registerKey('A' + i);
+		this.event.registerKey(KeyEvent.VK_CONTROL);
+		this.event.registerKey(KeyEvent.VK_SHIFT);
+	}
+
+	@Benchmark
+	public void registerAndDeregisterKey() {
+		this.event.registerKey('Z');
+		this.event.deregisterKey('Z');
+	}
+
+	@Benchmark
+	public boolean isKeyPressed() {
+		return this.event.isKeyPressed('A');
+	}
+
+	@Benchmark
+	public boolean isKeyPressedMissing() {
+		return this.event.isKeyPressed('Z');
+	}
+
+	@Benchmark
+	public boolean isModifierPressed(Modifiers modifiers) {
+		return this.event.isModifierPressed(modifiers.modifierKey);
+	}
+
+	@Benchmark
+	public boolean isKeysPressed(Keys keys) {
+		return this.event.isKeysPressed(keys.keys);
+	}
+
+	@Benchmark
+	public boolean isKeysPressedChord(Keys keys) {
+		return this.event.isKeysPressed(keys.chord);
+	}
+
+	@Benchmark
+	public boolean isModifiedKeysPressed(Keys keys) {
+		return this.event.isModifiedKeysPressed(ModifierKey.CTRL_SHIFT, keys.keys);
+	}
+}
@@ -0,0 +1,300 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.unlishema.simpleKeyHandler.SimpleKeyHandler.BackpressurePolicy;
+
+/**
+ * The AsyncDispatcher sends the Events of an engine to the Listeners on its
+ * own Thread, so a slow Listener does not hold up the sketch.<br>
+ * <br>
+ * The sketch's event thread puts each Event into a bounded ring buffer without
+ * locking and the dispatcher Thread takes them out in order, so every Listener
+ * still gets the Events in the order they happened. Each Event is a
+ * {@link KeyEventSnapshot} that is put back into the engine's Pool once it is
+ * sent, so no garbage is made while keys are being pressed.<br>
+ * <br>
+ * There must only ever be one Thread at a time putting Events in (The engine
+ * makes sure of this by holding its lock).<br>
+ * <br>
+ * When the policy is {@link BackpressurePolicy#BLOCK} and the buffer is full,
+ * the Thread putting the Event in waits on the engine's lock, which lets go of
+ * the lock while waiting. That way a Listener on the dispatcher Thread can
+ * still use the lock (Like clearing the Handler) instead of both Threads
+ * waiting on each other forever, and any other Event waits behind it so the
+ * order is kept. The dispatcher Thread itself never waits for room since only
+ * it can make room, so an Event it puts into a full buffer drops the oldest
+ * one instead.<br>
+ * <br>
+ * A dispatcher that is stopped keeps sending the Events it already took
+ * before anyone else can. Events on other Threads wait for it to finish, and a
+ * dispatcher that replaces it waits for it before sending its own Events, so
+ * the Listeners still get every Event in order and never two at once.
+ *
+ * @author Unlishema
+ *
+ */
+final class AsyncDispatcher implements Runnable {
+	/**
+	 * The most milliseconds the event thread waits for room at once when the
+	 * policy is {@link BackpressurePolicy#BLOCK}, in case a wake up is missed
+	 */
+	private static final long BLOCK_WAIT_MILLIS = 1L;
+
+	// Private Variables
+	private final SimpleKeyEngine engine;
+	private final Object lock;
+	private final BackpressurePolicy policy;
+	private final int capacity, mask;
+	private final KeyEventSnapshot.Pool pool;
+	private final AtomicReferenceArray<KeyEventSnapshot> slots;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final Thread thread;
+	private volatile AsyncDispatcher previous;
+	private volatile boolean running = true;
+	private volatile boolean waiting = false;
+	private volatile boolean blocked = false;
+	private int lastAction = -1, lastKeyCode = -1;
+
+	/**
+	 * Create and start the dispatcher Thread
+	 *
+	 * @param engine   The engine to send the Events for
+	 * @param pool     The Pool the Snapshots go back into once they are sent
+	 * @param capacity The most Events that can be waiting (rounded up to a power
+	 *                 of two)
+	 * @param policy   What to do when the buffer is full
+	 * @param previous The dispatcher this one replaces, or null if there is none
+	 */
+	AsyncDispatcher(SimpleKeyEngine engine, KeyEventSnapshot.Pool pool, int capacity, BackpressurePolicy policy,
+			AsyncDispatcher previous) {
+		if (capacity < 1) throw new IllegalArgumentException("The capacity must be at least 1");
+		if (policy == null) throw new IllegalArgumentException("The policy can not be null");
+		this.engine = engine;
+		this.lock = engine.getEventLock();
+		this.pool = pool;
+		this.policy = policy;
+		int size = 1;
+		while (size < capacity && size < (1 << 30)) size <<= 1;
+		this.capacity = size;
+		this.mask = this.capacity - 1;
+		this.slots = new AtomicReferenceArray<KeyEventSnapshot>(this.capacity);
+		// One Snapshot for each slot and one being sent, only made once no matter how often this is enabled
+		this.pool.reserve(this.capacity + 1);
+		this.previous = previous;
+		this.thread = new Thread(this, "SimpleKeyHandler Dispatcher");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Get the amount of Events that were dropped because the buffer was full
+	 *
+	 * @return The amount of dropped Events
+	 */
+	long getDropped() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * Check if the dispatcher still takes Events
+	 *
+	 * @return true until it is stopped, otherwise false
+	 */
+	boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * Wait until no Event is waiting for room and a stopped dispatcher has sent
+	 * everything it took, so Events are put in the order they happened. Must be
+	 * called while holding the engine's lock, before the Event is applied to the
+	 * Handler.
+	 */
+	void awaitTurn() {
+		if (this.isOwnThread(Thread.currentThread())) return;
+		while ((this.blocked && this.running) || (!this.running && this.thread.isAlive())) {
+			try {
+				this.lock.wait(BLOCK_WAIT_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Put an Event into the buffer to be sent by the dispatcher Thread. Must be
+	 * called while holding the engine's lock.
+	 *
+	 * @param event The Snapshot of the Event
+	 * @return true if the Event was taken, false if the dispatcher was stopped
+	 *         and the Event has to be sent some other way
+	 */
+	boolean offer(KeyEventSnapshot event) {
+		final int action = event.getAction(), keyCode = event.getKeyCode();
+		// The dispatcher Threads are the only ones that can make room, so they never wait for it
+		final boolean block = this.policy == BackpressurePolicy.BLOCK && !this.isOwnThread(Thread.currentThread());
+		boolean waited = false;
+		try {
+			for (;;) {
+				// While stopping, an Event from a Listener still goes behind the ones waiting
+				if (!this.running && Thread.currentThread() != this.thread) return false;
+				final long t = this.tail.get();
+				final long h = this.head.get();
+				if (t - h < this.capacity) {
+					// The slot may still be getting emptied by whoever claimed the old Event
+					final int index = (int) (t & this.mask);
+					while (!this.slots.compareAndSet(index, null, event)) Thread.yield();
+					this.tail.set(t + 1);
+					if (this.waiting) LockSupport.unpark(this.thread);
+					this.lastAction = action;
+					this.lastKeyCode = keyCode;
+					return true;
+				}
+				if (block && !Thread.currentThread().isInterrupted()) {
+					waited = true;
+					this.awaitRoom();
+					continue;
+				}
+				// A repeat of the newest Event adds nothing, so drop it instead
+				if (this.policy == BackpressurePolicy.COALESCE && action == this.lastAction
+						&& keyCode == this.lastKeyCode) {
+					this.pool.release(event);
+					this.dropped.incrementAndGet();
+					return true;
+				}
+				if (this.head.compareAndSet(h, h + 1)) {
+					this.pool.release(this.slots.getAndSet((int) (h & this.mask), null));
+					this.dropped.incrementAndGet();
+				}
+			}
+		} finally {
+			if (waited) {
+				// Let the Events waiting behind this one go
+				this.blocked = false;
+				this.lock.notifyAll();
+			}
+		}
+	}
+
+	@Override
+	public void run() {
+		final AsyncDispatcher previous = this.previous;
+		if (previous != null) {
+			// Every Event the replaced dispatcher took goes before any of these
+			previous.awaitStopped();
+			this.previous = null;
+		}
+		try {
+			this.dispatchAll();
+		} finally {
+			synchronized (this.lock) {
+				this.engine.stopped(this);
+				this.lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Send Events until the dispatcher is stopped and the buffer is empty
+	 */
+	private void dispatchAll() {
+		while (this.running || this.head.get() != this.tail.get()) {
+			final long h = this.head.get();
+			if (h == this.tail.get()) {
+				this.waiting = true;
+				if (this.running && h == this.tail.get()) LockSupport.park(this);
+				this.waiting = false;
+				continue;
+			}
+			if (!this.head.compareAndSet(h, h + 1)) continue;
+			final KeyEventSnapshot event = this.slots.getAndSet((int) (h & this.mask), null);
+			if (this.blocked) {
+				synchronized (this.lock) {
+					this.lock.notifyAll();
+				}
+			}
+			try {
+				this.engine.dispatch(event);
+			} catch (RuntimeException e) {
+				System.err.println("A Listener threw an Exception while dispatching a key event.");
+				e.printStackTrace();
+			} finally {
+				this.pool.release(event);
+			}
+		}
+	}
+
+	/**
+	 * Wait on the engine's lock until the dispatcher Thread makes room. The lock
+	 * is let go while waiting.
+	 */
+	private void awaitRoom() {
+		this.blocked = true;
+		if (this.waiting) LockSupport.unpark(this.thread);
+		try {
+			this.lock.wait(BLOCK_WAIT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Check if a Thread is this dispatcher's Thread or the Thread of a
+	 * dispatcher it replaced that is still sending its Events
+	 *
+	 * @param thread The Thread to check
+	 * @return true if the Thread sends Events for this dispatcher, otherwise
+	 *         false
+	 */
+	private boolean isOwnThread(Thread thread) {
+		for (AsyncDispatcher dispatcher = this; dispatcher != null; dispatcher = dispatcher.previous)
+			if (thread == dispatcher.thread) return true;
+		return false;
+	}
+
+	/**
+	 * Wait for the dispatcher Thread to send every Event it took and stop. Must
+	 * not be called while holding the engine's lock.
+	 */
+	private void awaitStopped() {
+		try {
+			this.thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Stop taking Events. The dispatcher Thread keeps going until every Event it
+	 * took is sent. Must be called while holding the engine's lock.
+	 */
+	void stop() {
+		this.running = false;
+		LockSupport.unpark(this.thread);
+	}
+
+	/**
+	 * Stop the dispatcher Thread once every waiting Event is sent. If this is not
+	 * called from the dispatcher Thread it waits for that to happen, letting go
+	 * of the engine's lock while waiting so the Listeners can still use it. Must
+	 * be called while holding the engine's lock.
+	 */
+	void shutdown() {
+		this.stop();
+		if (this.isOwnThread(Thread.currentThread())) return;
+		while (this.thread.isAlive()) {
+			try {
+				this.lock.wait(BLOCK_WAIT_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.awt.Component;
+import java.awt.event.FocusEvent;
+import java.awt.event.FocusListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+
+/**
+ * An AwtKeySource gets the key Events of any AWT or Swing Component, so the
+ * Handler can be used outside of a Processing sketch.<br>
+ * <br>
+ * The keys are released when the Component gains or loses focus, so keys are
+ * not left held down when you change windows and anything that started on a
+ * key press is told the key was released. There are no frames in AWT, so if
+ * you use the frame features of the Handler you need to call
+ * {@link SimpleKeyHandler#pre()} yourself.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * JFrame frame = new JFrame();
+ * SimpleKeyHandler skh = new SimpleKeyHandler(new AwtKeySource(frame));
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class AwtKeySource implements KeyInputSource, KeyListener, FocusListener {
+	// Private Variables
+	private final Component component;
+	private volatile SimpleKeyHandler handler = null;
+
+	/**
+	 * Create the source for a Component
+	 *
+	 * @param component The Component to get the Events from
+	 */
+	public AwtKeySource(final Component component) {
+		if (component == null) throw new IllegalArgumentException("The component can not be null");
+		this.component = component;
+	}
+
+	@Override
+	public synchronized void attach(final SimpleKeyHandler handler) {
+		if (this.handler != null) throw new IllegalStateException("An AwtKeySource can only be used by one Handler");
+		this.handler = handler;
+		this.component.addKeyListener(this);
+		this.component.addFocusListener(this);
+	}
+
+	@Override
+	public synchronized void detach(final SimpleKeyHandler handler) {
+		if (this.handler != handler) return;
+		this.component.removeKeyListener(this);
+		this.component.removeFocusListener(this);
+		this.handler = null;
+	}
+
+	@Override
+	public void focusGained(FocusEvent e) {
+		final SimpleKeyHandler handler = this.handler;
+		if (handler != null) handler.releaseHeldKeys();
+	}
+
+	@Override
+	public void focusLost(FocusEvent e) {
+		final SimpleKeyHandler handler = this.handler;
+		if (handler != null) handler.releaseHeldKeys();
+	}
+
+	@Override
+	public void keyPressed(KeyEvent e) {
+		this.post(processing.event.KeyEvent.PRESS, e);
+	}
+
+	@Override
+	public void keyReleased(KeyEvent e) {
+		this.post(processing.event.KeyEvent.RELEASE, e);
+	}
+
+	@Override
+	public void keyTyped(KeyEvent e) {
+		this.post(processing.event.KeyEvent.TYPE, e);
+	}
+
+	/**
+	 * Send an AWT Event to the Handler
+	 */
+	private void post(int action, KeyEvent e) {
+		final SimpleKeyHandler handler = this.handler;
+		if (handler != null) handler.postKeyEvent(action, e.getKeyCode(), e.getKeyChar(), e.getWhen());
+	}
+}
@@ -0,0 +1,360 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import processing.event.KeyEvent;
+
+/**
+ * DispatchMetrics records where the time goes while the Handler sends Events to
+ * its Actions and Listeners.<br>
+ * <br>
+ * It counts the Events of each action, how long each dispatch took, how long it
+ * was between the Handler receiving the Event and the dispatch starting, and
+ * how long every single Listener took (Including the Listeners of the
+ * {@link KeyFocusNode}s), so you can find the Listener that is slowing your
+ * sketch down. Recording never locks or creates garbage, and when the metrics
+ * are turned off (the default) the Handler does not record anything at all.<br>
+ * <br>
+ * 
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ * 
+ * void setup() {
+ * 	skh.setMetricsEnabled(true);
+ * 	skh.getMetrics().registerMBean("MySketch");
+ * }
+ * 
+ * void keyPressed() {
+ * 	if (key == 'm') for (DispatchMetrics.ListenerTiming timing : skh.getMetrics().getSlowestListeners(5))
+ * 		println(timing);
+ * }
+ * </pre>
+ * 
+ * @author Unlishema
+ *
+ */
+public final class DispatchMetrics implements DispatchMetricsMBean {
+	/**
+	 * The times recorded for a single Listener. A KeyFocusNode can be focused in
+	 * Handlers of different engines, so its Listeners can be timed on more than
+	 * one Thread at once and the times are added the same way as the other
+	 * counters.
+	 */
+	static final class ListenerStats {
+		final LongAdder calls = new LongAdder(), totalNanos = new LongAdder();
+		final AtomicLong maxNanos = new AtomicLong();
+
+		void record(long nanos) {
+			this.calls.increment();
+			this.totalNanos.add(nanos);
+			long max;
+			while (nanos > (max = this.maxNanos.get()) && !this.maxNanos.compareAndSet(max, nanos)) continue;
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<ListenerRegistry.Entry, ListenerStats> STATS = AtomicReferenceFieldUpdater
+			.newUpdater(ListenerRegistry.Entry.class, ListenerStats.class, "stats");
+
+	/**
+	 * The times of a single Listener at the moment they were read
+	 * 
+	 * @author Unlishema
+	 *
+	 */
+	public static final class ListenerTiming {
+		public final Object listener;
+		public final long calls, totalNanos, maxNanos;
+
+		private ListenerTiming(Object listener, long calls, long totalNanos, long maxNanos) {
+			this.listener = listener;
+			this.calls = calls;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+		}
+
+		/**
+		 * Get the average time of a callback of this Listener
+		 * 
+		 * @return The average time in nanoseconds
+		 */
+		public long getMeanNanos() {
+			return this.calls == 0 ? 0 : this.totalNanos / this.calls;
+		}
+
+		@Override
+		public String toString() {
+			return this.listener + " max=" + this.maxNanos + "ns mean=" + this.getMeanNanos() + "ns calls=" + this.calls;
+		}
+	}
+
+	// Private Variables
+	private final Set<ListenerRegistry.Entry<?>> timed = Collections
+			.newSetFromMap(new ConcurrentHashMap<ListenerRegistry.Entry<?>, Boolean>());
+	private final LongAdder presses = new LongAdder(), releases = new LongAdder(), types = new LongAdder();
+	private final LatencyHistogram dispatchTime = new LatencyHistogram();
+	private final LatencyHistogram eventLatency = new LatencyHistogram();
+	private final LatencyHistogram listenerTime = new LatencyHistogram();
+	private ObjectName objectName = null;
+
+	/**
+	 * Create the metrics for an engine
+	 */
+	DispatchMetrics() {
+	}
+
+	/**
+	 * Get the times it took to send each Event to all the Actions and Listeners
+	 * 
+	 * @return The dispatch times
+	 */
+	public LatencyHistogram getDispatchTime() {
+		return this.dispatchTime;
+	}
+
+	/**
+	 * Get the amount of Events of an action that were dispatched
+	 * 
+	 * @param action processing.event.KeyEvent.PRESS, RELEASE or TYPE
+	 * @return The amount of Events
+	 */
+	public long getEventCount(int action) {
+		switch (action) {
+			case KeyEvent.PRESS:
+				return this.presses.sum();
+			case KeyEvent.RELEASE:
+				return this.releases.sum();
+			case KeyEvent.TYPE:
+				return this.types.sum();
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Get the times between the Handler receiving each Event and the dispatch of
+	 * it starting. This is the time the Event waited while being batched by
+	 * frame, held back by the RepeatFilter or queued for the async dispatcher.
+	 * 
+	 * @return The latency times
+	 */
+	public LatencyHistogram getEventLatency() {
+		return this.eventLatency;
+	}
+
+	/**
+	 * Get the times of every single Listener callback
+	 * 
+	 * @return The callback times
+	 */
+	public LatencyHistogram getListenerTime() {
+		return this.listenerTime;
+	}
+
+	/**
+	 * Get the Listeners with the longest callbacks
+	 * 
+	 * @param count The most Listeners to get
+	 * @return The slowest Listeners, slowest first
+	 */
+	public List<ListenerTiming> getSlowestListeners(int count) {
+		// A SimpleKeyListener is in the list of each action, so add its times together
+		final Map<Object, long[]> totals = new IdentityHashMap<Object, long[]>();
+		for (ListenerRegistry.Entry<?> entry : this.timed) {
+			final ListenerStats stats = entry.stats;
+			// Removed Listeners are forgotten here so they can be garbage collected
+			if (!entry.active || stats == null) {
+				this.timed.remove(entry);
+				continue;
+			}
+			long[] times = totals.get(entry.listener);
+			if (times == null) totals.put(entry.listener, times = new long[3]);
+			times[0] += stats.calls.sum();
+			times[1] += stats.totalNanos.sum();
+			times[2] = Math.max(times[2], stats.maxNanos.get());
+		}
+		final List<ListenerTiming> timings = new ArrayList<ListenerTiming>();
+		for (Map.Entry<Object, long[]> total : totals.entrySet()) {
+			final long[] times = total.getValue();
+			timings.add(new ListenerTiming(total.getKey(), times[0], times[1], times[2]));
+		}
+		Collections.sort(timings, new Comparator<ListenerTiming>() {
+			@Override
+			public int compare(ListenerTiming a, ListenerTiming b) {
+				return Long.compare(b.maxNanos, a.maxNanos);
+			}
+		});
+		return timings.size() > count ? new ArrayList<ListenerTiming>(timings.subList(0, count)) : timings;
+	}
+
+	/**
+	 * Register these metrics with the platform MBeanServer so they can be watched
+	 * with JMX
+	 * 
+	 * @param name The name to register them under (Like the name of your sketch)
+	 * @throws IllegalStateException if they could not be registered
+	 */
+	public synchronized void registerMBean(String name) {
+		this.unregisterMBean();
+		try {
+			final ObjectName objectName = new ObjectName("org.unlishema.simpleKeyHandler:type=DispatchMetrics,name="
+					+ ObjectName.quote(name));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+			this.objectName = objectName;
+		} catch (JMException e) {
+			throw new IllegalStateException("Could not register the DispatchMetrics MBean", e);
+		}
+	}
+
+	/**
+	 * Unregister these metrics from the platform MBeanServer if they were
+	 * registered
+	 */
+	public synchronized void unregisterMBean() {
+		if (this.objectName == null) return;
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			if (server.isRegistered(this.objectName)) server.unregisterMBean(this.objectName);
+		} catch (JMException e) {
+			System.err.println("Could not unregister the DispatchMetrics MBean: " + e.getMessage());
+		}
+		this.objectName = null;
+	}
+
+	@Override
+	public long getPressCount() {
+		return this.presses.sum();
+	}
+
+	@Override
+	public long getReleaseCount() {
+		return this.releases.sum();
+	}
+
+	@Override
+	public long getTypeCount() {
+		return this.types.sum();
+	}
+
+	@Override
+	public long getDispatchMeanNanos() {
+		return this.dispatchTime.getMean();
+	}
+
+	@Override
+	public long getDispatchP99Nanos() {
+		return this.dispatchTime.getPercentile(99);
+	}
+
+	@Override
+	public long getDispatchMaxNanos() {
+		return this.dispatchTime.getMax();
+	}
+
+	@Override
+	public long getEventLatencyP99Nanos() {
+		return this.eventLatency.getPercentile(99);
+	}
+
+	@Override
+	public long getEventLatencyMaxNanos() {
+		return this.eventLatency.getMax();
+	}
+
+	@Override
+	public long getListenerP99Nanos() {
+		return this.listenerTime.getPercentile(99);
+	}
+
+	@Override
+	public long getListenerMaxNanos() {
+		return this.listenerTime.getMax();
+	}
+
+	@Override
+	public String[] getSlowestListeners() {
+		final List<ListenerTiming> timings = this.getSlowestListeners(10);
+		final String[] lines = new String[timings.size()];
+		for (int i = 0; i < lines.length; i++) lines[i] = timings.get(i).toString();
+		return lines;
+	}
+
+	@Override
+	public void reset() {
+		this.presses.reset();
+		this.releases.reset();
+		this.types.reset();
+		this.dispatchTime.reset();
+		this.eventLatency.reset();
+		this.listenerTime.reset();
+		for (ListenerRegistry.Entry<?> entry : this.timed) entry.stats = null;
+		this.timed.clear();
+	}
+
+	/**
+	 * Record the start of a dispatch
+	 * 
+	 * @param event The Event being dispatched
+	 * @return The System.nanoTime() the dispatch started at
+	 */
+	long begin(KeyEventSnapshot event) {
+		switch (event.getAction()) {
+			case KeyEvent.PRESS:
+				this.presses.increment();
+				break;
+			case KeyEvent.RELEASE:
+				this.releases.increment();
+				break;
+			case KeyEvent.TYPE:
+				this.types.increment();
+				break;
+			default:
+				break;
+		}
+		final long start = System.nanoTime();
+		if (event.getReceived() != 0L) this.eventLatency.record(start - event.getReceived());
+		return start;
+	}
+
+	/**
+	 * Record the end of a dispatch
+	 * 
+	 * @param start The System.nanoTime() the dispatch started at
+	 */
+	void end(long start) {
+		this.dispatchTime.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Record a callback of a Listener
+	 * 
+	 * @param entry The Listener
+	 * @param start The System.nanoTime() the callback started at
+	 */
+	void recordListener(ListenerRegistry.Entry<?> entry, long start) {
+		final long nanos = System.nanoTime() - start;
+		this.listenerTime.record(nanos);
+		ListenerStats stats = entry.stats;
+		if (stats == null) {
+			// Only the first callback of a Listener is remembered, wherever it is registered
+			if (STATS.compareAndSet(entry, null, stats = new ListenerStats())) this.timed.add(entry);
+			else if ((stats = entry.stats) == null) return;
+		}
+		stats.record(nanos);
+	}
+}
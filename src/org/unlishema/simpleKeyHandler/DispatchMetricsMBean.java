@@ -0,0 +1,42 @@
+package org.unlishema.simpleKeyHandler;
+
+/**
+ * The JMX view of the {@link DispatchMetrics} of a Handler, so you can watch
+ * them from JConsole or VisualVM while your sketch is running. All times are in
+ * nanoseconds.
+ *
+ * @author Unlishema
+ */
+public interface DispatchMetricsMBean {
+	public long getPressCount();
+
+	public long getReleaseCount();
+
+	public long getTypeCount();
+
+	public long getDispatchMeanNanos();
+
+	public long getDispatchP99Nanos();
+
+	public long getDispatchMaxNanos();
+
+	public long getEventLatencyP99Nanos();
+
+	public long getEventLatencyMaxNanos();
+
+	public long getListenerP99Nanos();
+
+	public long getListenerMaxNanos();
+
+	/**
+	 * Get the 10 slowest Listeners by their longest callback
+	 *
+	 * @return A line for each Listener with its longest and average callback
+	 */
+	public String[] getSlowestListeners();
+
+	/**
+	 * Forget everything that was recorded
+	 */
+	public void reset();
+}
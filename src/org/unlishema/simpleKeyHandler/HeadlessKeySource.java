@@ -0,0 +1,176 @@
+package org.unlishema.simpleKeyHandler;
+
+import processing.core.PConstants;
+import processing.event.KeyEvent;
+
+/**
+ * A HeadlessKeySource lets you press keys from code, so the Handler can run
+ * with no window or display at all, like in a server side simulation or a
+ * benchmark.<br>
+ * <br>
+ * The source keeps its own clock that only moves when you
+ * {@link #advance(long)} it, so the same code always gives the Handler the same
+ * Events at the same times (Which matters for things like
+ * {@link KeySequence} timeouts). Call {@link #frame()} wherever a sketch would
+ * start a new frame.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * HeadlessKeySource keys = new HeadlessKeySource();
+ * SimpleKeyHandler skh = new SimpleKeyHandler(keys);
+ *
+ * keys.press('W');
+ * keys.advance(16);
+ * keys.frame();
+ * keys.release('W');
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class HeadlessKeySource implements KeyInputSource {
+	// Private Variables
+	private volatile SimpleKeyHandler handler = null;
+	private long millis;
+
+	/**
+	 * Create a source whose clock starts at the current time
+	 */
+	public HeadlessKeySource() {
+		this(System.currentTimeMillis());
+	}
+
+	/**
+	 * Create a source whose clock starts at a set time
+	 *
+	 * @param millis The time in milliseconds to start the clock at
+	 */
+	public HeadlessKeySource(long millis) {
+		this.millis = millis;
+	}
+
+	/**
+	 * Move the clock forward
+	 *
+	 * @param millis The milliseconds to move forward
+	 */
+	public synchronized void advance(long millis) {
+		if (millis < 0) throw new IllegalArgumentException("The clock can not go backwards");
+		this.millis += millis;
+	}
+
+	@Override
+	public synchronized void attach(final SimpleKeyHandler handler) {
+		if (this.handler != null) throw new IllegalStateException("A HeadlessKeySource can only be used by one Handler");
+		this.handler = handler;
+	}
+
+	@Override
+	public synchronized void detach(final SimpleKeyHandler handler) {
+		if (this.handler == handler) this.handler = null;
+	}
+
+	/**
+	 * Start a new frame, the same as a sketch does before draw()
+	 */
+	public void frame() {
+		this.handler().pre();
+	}
+
+	/**
+	 * Get the time of the clock
+	 *
+	 * @return The time in milliseconds
+	 */
+	public synchronized long getMillis() {
+		return this.millis;
+	}
+
+	/**
+	 * Send any Event to the Handler at the current time of the clock
+	 *
+	 * @param action  processing.event.KeyEvent.PRESS, RELEASE or TYPE
+	 * @param keyCode keyCode of the Event
+	 * @param key     The key of the Event
+	 */
+	public void post(int action, int keyCode, char key) {
+		this.handler().postKeyEvent(action, keyCode, key, this.getMillis());
+	}
+
+	/**
+	 * Press a key. The key is the character of the keyCode if it has one, just
+	 * like a sketch gets for letters, numbers, space, enter and the like.
+	 *
+	 * @param keyCode keyCode of the key to press
+	 */
+	public void press(int keyCode) {
+		this.post(KeyEvent.PRESS, keyCode, keyOf(keyCode));
+	}
+
+	/**
+	 * Press a key with a set character, like 'A' while SHIFT is held
+	 *
+	 * @param keyCode keyCode of the key to press
+	 * @param key     The key of the Event
+	 */
+	public void press(int keyCode, char key) {
+		this.post(KeyEvent.PRESS, keyCode, key);
+	}
+
+	/**
+	 * Release a key
+	 *
+	 * @param keyCode keyCode of the key to release
+	 */
+	public void release(int keyCode) {
+		this.post(KeyEvent.RELEASE, keyCode, keyOf(keyCode));
+	}
+
+	/**
+	 * Press and then release a key
+	 *
+	 * @param keyCode keyCode of the key to tap
+	 */
+	public void tap(int keyCode) {
+		this.press(keyCode);
+		this.release(keyCode);
+	}
+
+	/**
+	 * Type a character without pressing a key
+	 *
+	 * @param key The character to type
+	 */
+	public void type(char key) {
+		this.post(KeyEvent.TYPE, 0, key);
+	}
+
+	/**
+	 * Get the Handler, making sure there is one
+	 */
+	private SimpleKeyHandler handler() {
+		final SimpleKeyHandler handler = this.handler;
+		if (handler == null) throw new IllegalStateException("The HeadlessKeySource is not attached to a Handler");
+		return handler;
+	}
+
+	/**
+	 * Get the key a sketch gets for a keyCode that was pressed without any
+	 * modifiers
+	 */
+	private static char keyOf(int keyCode) {
+		if (keyCode >= 'A' && keyCode <= 'Z') return (char) (keyCode + ('a' - 'A'));
+		if ((keyCode >= '0' && keyCode <= '9') || keyCode == ' ') return (char) keyCode;
+		switch (keyCode) {
+			case '\b':
+			case '\t':
+			case '\n':
+			case 27:
+			case 127:
+				return (char) keyCode;
+			default:
+				break;
+		}
+		return PConstants.CODED;
+	}
+}
@@ -0,0 +1,234 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An InputMap turns the keys being held into named actions (Like "jump") and
+ * axes (Like "move x" going from -1 to 1).<br>
+ * <br>
+ * The actions and axes are defined once from keys or {@link KeyChord}s. Then
+ * once a frame the InputMap works them all out into a table, so any number of
+ * things in your sketch can read them without checking the keys over and over.
+ * If no key was pressed or released since the last frame the table is left as
+ * it is. Reading a value by its index is just reading an array, so keep the
+ * index that define gives you.<br>
+ * <br>
+ * Add the InputMap to a Handler with
+ * {@link SimpleKeyHandler#addInputMap(InputMap)} and it is updated at the start
+ * of every frame. Read it on the sketch Thread (Like inside of draw()).<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ * final InputMap input = new InputMap();
+ * final int MOVE_X = input.defineAxis("move x", 'A', 'D');
+ * final int JUMP = input.defineAction("jump", ' ');
+ *
+ * void setup() {
+ * 	skh.addInputMap(input);
+ * }
+ *
+ * void draw() {
+ * 	for (Player player : players) {
+ * 		player.x += input.getAxis(MOVE_X) * player.speed;
+ * 		if (input.isActionJustPressed(JUMP)) player.jump();
+ * 	}
+ * }
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class InputMap {
+	private static final KeyChord[] NO_CHORDS = new KeyChord[0];
+
+	// Private Variables
+	private final Map<String, Integer> actionNames = new HashMap<String, Integer>();
+	private final Map<String, Integer> axisNames = new HashMap<String, Integer>();
+	private KeyChord[][] actionChords = new KeyChord[0][];
+	private KeyChord[][] negativeChords = new KeyChord[0][], positiveChords = new KeyChord[0][];
+	private boolean[] actions = new boolean[0], lastActions = new boolean[0];
+	private float[] axes = new float[0];
+	private KeyState lastState = null;
+	private int lastVersion = -1;
+
+	/**
+	 * Define an action that is on while any of the keys are held, no matter which
+	 * modifiers are held
+	 *
+	 * @param name The name of the action
+	 * @param keys The keys of the action
+	 * @return The index of the action
+	 * @throws IllegalArgumentException if there is already an action with the
+	 *                                  name
+	 */
+	public int defineAction(String name, int... keys) {
+		return this.defineAction(name, chords(keys));
+	}
+
+	/**
+	 * Define an action that is on while any of the Chords are held
+	 *
+	 * @param name   The name of the action
+	 * @param chords The KeyChords of the action
+	 * @return The index of the action
+	 * @throws IllegalArgumentException if there is already an action with the
+	 *                                  name
+	 */
+	public synchronized int defineAction(String name, KeyChord... chords) {
+		if (this.actionNames.containsKey(name))
+			throw new IllegalArgumentException("The action \"" + name + "\" already exists");
+		final int index = this.actionChords.length;
+		this.actionChords = Arrays.copyOf(this.actionChords, index + 1);
+		this.actionChords[index] = chords.clone();
+		this.actions = Arrays.copyOf(this.actions, index + 1);
+		this.lastActions = Arrays.copyOf(this.lastActions, index + 1);
+		this.actionNames.put(name, index);
+		this.lastVersion = -1;
+		return index;
+	}
+
+	/**
+	 * Define an axis that is -1 while the negative key is held, 1 while the
+	 * positive key is held and 0 while both or neither are held
+	 *
+	 * @param name        The name of the axis
+	 * @param negativeKey The key that moves the axis to -1 (Like 'A')
+	 * @param positiveKey The key that moves the axis to 1 (Like 'D')
+	 * @return The index of the axis
+	 * @throws IllegalArgumentException if there is already an axis with the name
+	 */
+	public int defineAxis(String name, int negativeKey, int positiveKey) {
+		return this.defineAxis(name, chords(negativeKey), chords(positiveKey));
+	}
+
+	/**
+	 * Define an axis from Chords. The axis is -1 while any of the negative Chords
+	 * are held, 1 while any of the positive Chords are held and 0 while both or
+	 * neither are held.
+	 *
+	 * @param name     The name of the axis
+	 * @param negative The KeyChords that move the axis to -1
+	 * @param positive The KeyChords that move the axis to 1
+	 * @return The index of the axis
+	 * @throws IllegalArgumentException if there is already an axis with the name
+	 */
+	public synchronized int defineAxis(String name, KeyChord[] negative, KeyChord[] positive) {
+		if (this.axisNames.containsKey(name))
+			throw new IllegalArgumentException("The axis \"" + name + "\" already exists");
+		final int index = this.axes.length;
+		this.negativeChords = Arrays.copyOf(this.negativeChords, index + 1);
+		this.negativeChords[index] = negative == null ? NO_CHORDS : negative.clone();
+		this.positiveChords = Arrays.copyOf(this.positiveChords, index + 1);
+		this.positiveChords[index] = positive == null ? NO_CHORDS : positive.clone();
+		this.axes = Arrays.copyOf(this.axes, index + 1);
+		this.axisNames.put(name, index);
+		this.lastVersion = -1;
+		return index;
+	}
+
+	/**
+	 * Get the index of an action
+	 *
+	 * @param name The name of the action
+	 * @return The index of the action, or -1 if there is no action with the name
+	 */
+	public synchronized int getActionIndex(String name) {
+		final Integer index = this.actionNames.get(name);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Get the index of an axis
+	 *
+	 * @param name The name of the axis
+	 * @return The index of the axis, or -1 if there is no axis with the name
+	 */
+	public synchronized int getAxisIndex(String name) {
+		final Integer index = this.axisNames.get(name);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Get the value of an axis as of the start of the frame
+	 *
+	 * @param index The index of the axis
+	 * @return -1, 0 or 1
+	 */
+	public float getAxis(int index) {
+		return this.axes[index];
+	}
+
+	/**
+	 * Check if an action is on as of the start of the frame
+	 *
+	 * @param index The index of the action
+	 * @return true if the action is on, otherwise false
+	 */
+	public boolean isAction(int index) {
+		return this.actions[index];
+	}
+
+	/**
+	 * Check if an action turned on since the last frame
+	 *
+	 * @param index The index of the action
+	 * @return true if the action turned on this frame, otherwise false
+	 */
+	public boolean isActionJustPressed(int index) {
+		return this.actions[index] && !this.lastActions[index];
+	}
+
+	/**
+	 * Check if an action turned off since the last frame
+	 *
+	 * @param index The index of the action
+	 * @return true if the action turned off this frame, otherwise false
+	 */
+	public boolean isActionJustReleased(int index) {
+		return !this.actions[index] && this.lastActions[index];
+	}
+
+	/**
+	 * Work out every action and axis from the keys being held. The Handler does
+	 * this at the start of every frame, so you only need to call it yourself if
+	 * the InputMap is not added to a Handler.
+	 *
+	 * @param event The Handler (Or Event) to read the keys from
+	 */
+	public synchronized void update(SimpleKeyEvent event) {
+		final KeyState state = event.getKeyState();
+		final int version = state.version();
+		System.arraycopy(this.actions, 0, this.lastActions, 0, this.actions.length);
+		// Nothing was pressed or released since last time
+		if (state == this.lastState && version == this.lastVersion) return;
+		for (int i = 0; i < this.actions.length; i++) this.actions[i] = matchesAny(state, this.actionChords[i]);
+		for (int i = 0; i < this.axes.length; i++) {
+			final boolean negative = matchesAny(state, this.negativeChords[i]);
+			final boolean positive = matchesAny(state, this.positiveChords[i]);
+			this.axes[i] = negative == positive ? 0f : positive ? 1f : -1f;
+		}
+		// Only trust the table if no key changed while it was being worked out
+		this.lastState = state;
+		this.lastVersion = (version & 1) == 0 && version == state.version() ? version : -1;
+	}
+
+	/**
+	 * Check if any of the Chords are held
+	 */
+	private static boolean matchesAny(KeyState state, KeyChord[] chords) {
+		for (KeyChord chord : chords) if (chord.matches(state)) return true;
+		return false;
+	}
+
+	/**
+	 * Make a Chord for each key that matches no matter which modifiers are held
+	 */
+	private static KeyChord[] chords(int... keys) {
+		final KeyChord[] chords = new KeyChord[keys.length];
+		for (int i = 0; i < keys.length; i++) chords[i] = KeyChord.of(keys[i]);
+		return chords;
+	}
+}
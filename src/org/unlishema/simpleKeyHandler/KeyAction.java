@@ -0,0 +1,33 @@
+package org.unlishema.simpleKeyHandler;
+
+/**
+ * A KeyAction is the code you want to run when a {@link KeyChord} that you
+ * bound to the SimpleKeyHandler is pressed.<br>
+ * <br>
+ * Unlike a {@link SimpleKeyListener} the Handler only runs a KeyAction when its
+ * Chord is actually pressed, so you don't have to check the keys yourself.<br>
+ * <br>
+ * 
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ * 
+ * void setup() {
+ * 	skh.bind("CTRL+S", new KeyAction() {
+ * 		void onAction(final SimpleKeyEvent event) {
+ * 			println("Saving...");
+ * 		}
+ * 	});
+ * }
+ * </pre>
+ * 
+ * @author Unlishema
+ */
+public interface KeyAction {
+	/**
+	 * A function for you to do when the bound Chord is pressed. A copy of
+	 * SimpleKeyEvent is sent so you can access the system.
+	 * 
+	 * @param event An Event to access and determine what keys are pressed.
+	 */
+	public void onAction(final SimpleKeyEvent event);
+}
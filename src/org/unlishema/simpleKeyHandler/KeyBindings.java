@@ -0,0 +1,277 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+
+/**
+ * KeyBindings holds all the {@link KeyAction}s that are bound to a
+ * {@link KeyChord}.<br>
+ * <br>
+ * The bindings are indexed by the key that triggers them and by the modifiers
+ * that must be held, so when a key is pressed the Handler goes straight to the
+ * few bindings that can match instead of checking every single one.<br>
+ * <br>
+ * A binding only runs when its key is first pressed, not again for each time
+ * the computer repeats the held key, unless it was bound with repeat on (Like
+ * moving a cursor while an arrow key is held). This matches the
+ * {@link KeySequences}.<br>
+ * <br>
+ * The index is never changed once it is built. Binding and unbinding builds a
+ * new index (sharing everything that did not change) and swaps it in, so
+ * pressing keys never has to wait on a lock. A whole list of bindings (Like a
+ * {@link KeyMap}) can also be built into an index in one go and swapped in.
+ *
+ * @author Unlishema
+ *
+ */
+final class KeyBindings {
+	/**
+	 * The slot of a row used for Chords that work with any modifiers
+	 */
+	private static final int ANY = 16;
+
+	/**
+	 * A single Chord bound to a single Action
+	 */
+	static final class Binding {
+		final KeyChord chord;
+		final KeyAction action;
+		final boolean repeat;
+
+		Binding(KeyChord chord, KeyAction action) {
+			this(chord, action, false);
+		}
+
+		Binding(KeyChord chord, KeyAction action, boolean repeat) {
+			this.chord = chord;
+			this.action = action;
+			this.repeat = repeat;
+		}
+	}
+
+	/**
+	 * The index of the bindings. A row holds the bindings of one trigger key, one
+	 * slot for each modifier mask and one for {@link #ANY}.
+	 */
+	private static final class Table {
+		final Binding[][][] rows;
+		final int[] overflowCodes;
+		final Binding[][][] overflowRows;
+
+		Table(Binding[][][] rows, int[] overflowCodes, Binding[][][] overflowRows) {
+			this.rows = rows;
+			this.overflowCodes = overflowCodes;
+			this.overflowRows = overflowRows;
+		}
+
+		Binding[][] row(int code) {
+			if (KeyState.inRange(code)) return this.rows[code];
+			for (int i = 0; i < this.overflowCodes.length; i++)
+				if (this.overflowCodes[i] == code) return this.overflowRows[i];
+			return null;
+		}
+	}
+
+	private static final Table EMPTY = new Table(new Binding[KeyState.CAPACITY][][], new int[0], new Binding[0][][]);
+
+	// Private Variables
+	private volatile Table table = EMPTY;
+
+	/**
+	 * Bind an Action to a Chord
+	 *
+	 * @param chord  The Chord that triggers the Action
+	 * @param action The Action to run
+	 * @param repeat true to also run the Action when the held key repeats
+	 */
+	synchronized void bind(KeyChord chord, KeyAction action, boolean repeat) {
+		final Binding binding = new Binding(chord, action, repeat);
+		final int slot = slot(chord);
+		Table next = this.table;
+		for (int code : triggers(chord)) {
+			Binding[][] row = next.row(code);
+			row = row == null ? new Binding[ANY + 1][] : row.clone();
+			Binding[] bucket = row[slot];
+			if (bucket == null) bucket = new Binding[] { binding };
+			else {
+				bucket = Arrays.copyOf(bucket, bucket.length + 1);
+				bucket[bucket.length - 1] = binding;
+			}
+			row[slot] = bucket;
+			next = withRow(next, code, row);
+		}
+		this.table = next;
+	}
+
+	/**
+	 * Remove every binding
+	 */
+	synchronized void clear() {
+		this.table = EMPTY;
+	}
+
+	/**
+	 * Run every Action whose Chord is held, for the key that was just pressed.
+	 * If the key press is a repeat only the Actions bound with repeat on are
+	 * run.
+	 *
+	 * @param code  keyCode of the key that was just pressed
+	 * @param state The keys being held
+	 * @param event The Event sent to the Actions
+	 * @return The amount of Actions that were run
+	 */
+	int dispatch(int code, KeyState state, SimpleKeyEvent event) {
+		final Binding[][] row = this.table.row(code);
+		if (row == null) return 0;
+		final boolean repeat = event.isRepeat();
+		return run(row[state.modifiers()], state, event, repeat) + run(row[ANY], state, event, repeat);
+	}
+
+	/**
+	 * Replace every binding with a new list of bindings. The new index is built
+	 * in one go before it is swapped in, so Events see either all of the old
+	 * bindings or all of the new ones.
+	 *
+	 * @param bindings The new bindings
+	 */
+	synchronized void replace(List<Binding> bindings) {
+		this.table = bindings.isEmpty() ? EMPTY : build(bindings);
+	}
+
+	/**
+	 * Remove a binding
+	 *
+	 * @param chord  The Chord the Action was bound to
+	 * @param action The Action to remove, or null to remove every Action of the
+	 *               Chord
+	 */
+	synchronized void unbind(KeyChord chord, KeyAction action) {
+		final int slot = slot(chord);
+		Table next = this.table;
+		for (int code : triggers(chord)) {
+			Binding[][] row = next.row(code);
+			if (row == null || row[slot] == null) continue;
+			Binding[] bucket = row[slot];
+			Binding[] kept = new Binding[bucket.length];
+			int count = 0;
+			for (Binding binding : bucket)
+				if (!binding.chord.equals(chord) || (action != null && binding.action != action))
+					kept[count++] = binding;
+			if (count == bucket.length) continue;
+			row = row.clone();
+			row[slot] = count == 0 ? null : Arrays.copyOf(kept, count);
+			next = withRow(next, code, row);
+		}
+		this.table = next;
+	}
+
+	/**
+	 * Build an index from a list of bindings
+	 */
+	private static Table build(List<Binding> bindings) {
+		// Group the bindings by trigger key and slot first so each bucket is only made once
+		final Map<Integer, List<List<Binding>>> grouped = new LinkedHashMap<Integer, List<List<Binding>>>();
+		for (Binding binding : bindings) {
+			final int slot = slot(binding.chord);
+			for (int code : triggers(binding.chord)) {
+				List<List<Binding>> row = grouped.get(code);
+				if (row == null) {
+					row = new ArrayList<List<Binding>>(ANY + 1);
+					for (int i = 0; i <= ANY; i++) row.add(null);
+					grouped.put(code, row);
+				}
+				List<Binding> bucket = row.get(slot);
+				if (bucket == null) row.set(slot, bucket = new ArrayList<Binding>());
+				bucket.add(binding);
+			}
+		}
+		final Binding[][][] rows = new Binding[KeyState.CAPACITY][][];
+		final int[] overflowCodes = new int[grouped.size()];
+		final Binding[][][] overflowRows = new Binding[grouped.size()][][];
+		int overflowCount = 0;
+		for (Map.Entry<Integer, List<List<Binding>>> entry : grouped.entrySet()) {
+			final Binding[][] row = new Binding[ANY + 1][];
+			for (int slot = 0; slot <= ANY; slot++) {
+				final List<Binding> bucket = entry.getValue().get(slot);
+				if (bucket != null) row[slot] = bucket.toArray(new Binding[bucket.size()]);
+			}
+			final int code = entry.getKey();
+			if (KeyState.inRange(code)) rows[code] = row;
+			else {
+				overflowCodes[overflowCount] = code;
+				overflowRows[overflowCount++] = row;
+			}
+		}
+		return new Table(rows, Arrays.copyOf(overflowCodes, overflowCount), Arrays.copyOf(overflowRows, overflowCount));
+	}
+
+	/**
+	 * Run the Actions of a bucket whose Chord keys are all held
+	 */
+	private static int run(Binding[] bucket, KeyState state, SimpleKeyEvent event, boolean repeat) {
+		if (bucket == null) return 0;
+		int ran = 0;
+		for (Binding binding : bucket) {
+			if ((repeat && !binding.repeat) || !binding.chord.matchesKeys(state)) continue;
+			binding.action.onAction(event);
+			ran++;
+		}
+		return ran;
+	}
+
+	/**
+	 * Get the slot of a row that a Chord goes into
+	 */
+	private static int slot(KeyChord chord) {
+		final ModifierKey modifier = chord.getModifier();
+		return modifier == null ? ANY : modifier.mask;
+	}
+
+	/**
+	 * Get the keys that trigger a Chord. These are all the keys that are not
+	 * modifiers, or the modifiers themselves if the Chord only has modifiers.
+	 *
+	 * @throws IllegalArgumentException if the Chord has no keys at all
+	 */
+	static int[] triggers(KeyChord chord) {
+		final int[] keys = chord.getKeys();
+		int count = 0;
+		for (int key : keys) if (KeyState.modifierBit(key) == 0) keys[count++] = key;
+		if (count > 0) return Arrays.copyOf(keys, count);
+		if (keys.length > 0) return keys;
+		final ModifierKey modifier = chord.getModifier();
+		if (modifier == null || modifier == ModifierKey.NONE)
+			throw new IllegalArgumentException("A KeyChord needs at least one key to be bound");
+		int[] modifiers = new int[4];
+		for (ModifierKey single : new ModifierKey[] { ModifierKey.ALT, ModifierKey.CTRL, ModifierKey.SHIFT, ModifierKey.WIN })
+			if ((modifier.mask & single.mask) != 0) modifiers[count++] = single.code;
+		return Arrays.copyOf(modifiers, count);
+	}
+
+	/**
+	 * Make a copy of a Table with a row replaced
+	 */
+	private static Table withRow(Table table, int code, Binding[][] row) {
+		if (KeyState.inRange(code)) {
+			Binding[][][] rows = table.rows.clone();
+			rows[code] = row;
+			return new Table(rows, table.overflowCodes, table.overflowRows);
+		}
+		for (int i = 0; i < table.overflowCodes.length; i++) {
+			if (table.overflowCodes[i] != code) continue;
+			Binding[][][] overflowRows = table.overflowRows.clone();
+			overflowRows[i] = row;
+			return new Table(table.rows, table.overflowCodes, overflowRows);
+		}
+		int[] overflowCodes = Arrays.copyOf(table.overflowCodes, table.overflowCodes.length + 1);
+		Binding[][][] overflowRows = Arrays.copyOf(table.overflowRows, table.overflowRows.length + 1);
+		overflowCodes[overflowCodes.length - 1] = code;
+		overflowRows[overflowRows.length - 1] = row;
+		return new Table(table.rows, overflowCodes, overflowRows);
+	}
+}
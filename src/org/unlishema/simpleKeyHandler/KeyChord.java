@@ -0,0 +1,340 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.awt.event.KeyEvent;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ControlKey;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.FunctionKey;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.NavigationKey;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+
+/**
+ * A KeyChord is a group of keys (and optionally a Modifier) that you want to
+ * check are all pressed at the same time.<br>
+ * <br>
+ * The chord is built once and turned into a bitmask, so checking it against the
+ * Handler does not create any garbage no matter how often you do it. This makes
+ * it perfect for checking a lot of shortcuts every frame.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ * final KeyChord save = KeyChord.parse("CTRL+S");
+ *
+ * void draw() {
+ * 	if (skh.isKeysPressed(save)) println("Saving...");
+ * }
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class KeyChord {
+
+	/**
+	 * Every java.awt.event.KeyEvent VK code by its name without the "VK_" and
+	 * back, read once so loading a big {@link KeyMap} never has to search
+	 */
+	private static final Map<String, Integer> VK_CODES = new HashMap<String, Integer>();
+	private static final Map<Integer, String> VK_NAMES = new HashMap<Integer, String>();
+
+	/**
+	 * The name used in a String for a Chord that works with any modifiers
+	 */
+	private static final String ANY = "ANY";
+
+	static {
+		for (Field field : KeyEvent.class.getFields()) {
+			if (!field.getName().startsWith("VK_") || field.getType() != int.class
+					|| !Modifier.isStatic(field.getModifiers()))
+				continue;
+			final String name = field.getName().substring(3);
+			try {
+				final int code = field.getInt(null);
+				VK_CODES.put(name, code);
+				// SEPARATER is an old misspelled copy of SEPARATOR
+				if (!name.equals("SEPARATER")) VK_NAMES.put(code, name);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	// Private Variables
+	private final ModifierKey modifier;
+	private final int[] keys;
+	private final long[] words = new long[KeyState.WORDS];
+	private final int[] overflow;
+
+	/**
+	 * Create the Chord and compile the keys into the bitmask
+	 *
+	 * @param modifier The Modifier that must be pressed, or null for any
+	 * @param keys     The keys that must be pressed
+	 */
+	private KeyChord(ModifierKey modifier, int[] keys) {
+		this.modifier = modifier;
+		int[] distinct = keys.clone();
+		Arrays.sort(distinct);
+		int count = 0, overflowCount = 0;
+		for (int i = 0; i < distinct.length; i++) {
+			if (i > 0 && distinct[i] == distinct[i - 1]) continue;
+			distinct[count++] = distinct[i];
+			if (!KeyState.inRange(distinct[i])) overflowCount++;
+		}
+		this.keys = Arrays.copyOf(distinct, count);
+		this.overflow = new int[overflowCount];
+		overflowCount = 0;
+		for (int key : this.keys) {
+			if (KeyState.inRange(key)) this.words[key >>> 6] |= 1L << key;
+			else this.overflow[overflowCount++] = key;
+		}
+	}
+
+	/**
+	 * Create a Chord that only checks the keys, no matter which modifiers are
+	 * pressed. This works the same as {@link SimpleKeyEvent#isKeysPressed(int...)}.
+	 *
+	 * @param keys The keys that must be pressed
+	 * @return The new KeyChord
+	 */
+	public static KeyChord of(int... keys) {
+		return new KeyChord(null, keys);
+	}
+
+	/**
+	 * Create a Chord that checks the keys as well as the Modifier. This works the
+	 * same as {@link SimpleKeyEvent#isModifiedKeysPressed(ModifierKey, int...)}.
+	 *
+	 * @param modifier The Modifier that must be pressed (ONLY this modifier)
+	 * @param keys     The keys that must be pressed
+	 * @return The new KeyChord
+	 */
+	public static KeyChord of(ModifierKey modifier, int... keys) {
+		if (modifier == null) throw new IllegalArgumentException("The modifier can not be null");
+		return new KeyChord(modifier, keys);
+	}
+
+	/**
+	 * Create a Chord from a String like "CTRL+SHIFT+S".<br>
+	 * <br>
+	 * Each part is split by a '+'. The modifiers are ALT, CTRL (or CONTROL), SHIFT
+	 * and WIN (or WINDOWS). Everything else can be a single letter, number or
+	 * punctuation character (Like ' or [), the name of a {@link FunctionKey} or
+	 * {@link ControlKey}, or the name of any java.awt.event.KeyEvent VK code
+	 * with or without the "VK_" (Like SPACE, LEFT or PLUS). A modifier written
+	 * with its "VK_" (Like "CTRL+VK_SHIFT+A") is a key of the Chord instead of
+	 * a modifier.<br>
+	 * <br>
+	 * If no modifiers are in the String then the Chord will only match when NO
+	 * modifiers are pressed. Start the String with ANY (Like "ANY+SPACE") to
+	 * make a Chord that matches no matter which modifiers are pressed, the same
+	 * as {@link #of(int...)}.
+	 *
+	 * @param chord The String to read the Chord from
+	 * @return The new KeyChord
+	 * @throws IllegalArgumentException if a part of the String is not a known key,
+	 *                                  or ANY is used with other modifiers
+	 */
+	public static KeyChord parse(String chord) {
+		if (chord == null || chord.trim().isEmpty()) throw new IllegalArgumentException("The chord can not be empty");
+		String[] parts = chord.split("\\+");
+		int[] keys = new int[parts.length];
+		int count = 0, mask = 0;
+		boolean any = false;
+		for (String part : parts) {
+			String name = part.trim().toUpperCase();
+			if (name.isEmpty()) throw new IllegalArgumentException("Empty key in chord \"" + chord + "\"");
+			int bit = modifierBit(name);
+			if (bit != 0) mask |= bit;
+			else if (name.equals(ANY)) any = true;
+			else keys[count++] = keyCode(name);
+		}
+		if (any && mask != 0)
+			throw new IllegalArgumentException("ANY can not be used with other modifiers in \"" + chord + "\"");
+		return new KeyChord(any ? null : ModifierKey.fromMask(mask), Arrays.copyOf(keys, count));
+	}
+
+	/**
+	 * Get the Modifier that this Chord needs
+	 *
+	 * @return The Modifier, or null if this Chord works with any modifiers
+	 */
+	public ModifierKey getModifier() {
+		return this.modifier;
+	}
+
+	/**
+	 * Get the keys that this Chord needs (not including the modifier)
+	 *
+	 * @return A copy of the keys
+	 */
+	public int[] getKeys() {
+		return this.keys.clone();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (!(obj instanceof KeyChord)) return false;
+		KeyChord other = (KeyChord) obj;
+		return this.modifier == other.modifier && Arrays.equals(this.keys, other.keys);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (this.modifier == null ? -1 : this.modifier.ordinal()) + Arrays.hashCode(this.keys);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		if (this.modifier == null) sb.append(ANY);
+		else if (this.modifier != ModifierKey.NONE) sb.append(this.modifier.name().replace('_', '+'));
+		for (int key : this.keys) {
+			if (sb.length() > 0) sb.append('+');
+			sb.append(keyName(key));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Check if all the keys of this Chord are held, ignoring the Modifier
+	 *
+	 * @param state The keys being held
+	 * @return true if ALL the keys are held, otherwise false
+	 */
+	boolean matchesKeys(KeyState state) {
+		return state.containsAll(KeyState.ANY_MODIFIERS, this.words, this.overflow);
+	}
+
+	/**
+	 * Check if the Modifier and all the keys of this Chord are held
+	 *
+	 * @param state The keys being held
+	 * @return true if the Chord is held, otherwise false
+	 */
+	boolean matches(KeyState state) {
+		return state.containsAll(this.modifier == null ? KeyState.ANY_MODIFIERS : this.modifier.mask, this.words,
+				this.overflow);
+	}
+
+	/**
+	 * Check if the Modifier given and all the keys of this Chord are held
+	 *
+	 * @param state    The keys being held
+	 * @param modifier The Modifier that must be held instead of this Chord's
+	 * @return true if the Modifier and the keys are held, otherwise false
+	 */
+	boolean matches(KeyState state, ModifierKey modifier) {
+		return state.containsAll(modifier.mask, this.words, this.overflow);
+	}
+
+	/**
+	 * Get the modifier bit for the name of a modifier
+	 *
+	 * @param name The upper case name
+	 * @return The {@link ModifierKey#mask} bit, or 0 if it is not a modifier
+	 */
+	private static int modifierBit(String name) {
+		switch (name) {
+			case "ALT":
+				return ModifierKey.ALT.mask;
+			case "CTRL":
+			case "CONTROL":
+				return ModifierKey.CTRL.mask;
+			case "SHIFT":
+				return ModifierKey.SHIFT.mask;
+			case "WIN":
+			case "WINDOWS":
+				return ModifierKey.WIN.mask;
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Get the name of a key code that {@link #parse(String)} can read back
+	 *
+	 * @param code The key code
+	 * @return The name of the key
+	 */
+	private static String keyName(int code) {
+		if ((code >= 'A' && code <= 'Z') || (code >= '0' && code <= '9')) return String.valueOf((char) code);
+		final FunctionKey functionKey = FunctionKey.fromCode(code);
+		if (functionKey != null) return functionKey.name();
+		final ControlKey controlKey = ControlKey.fromCode(code);
+		if (controlKey != null) return controlKey.name();
+		final NavigationKey navigationKey = NavigationKey.fromCode(code);
+		if (navigationKey != null) return navigationKey.name();
+		// A modifier used as a key keeps its "VK_" so it is not read back as the modifier
+		if (ModifierKey.fromCode(code) != null) return "VK_" + VK_NAMES.get(code);
+		// Punctuation is written by name so it never gets mixed up with the '+' or a KeyMap
+		final String name = VK_NAMES.get(code);
+		return name != null ? name : "0x" + Integer.toHexString(code);
+	}
+
+	/**
+	 * Get the key code for the name of a key
+	 *
+	 * @param name The upper case name
+	 * @return The key code
+	 * @throws IllegalArgumentException if the name is not a known key
+	 */
+	private static int keyCode(String name) {
+		if (name.length() == 1) {
+			final char c = name.charAt(0);
+			// Only letters, numbers and space have a VK code that is the same as the character
+			if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == ' ') return c;
+			final int code = punctuationCode(c);
+			if (code == KeyEvent.VK_UNDEFINED) throw new IllegalArgumentException("Unknown key \"" + name + "\"");
+			return code;
+		}
+		if (name.startsWith("0X")) return Integer.parseInt(name.substring(2), 16);
+		if (name.startsWith("VK_")) name = name.substring(3);
+		for (FunctionKey functionKey : FunctionKey.values()) if (functionKey.name().equals(name)) return functionKey.code;
+		for (ControlKey controlKey : ControlKey.values()) if (controlKey.name().equals(name)) return controlKey.code;
+		final Integer code = VK_CODES.get(name);
+		if (code == null) throw new IllegalArgumentException("Unknown key \"" + name + "\"");
+		return code;
+	}
+
+	/**
+	 * Get the VK code of the key a punctuation character is on
+	 *
+	 * @param c The character
+	 * @return The VK code, or VK_UNDEFINED if it is not punctuation
+	 */
+	private static int punctuationCode(char c) {
+		switch (c) {
+			case ',':
+				return KeyEvent.VK_COMMA;
+			case '-':
+				return KeyEvent.VK_MINUS;
+			case '.':
+				return KeyEvent.VK_PERIOD;
+			case '/':
+				return KeyEvent.VK_SLASH;
+			case ';':
+				return KeyEvent.VK_SEMICOLON;
+			case '=':
+				return KeyEvent.VK_EQUALS;
+			case '[':
+				return KeyEvent.VK_OPEN_BRACKET;
+			case '\\':
+				return KeyEvent.VK_BACK_SLASH;
+			case ']':
+				return KeyEvent.VK_CLOSE_BRACKET;
+			case '`':
+				return KeyEvent.VK_BACK_QUOTE;
+			case '\'':
+				return KeyEvent.VK_QUOTE;
+			default:
+				return KeyEvent.VK_UNDEFINED;
+		}
+	}
+}
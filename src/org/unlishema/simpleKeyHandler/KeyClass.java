@@ -0,0 +1,153 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.awt.event.KeyEvent;
+
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ControlKey;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.FunctionKey;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.NavigationKey;
+
+/**
+ * KeyClass tells you what kind of key a keyCode is.<br>
+ * <br>
+ * Every keyCode has some flags: {@link #PRINTABLE}, {@link #LETTER},
+ * {@link #DIGIT}, {@link #NUMPAD}, {@link #CONTROL}, {@link #FUNCTION},
+ * {@link #MODIFIER} and {@link #NAVIGATION}. A key can have more than one (The
+ * 5 on the number pad is PRINTABLE, DIGIT and NUMPAD) or none at all.<br>
+ * <br>
+ * The flags of every key are worked out once into a table, so looking them up
+ * is just reading the table and never makes anything. That makes it fine to do
+ * in a Listener for every Event.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ *
+ * void setup() {
+ * 	skh.addListener(new SimpleKeyListener() {
+ * 		public void onKeyPressed(final SimpleKeyEvent event) {
+ * 			if (KeyClass.isNavigation(event.getKeyCode())) println("Moving");
+ * 		}
+ *
+ * 		public void onKeyReleased(final SimpleKeyEvent event) {}
+ *
+ * 		public void onKeyTyped(final SimpleKeyEvent event) {}
+ * 	});
+ * }
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class KeyClass {
+	public static final int PRINTABLE = 1;
+	public static final int LETTER = 1 << 1;
+	public static final int DIGIT = 1 << 2;
+	public static final int NUMPAD = 1 << 3;
+	public static final int CONTROL = 1 << 4;
+	public static final int FUNCTION = 1 << 5;
+	public static final int MODIFIER = 1 << 6;
+	public static final int NAVIGATION = 1 << 7;
+
+	private static final byte[] FLAGS = new byte[KeyState.CAPACITY];
+
+	static {
+		for (int code = 'A'; code <= 'Z'; code++) FLAGS[code] = PRINTABLE | LETTER;
+		for (int code = '0'; code <= '9'; code++) FLAGS[code] = PRINTABLE | DIGIT;
+		for (int code = KeyEvent.VK_NUMPAD0; code <= KeyEvent.VK_NUMPAD9; code++)
+			FLAGS[code] = PRINTABLE | DIGIT | NUMPAD;
+		for (int code = KeyEvent.VK_MULTIPLY; code <= KeyEvent.VK_DIVIDE; code++) FLAGS[code] = PRINTABLE | NUMPAD;
+		for (int code : new int[] { KeyEvent.VK_SPACE, KeyEvent.VK_COMMA, KeyEvent.VK_MINUS, KeyEvent.VK_PERIOD,
+				KeyEvent.VK_SLASH, KeyEvent.VK_SEMICOLON, KeyEvent.VK_EQUALS, KeyEvent.VK_OPEN_BRACKET,
+				KeyEvent.VK_BACK_SLASH, KeyEvent.VK_CLOSE_BRACKET, KeyEvent.VK_BACK_QUOTE, KeyEvent.VK_QUOTE })
+			FLAGS[code] = PRINTABLE;
+		for (ControlKey controlKey : ControlKey.values()) FLAGS[controlKey.code] = CONTROL;
+		for (FunctionKey functionKey : FunctionKey.values())
+			if (KeyState.inRange(functionKey.code)) FLAGS[functionKey.code] = FUNCTION;
+		for (NavigationKey navigationKey : NavigationKey.values()) FLAGS[navigationKey.code] |= NAVIGATION;
+		for (ModifierKey modifierKey : ModifierKey.values())
+			if (modifierKey.code > 0) FLAGS[modifierKey.code] = MODIFIER;
+		// The Mac command key is a modifier, it just does not have a ModifierKey
+		FLAGS[KeyEvent.VK_META] = MODIFIER;
+	}
+
+	private KeyClass() {
+	}
+
+	/**
+	 * Get all the flags of a keyCode
+	 *
+	 * @param keyCode The keyCode
+	 * @return The flags of the key, or 0 if it has none
+	 */
+	public static int classify(int keyCode) {
+		if (KeyState.inRange(keyCode)) return FLAGS[keyCode] & 0xFF;
+		// F13 to F24 and ALT GRAPH are the only keys past the table
+		if (keyCode >= KeyEvent.VK_F13 && keyCode <= KeyEvent.VK_F24) return FUNCTION;
+		if (keyCode == KeyEvent.VK_ALT_GRAPH) return MODIFIER;
+		return 0;
+	}
+
+	/**
+	 * Check if a keyCode has any of the flags
+	 *
+	 * @param keyCode The keyCode
+	 * @param flags   The flags to check for (Like PRINTABLE | NAVIGATION)
+	 * @return true if the key has at least one of the flags, otherwise false
+	 */
+	public static boolean is(int keyCode, int flags) {
+		return (classify(keyCode) & flags) != 0;
+	}
+
+	/**
+	 * Check if a keyCode is a {@link ControlKey}
+	 *
+	 * @param keyCode The keyCode
+	 * @return true if it is a Control Key, otherwise false
+	 */
+	public static boolean isControl(int keyCode) {
+		return is(keyCode, CONTROL);
+	}
+
+	/**
+	 * Check if a keyCode is a {@link FunctionKey}
+	 *
+	 * @param keyCode The keyCode
+	 * @return true if it is a Function Key, otherwise false
+	 */
+	public static boolean isFunction(int keyCode) {
+		return is(keyCode, FUNCTION);
+	}
+
+	/**
+	 * Check if a keyCode is a modifier. This is every {@link ModifierKey} plus the
+	 * Mac command key and ALT GRAPH.
+	 *
+	 * @param keyCode The keyCode
+	 * @return true if it is a modifier, otherwise false
+	 */
+	public static boolean isModifier(int keyCode) {
+		return is(keyCode, MODIFIER);
+	}
+
+	/**
+	 * Check if a keyCode is a {@link NavigationKey}
+	 *
+	 * @param keyCode The keyCode
+	 * @return true if it is a Navigation Key, otherwise false
+	 */
+	public static boolean isNavigation(int keyCode) {
+		return is(keyCode, NAVIGATION);
+	}
+
+	/**
+	 * Check if a keyCode is a key that types a character, like a letter, a digit
+	 * or space
+	 *
+	 * @param keyCode The keyCode
+	 * @return true if the key types a character, otherwise false
+	 */
+	public static boolean isPrintable(int keyCode) {
+		return is(keyCode, PRINTABLE);
+	}
+}
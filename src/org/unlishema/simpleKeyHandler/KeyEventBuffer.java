@@ -0,0 +1,78 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.Arrays;
+
+/**
+ * A KeyEventBuffer holds raw key Events until the Handler is ready for them.
+ * The Events are kept in primitive arrays that only grow, so once it is big
+ * enough for a frame of Events no more garbage is made.
+ *
+ * @author Unlishema
+ *
+ */
+final class KeyEventBuffer {
+	// Private Variables
+	private int[] actions = new int[16];
+	private int[] keyCodes = new int[16];
+	private char[] keys = new char[16];
+	private long[] millis = new long[16];
+	private long[] received = new long[16];
+	private int size = 0;
+
+	/**
+	 * Add an Event to the end of the buffer
+	 *
+	 * @param action   The KeyEvent action
+	 * @param keyCode  keyCode of the Event
+	 * @param key      The key of the Event
+	 * @param millis   The time of the Event
+	 * @param received The System.nanoTime() the Event was received at
+	 */
+	void add(int action, int keyCode, char key, long millis, long received) {
+		if (this.size == this.actions.length) {
+			final int length = this.size << 1;
+			this.actions = Arrays.copyOf(this.actions, length);
+			this.keyCodes = Arrays.copyOf(this.keyCodes, length);
+			this.keys = Arrays.copyOf(this.keys, length);
+			this.millis = Arrays.copyOf(this.millis, length);
+			this.received = Arrays.copyOf(this.received, length);
+		}
+		this.actions[this.size] = action;
+		this.keyCodes[this.size] = keyCode;
+		this.keys[this.size] = key;
+		this.millis[this.size] = millis;
+		this.received[this.size] = received;
+		this.size++;
+	}
+
+	/**
+	 * Remove every Event from the buffer
+	 */
+	void clear() {
+		this.size = 0;
+	}
+
+	int action(int index) {
+		return this.actions[index];
+	}
+
+	int keyCode(int index) {
+		return this.keyCodes[index];
+	}
+
+	char key(int index) {
+		return this.keys[index];
+	}
+
+	long millis(int index) {
+		return this.millis[index];
+	}
+
+	long received(int index) {
+		return this.received[index];
+	}
+
+	int size() {
+		return this.size;
+	}
+}
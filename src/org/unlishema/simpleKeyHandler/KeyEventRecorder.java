@@ -0,0 +1,168 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A KeyEventRecorder writes every key Event that comes into a Handler to a
+ * compact binary log so it can be played back later with a
+ * {@link KeyEventReplayer}, like for reproducing a bug or load testing.<br>
+ * <br>
+ * The log starts with the bytes "SKHR" and a version byte. Each Event after that
+ * is a byte for the action followed by the time since the last Event, the
+ * keyCode and the key, each written as a variable length number, so most Events
+ * only take 4 or 5 bytes. Recording to a file that already exists adds onto the
+ * end of it, and logs put one after another are still a valid log.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ *
+ * void setup() {
+ * 	try {
+ * 		skh.setRecorder(new KeyEventRecorder(Paths.get(sketchPath("keys.skhr"))));
+ * 	} catch (IOException e) {
+ * 		e.printStackTrace();
+ * 	}
+ * }
+ *
+ * void dispose() {
+ * 	skh.setRecorder(null);
+ * }
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class KeyEventRecorder implements Closeable, Flushable {
+	/**
+	 * The bytes every log starts with
+	 */
+	static final byte[] MAGIC = { 'S', 'K', 'H', 'R' };
+
+	/**
+	 * The version of the log format
+	 */
+	static final byte VERSION = 1;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The most bytes a single Event can take (1 for the action, 10 for the time and
+	 * 5 each for the keyCode and key)
+	 */
+	private static final int MAX_RECORD = 21;
+
+	// Private Variables
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private long lastMillis = 0L;
+	private long recorded = 0L;
+	private boolean closed = false;
+
+	/**
+	 * Create a Recorder that adds onto the end of a file, creating it if needed
+	 *
+	 * @param file The file to record to
+	 * @throws IOException if the file could not be opened
+	 */
+	public KeyEventRecorder(Path file) throws IOException {
+		this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+	}
+
+	/**
+	 * Create a Recorder that writes to a channel. The channel is closed when the
+	 * Recorder is closed.
+	 *
+	 * @param channel The channel to record to
+	 */
+	public KeyEventRecorder(WritableByteChannel channel) {
+		this.channel = channel;
+		this.buffer.put(MAGIC).put(VERSION);
+	}
+
+	/**
+	 * Write everything that is buffered and close the log
+	 *
+	 * @throws IOException if the log could not be written
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (this.closed) return;
+		this.closed = true;
+		try {
+			this.drain();
+		} finally {
+			this.channel.close();
+		}
+	}
+
+	/**
+	 * Write everything that is buffered to the log
+	 *
+	 * @throws IOException if the log could not be written
+	 */
+	@Override
+	public synchronized void flush() throws IOException {
+		this.drain();
+		if (this.channel instanceof FileChannel) ((FileChannel) this.channel).force(false);
+	}
+
+	/**
+	 * Get the amount of Events that have been recorded
+	 *
+	 * @return The amount of Events
+	 */
+	public synchronized long getRecorded() {
+		return this.recorded;
+	}
+
+	/**
+	 * Record an Event
+	 *
+	 * @param action  The KeyEvent action
+	 * @param keyCode keyCode of the Event
+	 * @param key     The key of the Event
+	 * @param millis  The time of the Event
+	 * @throws IOException if the log could not be written
+	 */
+	public synchronized void record(int action, int keyCode, char key, long millis) throws IOException {
+		if (this.closed) throw new IOException("The KeyEventRecorder is closed");
+		if (action < 1 || action > 3) throw new IllegalArgumentException("Unknown action " + action);
+		if (this.buffer.remaining() < MAX_RECORD) this.drain();
+		final long delta = millis - this.lastMillis;
+		this.lastMillis = millis;
+		this.buffer.put((byte) action);
+		writeVarLong(this.buffer, (delta << 1) ^ (delta >> 63));
+		writeVarLong(this.buffer, keyCode & 0xFFFFFFFFL);
+		writeVarLong(this.buffer, key);
+		this.recorded++;
+	}
+
+	/**
+	 * Write the buffer to the channel
+	 */
+	private void drain() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining()) this.channel.write(this.buffer);
+		this.buffer.clear();
+	}
+
+	/**
+	 * Write a number 7 bits at a time, with the top bit of each byte saying if
+	 * another byte follows
+	 */
+	private static void writeVarLong(ByteBuffer buffer, long value) {
+		while ((value & ~0x7FL) != 0L) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+}
@@ -0,0 +1,174 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A KeyEventReplayer plays back a log written by a {@link KeyEventRecorder}
+ * into a Handler.<br>
+ * <br>
+ * The Events go through the same path as Events from the sketch, so keys are
+ * registered and deregistered and every Action, KeySequence and Listener is
+ * executed just like they were the first time. It does not need a window, so it
+ * can be used to reproduce a bug or to push millions of Events through your
+ * Listeners as a stress test. Events are handled right away even if the Handler
+ * is batching Events by frame.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ *
+ * void keyPressed() {
+ * 	if (key == 'r') try (KeyEventReplayer replayer = new KeyEventReplayer(Paths.get(sketchPath("keys.skhr")))) {
+ * 		replayer.replay(skh, 2); // Twice as fast as it was recorded
+ * 	} catch (IOException e) {
+ * 		e.printStackTrace();
+ * 	}
+ * }
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class KeyEventReplayer implements Closeable {
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	// Private Variables
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private boolean started = false;
+	private long millis = 0L;
+
+	/**
+	 * Create a Replayer that reads a file
+	 *
+	 * @param file The file to replay
+	 * @throws IOException if the file could not be opened
+	 */
+	public KeyEventReplayer(Path file) throws IOException {
+		this(FileChannel.open(file, StandardOpenOption.READ));
+	}
+
+	/**
+	 * Create a Replayer that reads from a channel. The channel is closed when the
+	 * Replayer is closed.
+	 *
+	 * @param channel The channel to replay from
+	 */
+	public KeyEventReplayer(ReadableByteChannel channel) {
+		this.channel = channel;
+		this.buffer.limit(0);
+	}
+
+	/**
+	 * Close the log
+	 *
+	 * @throws IOException if the log could not be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	/**
+	 * Play back every Event in the log into a Handler.<br>
+	 * <br>
+	 * The speed is how many times faster than it was recorded to play it back, so
+	 * 1 is the same speed and 2 is twice as fast. A speed of 0 (or less) plays it
+	 * back as fast as possible.
+	 *
+	 * @param handler The Handler to play the Events into
+	 * @param speed   How many times faster to play it back, or 0 for as fast as
+	 *                possible
+	 * @return The amount of Events played back
+	 * @throws IOException if the log could not be read or is not a valid log
+	 */
+	public long replay(SimpleKeyHandler handler, double speed) throws IOException {
+		if (!this.started) {
+			if (!this.fill(KeyEventRecorder.MAGIC.length + 1)) return 0;
+			this.readHeader();
+			this.started = true;
+		}
+		final long start = System.nanoTime();
+		long firstMillis = Long.MIN_VALUE, count = 0L;
+		while (this.fill(1)) {
+			final int action = this.buffer.get(this.buffer.position());
+			// A header in the middle is where another log was added onto the end
+			if (action == KeyEventRecorder.MAGIC[0]) {
+				if (!this.fill(KeyEventRecorder.MAGIC.length + 1)) throw new EOFException("The log ends inside of a header");
+				this.readHeader();
+				this.millis = 0L;
+				continue;
+			}
+			this.buffer.get();
+			if (action < 1 || action > 3) throw new IOException("Unknown action " + action + " in the log");
+			final long delta = this.readVarLong();
+			this.millis += (delta >>> 1) ^ -(delta & 1);
+			final long millis = this.millis;
+			final int keyCode = (int) this.readVarLong();
+			final char key = (char) this.readVarLong();
+			if (speed > 0) {
+				if (firstMillis == Long.MIN_VALUE) firstMillis = millis;
+				final long due = start + (long) ((millis - firstMillis) * 1_000_000L / speed);
+				for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime())
+					LockSupport.parkNanos(wait);
+			}
+			handler.handleKeyEvent(action, keyCode, key, millis, System.nanoTime());
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Make sure at least some bytes are in the buffer
+	 *
+	 * @param bytes The amount of bytes needed
+	 * @return true if the bytes are there, false if the log ended before any more
+	 *         bytes
+	 * @throws EOFException if the log ended part way through the bytes
+	 */
+	private boolean fill(int bytes) throws IOException {
+		if (this.buffer.remaining() >= bytes) return true;
+		this.buffer.compact();
+		while (this.buffer.position() < bytes) {
+			if (this.channel.read(this.buffer) < 0) {
+				this.buffer.flip();
+				if (!this.buffer.hasRemaining()) return false;
+				throw new EOFException("The log ends part way through an Event");
+			}
+		}
+		this.buffer.flip();
+		return true;
+	}
+
+	/**
+	 * Read and check the header of a log
+	 */
+	private void readHeader() throws IOException {
+		for (byte b : KeyEventRecorder.MAGIC)
+			if (this.buffer.get() != b) throw new IOException("This is not a KeyEventRecorder log");
+		final byte version = this.buffer.get();
+		if (version != KeyEventRecorder.VERSION) throw new IOException("Unknown log version " + version);
+	}
+
+	/**
+	 * Read a number written 7 bits at a time
+	 */
+	private long readVarLong() throws IOException {
+		long value = 0L;
+		for (int shift = 0; shift < 64; shift += 7) {
+			if (!this.fill(1)) throw new EOFException("The log ends part way through an Event");
+			final byte b = this.buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) return value;
+		}
+		throw new IOException("A number in the log is too long");
+	}
+}
@@ -0,0 +1,128 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A KeyEventSnapshot is the Event that is sent to the Listeners. It holds
+ * everything about the Handler at the moment the Event happened (The key, the
+ * action, the time, the modifiers, every key being held and the last key
+ * typed) so it does not matter when or on which Thread a Listener reads it.<br>
+ * <br>
+ * Snapshots are taken from a {@link Pool} and put back once every Listener is
+ * done with them, so no garbage is made while keys are being pressed.
+ *
+ * @author Unlishema
+ *
+ */
+final class KeyEventSnapshot extends SimpleKeyEvent {
+	/**
+	 * A Pool of Snapshots for an engine.<br>
+	 * <br>
+	 * Only one Thread at a time takes Snapshots out (The engine makes sure of
+	 * this), but any Thread can put them back.
+	 *
+	 * @author Unlishema
+	 *
+	 */
+	static final class Pool {
+		private final AtomicReference<KeyEventSnapshot> top = new AtomicReference<KeyEventSnapshot>();
+		private final AtomicInteger made = new AtomicInteger();
+
+		/**
+		 * Take a Snapshot of the Handler as it is right now
+		 *
+		 * @param handler  The Handler to take the Snapshot of
+		 * @param received The System.nanoTime() the Event was received at
+		 * @return The Snapshot
+		 */
+		KeyEventSnapshot capture(SimpleKeyHandler handler, long received) {
+			KeyEventSnapshot snapshot;
+			for (;;) {
+				snapshot = this.top.get();
+				if (snapshot == null) {
+					snapshot = new KeyEventSnapshot();
+					this.made.incrementAndGet();
+					break;
+				}
+				if (this.top.compareAndSet(snapshot, snapshot.next)) {
+					snapshot.next = null;
+					break;
+				}
+			}
+			snapshot.handler = handler;
+			snapshot.received = received;
+			snapshot.copyFrom(handler);
+			return snapshot;
+		}
+
+		/**
+		 * Get the amount of Snapshots the Pool has made, in the Pool or not
+		 *
+		 * @return The amount of Snapshots
+		 */
+		int made() {
+			return this.made.get();
+		}
+
+		/**
+		 * Make new Snapshots until the Pool has made at least this many, so the
+		 * Snapshots made before are used again instead of adding more each time
+		 *
+		 * @param count The amount of Snapshots the Pool should have
+		 */
+		void reserve(int count) {
+			for (int made = this.made.get(); made < count; made = this.made.get())
+				if (this.made.compareAndSet(made, made + 1)) this.release(new KeyEventSnapshot());
+		}
+
+		/**
+		 * Put a Snapshot back into the Pool
+		 *
+		 * @param snapshot The Snapshot that is no longer used
+		 */
+		void release(KeyEventSnapshot snapshot) {
+			if (snapshot == null) return;
+			snapshot.handler = null;
+			for (;;) {
+				final KeyEventSnapshot top = this.top.get();
+				snapshot.next = top;
+				if (this.top.compareAndSet(top, snapshot)) return;
+			}
+		}
+	}
+
+	// Private Variables
+	private SimpleKeyHandler handler;
+	private KeyEventSnapshot next;
+	private long received;
+
+	/**
+	 * Get the Handler the Snapshot was taken from
+	 *
+	 * @return The Handler, or null if the Snapshot is in the Pool
+	 */
+	SimpleKeyHandler getHandler() {
+		return this.handler;
+	}
+
+	/**
+	 * Get the time the Handler received the Event, before it was batched, held
+	 * back or queued
+	 *
+	 * @return The System.nanoTime() the Event was received at
+	 */
+	long getReceived() {
+		return this.received;
+	}
+
+	/**
+	 * A Snapshot can not be changed, so this clears the keys of the Handler the
+	 * Snapshot was taken from instead.
+	 */
+	@Override
+	public void clear() {
+		final SimpleKeyHandler handler = this.handler;
+		if (handler != null) handler.clear();
+	}
+}
@@ -0,0 +1,259 @@
+package org.unlishema.simpleKeyHandler;
+
+/**
+ * A KeyFocusNode is something that can have the key focus, like a widget or a
+ * panel holding widgets.<br>
+ * <br>
+ * Nodes are put into a tree by giving each one a parent. When a node is
+ * focused with {@link SimpleKeyHandler#pushFocus(KeyFocusNode)}, each Event
+ * only walks the path from the root down to that node instead of going to
+ * every widget:<br>
+ * <br>
+ *
+ * <pre>
+	&#183; Capture	: The capture Listeners of each node from the root down to the focused node
+	&#183; Bubble	: The Listeners of each node from the focused node back up to the root
+	&#183; Fallback	: The Listeners added to the Handler
+ * </pre>
+ *
+ * Any Listener can {@link SimpleKeyEvent#consume() consume} the Event to stop
+ * it from going any further, so a text field can keep the keys it uses away
+ * from the rest of the sketch. The Actions bound to KeyChords and KeySequences
+ * always run first, no matter what is focused.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ * final KeyFocusNode form = new KeyFocusNode();
+ * final KeyFocusNode field = new KeyFocusNode(form);
+ *
+ * void setup() {
+ * 	field.addListener(new SimpleKeyListener() {
+ * 		public void onKeyPressed(final SimpleKeyEvent event) {
+ * 			if (event.getKeyCode() == ENTER) event.consume();
+ * 		}
+ *
+ * 		public void onKeyReleased(final SimpleKeyEvent event) {}
+ *
+ * 		public void onKeyTyped(final SimpleKeyEvent event) {}
+ * 	});
+ * 	skh.pushFocus(field);
+ * }
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyFocusNode {
+	// Private Variables
+	private final KeyFocusNode parent;
+	private final KeyFocusNode[] path;
+	private final KeyListeners captureListeners = new KeyListeners();
+	private final KeyListeners listeners = new KeyListeners();
+
+	/**
+	 * Create a root node
+	 */
+	public KeyFocusNode() {
+		this(null);
+	}
+
+	/**
+	 * Create a node inside of another one
+	 *
+	 * @param parent The node this one is inside of, or null for a root node
+	 */
+	public KeyFocusNode(final KeyFocusNode parent) {
+		this.parent = parent;
+		// The path never changes, so it is worked out once instead of on every Event
+		if (parent == null) this.path = new KeyFocusNode[] { this };
+		else {
+			this.path = new KeyFocusNode[parent.path.length + 1];
+			System.arraycopy(parent.path, 0, this.path, 0, parent.path.length);
+			this.path[parent.path.length] = this;
+		}
+	}
+
+	/**
+	 * Add a Listener that gets the Event on the way down to the focused node,
+	 * before the Listeners of the nodes inside of this one
+	 *
+	 * @param kel new SimpleKeyListener() {}
+	 */
+	public void addCaptureListener(SimpleKeyListener kel) {
+		this.captureListeners.add(kel, 0, null);
+	}
+
+	/**
+	 * Add a capture Listener that only gets the Events it wants, see
+	 * {@link SimpleKeyEngine#addListener(SimpleKeyListener, int, KeyInterest)}
+	 *
+	 * @param kel      new SimpleKeyListener() {}
+	 * @param priority The priority of the Listener, the default is 0
+	 * @param interest The Events the Listener wants, or null for every Event
+	 */
+	public void addCaptureListener(SimpleKeyListener kel, int priority, KeyInterest interest) {
+		this.captureListeners.add(kel, priority, interest);
+	}
+
+	/**
+	 * Add a Listener that gets the Event when this node or a node inside of it is
+	 * focused, after the Listeners of the nodes inside of this one
+	 *
+	 * @param kel new SimpleKeyListener() {}
+	 */
+	public void addListener(SimpleKeyListener kel) {
+		this.listeners.add(kel, 0, null);
+	}
+
+	/**
+	 * Add a Listener that only gets the Events it wants, see
+	 * {@link SimpleKeyEngine#addListener(SimpleKeyListener, int, KeyInterest)}
+	 *
+	 * @param kel      new SimpleKeyListener() {}
+	 * @param priority The priority of the Listener, the default is 0
+	 * @param interest The Events the Listener wants, or null for every Event
+	 */
+	public void addListener(SimpleKeyListener kel, int priority, KeyInterest interest) {
+		this.listeners.add(kel, priority, interest);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is pressed while this node or a
+	 * node inside of it is focused
+	 *
+	 * @param handler event -&gt; {}
+	 */
+	public void addPressHandler(KeyPressHandler handler) {
+		this.listeners.pressed.add(handler);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is released while this node or a
+	 * node inside of it is focused
+	 *
+	 * @param handler event -&gt; {}
+	 */
+	public void addReleaseHandler(KeyReleaseHandler handler) {
+		this.listeners.released.add(handler);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is typed while this node or a
+	 * node inside of it is focused
+	 *
+	 * @param handler event -&gt; {}
+	 */
+	public void addTypeHandler(KeyTypeHandler handler) {
+		this.listeners.typed.add(handler);
+	}
+
+	/**
+	 * Get how deep the node is in the tree
+	 *
+	 * @return 0 for a root node, 1 for a node inside of a root node and so on
+	 */
+	public int getDepth() {
+		return this.path.length - 1;
+	}
+
+	/**
+	 * Get the node this one is inside of
+	 *
+	 * @return The parent node, or null if this is a root node
+	 */
+	public KeyFocusNode getParent() {
+		return this.parent;
+	}
+
+	/**
+	 * Check if a node is this node or is inside of it
+	 *
+	 * @param node The node to check
+	 * @return true if the node is this one or inside of it, otherwise false
+	 */
+	public boolean isAncestorOf(KeyFocusNode node) {
+		return node != null && node.path.length >= this.path.length && node.path[this.path.length - 1] == this;
+	}
+
+	/**
+	 * Remove All the Listeners from the node
+	 */
+	public void removeAllListeners() {
+		this.captureListeners.clear();
+		this.listeners.clear();
+	}
+
+	/**
+	 * Remove a capture Listener from the node
+	 *
+	 * @param kel The SimpleKeyListener that you want to remove
+	 */
+	public void removeCaptureListener(SimpleKeyListener kel) {
+		this.captureListeners.remove(kel);
+	}
+
+	/**
+	 * Remove a Listener from the node
+	 *
+	 * @param kel The SimpleKeyListener that you want to remove
+	 */
+	public void removeListener(SimpleKeyListener kel) {
+		this.listeners.remove(kel);
+	}
+
+	/**
+	 * Remove a handler of pressed keys from the node
+	 *
+	 * @param handler The KeyPressHandler that you want to remove
+	 */
+	public void removePressHandler(KeyPressHandler handler) {
+		this.listeners.pressed.remove(handler);
+	}
+
+	/**
+	 * Remove a handler of released keys from the node
+	 *
+	 * @param handler The KeyReleaseHandler that you want to remove
+	 */
+	public void removeReleaseHandler(KeyReleaseHandler handler) {
+		this.listeners.released.remove(handler);
+	}
+
+	/**
+	 * Remove a handler of typed keys from the node
+	 *
+	 * @param handler The KeyTypeHandler that you want to remove
+	 */
+	public void removeTypeHandler(KeyTypeHandler handler) {
+		this.listeners.typed.remove(handler);
+	}
+
+	/**
+	 * Get the capture Listeners of the node
+	 *
+	 * @return The capture Listeners
+	 */
+	KeyListeners getCaptureListeners() {
+		return this.captureListeners;
+	}
+
+	/**
+	 * Get the Listeners of the node
+	 *
+	 * @return The Listeners
+	 */
+	KeyListeners getListeners() {
+		return this.listeners;
+	}
+
+	/**
+	 * Get every node from the root down to this one. The array must not be
+	 * changed.
+	 *
+	 * @return The path to this node
+	 */
+	KeyFocusNode[] getPath() {
+		return this.path;
+	}
+}
@@ -0,0 +1,34 @@
+package org.unlishema.simpleKeyHandler;
+
+/**
+ * A KeyInputSource is where a Handler gets its key Events from.<br>
+ * <br>
+ * The Handler itself does not care where the keys come from, so the same
+ * Handler can be used with a Processing sketch ({@link PAppletKeySource}), any
+ * AWT Component ({@link AwtKeySource}) or no window at all
+ * ({@link HeadlessKeySource}) for simulations, tests and benchmarks.<br>
+ * <br>
+ * A source sends its Events to the Handler with
+ * {@link SimpleKeyHandler#postKeyEvent(int, int, char, long)}, should call
+ * {@link SimpleKeyHandler#pre()} at the start of every frame if it has frames,
+ * and should call {@link SimpleKeyHandler#releaseHeldKeys()} if its window
+ * loses focus, so the Listeners are told the held keys were released.
+ *
+ * @author Unlishema
+ *
+ */
+public interface KeyInputSource {
+	/**
+	 * Start sending Events to a Handler
+	 *
+	 * @param handler The Handler to send the Events to
+	 */
+	public void attach(final SimpleKeyHandler handler);
+
+	/**
+	 * Stop sending Events to a Handler
+	 *
+	 * @param handler The Handler to stop sending the Events to
+	 */
+	public void detach(final SimpleKeyHandler handler);
+}
@@ -0,0 +1,136 @@
+package org.unlishema.simpleKeyHandler;
+
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+
+import processing.event.KeyEvent;
+
+/**
+ * A KeyInterest says which Events a Listener wants.<br>
+ * <br>
+ * Give one when adding a Listener and it is only executed for the Events it
+ * wants. The Listeners are sorted into a list for each action when they are
+ * added, so a Listener that only wants key presses is never even looked at for
+ * released or typed keys.<br>
+ * <br>
+ * The key range and modifiers only apply to pressed and released keys, since a
+ * typed key does not have a keyCode.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ *
+ * void setup() {
+ * 	// Only the number keys being pressed with no modifiers
+ * 	skh.addListener(numberListener, 0, KeyInterest.of(KeyEvent.PRESS).withKeys('0', '9').withModifiers(ModifierKey.NONE));
+ * }
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class KeyInterest {
+	private static final int ALL_ACTIONS = 1 << KeyEvent.PRESS | 1 << KeyEvent.RELEASE | 1 << KeyEvent.TYPE;
+
+	/**
+	 * Every Event
+	 */
+	public static final KeyInterest ALL = new KeyInterest(ALL_ACTIONS, 0, Integer.MAX_VALUE, KeyState.ANY_MODIFIERS);
+
+	// Private Variables
+	private final int actions;
+	private final int fromKey, toKey;
+	private final int modifiers;
+
+	private KeyInterest(int actions, int fromKey, int toKey, int modifiers) {
+		this.actions = actions;
+		this.fromKey = fromKey;
+		this.toKey = toKey;
+		this.modifiers = modifiers;
+	}
+
+	/**
+	 * Create an interest in some actions, for every key
+	 *
+	 * @param actions The processing.event.KeyEvent actions (PRESS, RELEASE or
+	 *                TYPE)
+	 * @return The KeyInterest
+	 * @throws IllegalArgumentException if an action is not PRESS, RELEASE or TYPE
+	 */
+	public static KeyInterest of(int... actions) {
+		int mask = 0;
+		for (int action : actions) {
+			if (action != KeyEvent.PRESS && action != KeyEvent.RELEASE && action != KeyEvent.TYPE)
+				throw new IllegalArgumentException("Unknown action " + action);
+			mask |= 1 << action;
+		}
+		return new KeyInterest(mask, 0, Integer.MAX_VALUE, KeyState.ANY_MODIFIERS);
+	}
+
+	/**
+	 * Only want pressed and released keys inside of a range of keyCodes
+	 *
+	 * @param fromKey The first keyCode
+	 * @param toKey   The last keyCode
+	 * @return A new KeyInterest with the range
+	 */
+	public KeyInterest withKeys(int fromKey, int toKey) {
+		if (fromKey > toKey) throw new IllegalArgumentException("The first key can not be after the last key");
+		return new KeyInterest(this.actions, fromKey, toKey, this.modifiers);
+	}
+
+	/**
+	 * Only want pressed and released keys while exactly these modifiers are held
+	 *
+	 * @param modifier The modifiers that have to be held, NONE for no modifiers
+	 *                 or null for any modifiers
+	 * @return A new KeyInterest with the modifiers
+	 */
+	public KeyInterest withModifiers(ModifierKey modifier) {
+		return new KeyInterest(this.actions, this.fromKey, this.toKey,
+				modifier == null ? KeyState.ANY_MODIFIERS : modifier.mask);
+	}
+
+	/**
+	 * Check if an action is wanted
+	 *
+	 * @param action The processing.event.KeyEvent action
+	 * @return true if the action is wanted, otherwise false
+	 */
+	public boolean accepts(int action) {
+		return action >= 0 && action < 32 && (this.actions & 1 << action) != 0;
+	}
+
+	/**
+	 * Check if an Event is wanted
+	 *
+	 * @param action    The processing.event.KeyEvent action
+	 * @param keyCode   keyCode of the Event
+	 * @param modifiers The {@link ModifierKey#mask} bits being held
+	 * @return true if the Event is wanted, otherwise false
+	 */
+	public boolean accepts(int action, int keyCode, int modifiers) {
+		if (!this.accepts(action)) return false;
+		return action == KeyEvent.TYPE || this.acceptsKey(keyCode, modifiers);
+	}
+
+	/**
+	 * Check if a pressed or released key is wanted, no matter the action
+	 *
+	 * @param keyCode   keyCode of the Event
+	 * @param modifiers The {@link ModifierKey#mask} bits being held
+	 * @return true if the key is wanted, otherwise false
+	 */
+	boolean acceptsKey(int keyCode, int modifiers) {
+		return keyCode >= this.fromKey && keyCode <= this.toKey
+				&& (this.modifiers == KeyState.ANY_MODIFIERS || this.modifiers == modifiers);
+	}
+
+	/**
+	 * Check if only some keys or modifiers are wanted
+	 *
+	 * @return true if the keys or modifiers have to be checked, otherwise false
+	 */
+	boolean isKeyFiltered() {
+		return this.fromKey != 0 || this.toKey != Integer.MAX_VALUE || this.modifiers != KeyState.ANY_MODIFIERS;
+	}
+}
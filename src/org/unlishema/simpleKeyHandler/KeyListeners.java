@@ -0,0 +1,55 @@
+package org.unlishema.simpleKeyHandler;
+
+import processing.event.KeyEvent;
+
+/**
+ * KeyListeners holds a list of handlers for each action.<br>
+ * <br>
+ * A {@link SimpleKeyListener} is put into the list of every action its
+ * {@link KeyInterest} wants, and a {@link KeyPressHandler},
+ * {@link KeyReleaseHandler} or {@link KeyTypeHandler} only into its own. That
+ * way sending an Event only walks the handlers of its action, and each action
+ * always calls the same method so the JIT can keep the call fast.
+ *
+ * @author Unlishema
+ *
+ */
+final class KeyListeners {
+	final ListenerRegistry<KeyPressHandler> pressed = new ListenerRegistry<KeyPressHandler>();
+	final ListenerRegistry<KeyReleaseHandler> released = new ListenerRegistry<KeyReleaseHandler>();
+	final ListenerRegistry<KeyTypeHandler> typed = new ListenerRegistry<KeyTypeHandler>();
+
+	/**
+	 * Add a Listener to the lists of the actions it wants
+	 *
+	 * @param kel      The Listener
+	 * @param priority The priority, higher goes first
+	 * @param interest The Events the Listener wants, or null for every Event
+	 */
+	void add(SimpleKeyListener kel, int priority, KeyInterest interest) {
+		if (interest == null) interest = KeyInterest.ALL;
+		if (interest.accepts(KeyEvent.PRESS)) this.pressed.add(kel, priority, interest);
+		if (interest.accepts(KeyEvent.RELEASE)) this.released.add(kel, priority, interest);
+		if (interest.accepts(KeyEvent.TYPE)) this.typed.add(kel, priority, interest);
+	}
+
+	/**
+	 * Remove every Listener and handler
+	 */
+	void clear() {
+		this.pressed.clear();
+		this.released.clear();
+		this.typed.clear();
+	}
+
+	/**
+	 * Remove a Listener from every list
+	 *
+	 * @param kel The Listener
+	 */
+	void remove(SimpleKeyListener kel) {
+		this.pressed.remove(kel);
+		this.released.remove(kel);
+		this.typed.remove(kel);
+	}
+}
@@ -0,0 +1,237 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A KeyMap is a profile of which {@link KeyChord}s trigger which named
+ * actions.<br>
+ * <br>
+ * Instead of checking for keys inside of your sketch, give each
+ * {@link KeyAction} a name with
+ * {@link SimpleKeyHandler#defineAction(String, KeyAction)} and let a KeyMap say
+ * which keys run it. A KeyMap can be loaded from a file, so players (or mods)
+ * can change the keys without changing the sketch. The file has one action on
+ * each line with the Chords that run it split by commas, and lines starting
+ * with '#' are ignored. A Chord starting with ANY works no matter which
+ * modifiers are held:<br>
+ * <br>
+ *
+ * <pre>
+	# keys.keymap
+	save = CTRL+S
+	jump = ANY+SPACE, W
+	quit = ALT+F4, CTRL+Q
+ * </pre>
+ *
+ * A KeyMap never changes once it is made. When a KeyMap is set on a Handler it
+ * is compiled into the same kind of index that
+ * {@link SimpleKeyHandler#bind(KeyChord, KeyAction)} uses and swapped in all at
+ * once, so a new KeyMap can be set while keys are being pressed and every Event
+ * sees either the whole old KeyMap or the whole new one.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ *
+ * void setup() {
+ * 	skh.defineAction("save", new KeyAction() {
+ * 		void onAction(final SimpleKeyEvent event) {
+ * 			println("Saving...");
+ * 		}
+ * 	});
+ * 	skh.setKeyMap(KeyMap.parse(loadStrings("keys.keymap")));
+ * }
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class KeyMap {
+	/**
+	 * A KeyMap with no bindings
+	 */
+	public static final KeyMap EMPTY = new KeyMap(new LinkedHashMap<String, KeyChord[]>(), 0);
+
+	// Private Variables
+	private final Map<String, KeyChord[]> actions;
+	private final int size;
+
+	private KeyMap(Map<String, KeyChord[]> actions, int size) {
+		this.actions = actions;
+		this.size = size;
+	}
+
+	/**
+	 * Load a KeyMap from a file
+	 *
+	 * @param file The file to load (Like Paths.get(dataPath("keys.keymap")))
+	 * @return The KeyMap
+	 * @throws IOException              if the file could not be read
+	 * @throws IllegalArgumentException if a line of the file is not valid
+	 */
+	public static KeyMap load(Path file) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return load(reader);
+		}
+	}
+
+	/**
+	 * Load a KeyMap from a Reader (Like createReader("keys.keymap")). The Reader
+	 * is not closed.
+	 *
+	 * @param reader The Reader to load from
+	 * @return The KeyMap
+	 * @throws IOException              if the Reader could not be read
+	 * @throws IllegalArgumentException if a line is not valid
+	 */
+	public static KeyMap load(Reader reader) throws IOException {
+		final BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+		final Builder builder = new Builder();
+		int number = 0;
+		for (String line = lines.readLine(); line != null; line = lines.readLine()) builder.line(line, ++number);
+		return builder.build();
+	}
+
+	/**
+	 * Read a KeyMap from its lines (Like loadStrings("keys.keymap"))
+	 *
+	 * @param lines The lines of the KeyMap
+	 * @return The KeyMap
+	 * @throws IllegalArgumentException if a line is not valid
+	 */
+	public static KeyMap parse(String... lines) {
+		final Builder builder = new Builder();
+		for (int i = 0; i < lines.length; i++) builder.line(lines[i], i + 1);
+		return builder.build();
+	}
+
+	/**
+	 * Get the names of every action in the KeyMap
+	 *
+	 * @return The names in the order they are in the KeyMap
+	 */
+	public List<String> getActions() {
+		return Collections.unmodifiableList(new ArrayList<String>(this.actions.keySet()));
+	}
+
+	/**
+	 * Get the Chords that run an action
+	 *
+	 * @param action The name of the action
+	 * @return The Chords, or an empty list if the action is not in the KeyMap
+	 */
+	public List<KeyChord> getChords(String action) {
+		final KeyChord[] chords = this.actions.get(action);
+		return chords == null ? Collections.<KeyChord>emptyList() : Collections.unmodifiableList(Arrays.asList(chords));
+	}
+
+	/**
+	 * Get the amount of Chords in the KeyMap
+	 *
+	 * @return The amount of bindings
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Make a copy of the KeyMap with the Chords of one action changed, like when
+	 * a player picks a new key in the settings
+	 *
+	 * @param action The name of the action
+	 * @param chords The new Chords of the action, none to remove the action
+	 * @return The new KeyMap
+	 */
+	public KeyMap with(String action, KeyChord... chords) {
+		for (KeyChord chord : chords) KeyBindings.triggers(chord);
+		final Map<String, KeyChord[]> actions = new LinkedHashMap<String, KeyChord[]>(this.actions);
+		final KeyChord[] old = chords.length == 0 ? actions.remove(action) : actions.put(action, chords.clone());
+		return new KeyMap(actions, this.size - (old == null ? 0 : old.length) + chords.length);
+	}
+
+	/**
+	 * Write the KeyMap in the same format it is loaded from. The Writer is not
+	 * closed.
+	 *
+	 * @param writer The Writer to write to
+	 * @throws IOException if the KeyMap could not be written
+	 */
+	public void write(Writer writer) throws IOException {
+		writer.write(this.toString());
+		writer.flush();
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, KeyChord[]> entry : this.actions.entrySet()) {
+			sb.append(entry.getKey()).append(" = ");
+			final KeyChord[] chords = entry.getValue();
+			for (int i = 0; i < chords.length; i++) sb.append(i == 0 ? "" : ", ").append(chords[i]);
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Get every action with its Chords
+	 *
+	 * @return The actions in the order they are in the KeyMap
+	 */
+	Map<String, KeyChord[]> getBindings() {
+		return this.actions;
+	}
+
+	/**
+	 * Reads a KeyMap one line at a time
+	 */
+	private static final class Builder {
+		private final Map<String, List<KeyChord>> actions = new LinkedHashMap<String, List<KeyChord>>();
+		private int size = 0;
+
+		void line(String line, int number) {
+			final String trimmed = line.trim();
+			if (trimmed.isEmpty() || trimmed.charAt(0) == '#') return;
+			final int equals = trimmed.indexOf('=');
+			if (equals <= 0) throw new IllegalArgumentException("Line " + number + ": Expected \"action = chord\"");
+			final String action = trimmed.substring(0, equals).trim();
+			List<KeyChord> chords = this.actions.get(action);
+			if (chords == null) this.actions.put(action, chords = new ArrayList<KeyChord>());
+			int start = equals + 1;
+			while (start <= trimmed.length()) {
+				int end = trimmed.indexOf(',', start);
+				if (end < 0) end = trimmed.length();
+				final String chord = trimmed.substring(start, end).trim();
+				start = end + 1;
+				if (chord.isEmpty()) continue;
+				try {
+					final KeyChord parsed = KeyChord.parse(chord);
+					KeyBindings.triggers(parsed);
+					chords.add(parsed);
+					this.size++;
+				} catch (IllegalArgumentException e) {
+					throw new IllegalArgumentException("Line " + number + ": " + e.getMessage(), e);
+				}
+			}
+		}
+
+		KeyMap build() {
+			final Map<String, KeyChord[]> actions = new LinkedHashMap<String, KeyChord[]>();
+			for (Map.Entry<String, List<KeyChord>> entry : this.actions.entrySet())
+				actions.put(entry.getKey(), entry.getValue().toArray(new KeyChord[entry.getValue().size()]));
+			return new KeyMap(actions, this.size);
+		}
+	}
+}
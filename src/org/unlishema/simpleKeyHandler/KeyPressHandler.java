@@ -0,0 +1,26 @@
+package org.unlishema.simpleKeyHandler;
+
+/**
+ * A KeyPressHandler is executed when a key is pressed. It only has one method, so
+ * it can be a lambda:<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * skh.addPressHandler(event -&gt; println(event.getKeyCode()));
+ * </pre>
+ *
+ * Every {@link SimpleKeyListener} is also a KeyPressHandler.
+ *
+ * @author Unlishema
+ *
+ */
+@FunctionalInterface
+public interface KeyPressHandler {
+	/**
+	 * A function for you to do when a key is pressed. A copy of SimpleKeyEvent is
+	 * sent so you can access the system.
+	 * 
+	 * @param event An Event to access and determine what keys are pressed.
+	 */
+	public void onKeyPressed(final SimpleKeyEvent event);
+}
@@ -0,0 +1,197 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.Arrays;
+
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+
+/**
+ * A KeySequence is a list of keys that you want pressed one after another, like
+ * "G then G" in Vim, "CTRL+X CTRL+S" in Emacs or "UP UP DOWN DOWN" in a
+ * game.<br>
+ * <br>
+ * Each step of the Sequence is a single key along with the modifiers that must
+ * be held while it is pressed (No modifiers if none are given). The next step
+ * has to be pressed within the timeout of the Sequence or it starts over.
+ * Pressing a modifier on its own never counts as a step and never breaks a
+ * Sequence, and neither does a key being held down and repeating.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ *
+ * void setup() {
+ * 	skh.bindSequence("UP UP DOWN DOWN LEFT RIGHT LEFT RIGHT B A", new KeyAction() {
+ * 		public void onAction(SimpleKeyEvent event) {
+ * 			println("30 Lives!");
+ * 		}
+ * 	});
+ * }
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class KeySequence {
+	/**
+	 * The default time in milliseconds allowed between each step
+	 */
+	public static final long DEFAULT_TIMEOUT = 1000L;
+
+	// Private Variables
+	private final int[] codes;
+	private final int[] modifiers;
+	private final long timeout;
+
+	/**
+	 * Create the Sequence
+	 *
+	 * @param codes     The key of each step
+	 * @param modifiers The {@link ModifierKey#mask} of each step
+	 * @param timeout   The time in milliseconds allowed between each step
+	 */
+	private KeySequence(int[] codes, int[] modifiers, long timeout) {
+		if (codes.length == 0) throw new IllegalArgumentException("A KeySequence needs at least one step");
+		if (timeout <= 0) throw new IllegalArgumentException("The timeout must be greater than 0");
+		for (int code : codes)
+			if (KeyState.modifierBit(code) != 0)
+				throw new IllegalArgumentException("A step of a KeySequence can not be only a modifier");
+		this.codes = codes;
+		this.modifiers = modifiers;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Create a Sequence of keys pressed without any modifiers
+	 *
+	 * @param keys The keys to press one after another
+	 * @return The new KeySequence
+	 */
+	public static KeySequence of(int... keys) {
+		return new KeySequence(keys.clone(), new int[keys.length], DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Create a Sequence from Chords that each have a single key. A Chord made
+	 * without a Modifier is a step without any modifiers.
+	 *
+	 * @param steps The Chords to press one after another
+	 * @return The new KeySequence
+	 * @throws IllegalArgumentException if a Chord does not have exactly one key
+	 */
+	public static KeySequence of(KeyChord... steps) {
+		final int[] codes = new int[steps.length];
+		final int[] modifiers = new int[steps.length];
+		for (int i = 0; i < steps.length; i++) {
+			final int[] keys = steps[i].getKeys();
+			if (keys.length != 1)
+				throw new IllegalArgumentException("Each step of a KeySequence must be a single key: " + steps[i]);
+			codes[i] = keys[0];
+			modifiers[i] = steps[i].getModifier() == null ? 0 : steps[i].getModifier().mask;
+		}
+		return new KeySequence(codes, modifiers, DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Create a Sequence from a String like "G G" or "CTRL+X CTRL+S".<br>
+	 * <br>
+	 * Each step is split by spaces or commas and is read the same way as
+	 * {@link KeyChord#parse(String)}, but must only have a single key.
+	 *
+	 * @param sequence The String to read the Sequence from
+	 * @return The new KeySequence
+	 * @throws IllegalArgumentException if a step is not a known key
+	 */
+	public static KeySequence parse(String sequence) {
+		if (sequence == null || sequence.trim().isEmpty())
+			throw new IllegalArgumentException("The sequence can not be empty");
+		final String[] parts = sequence.trim().split("[\\s,]+");
+		final KeyChord[] steps = new KeyChord[parts.length];
+		for (int i = 0; i < parts.length; i++) steps[i] = KeyChord.parse(parts[i]);
+		return of(steps);
+	}
+
+	/**
+	 * Make a copy of this Sequence with a different timeout
+	 *
+	 * @param timeout The time in milliseconds allowed between each step
+	 * @return The new KeySequence
+	 */
+	public KeySequence withTimeout(long timeout) {
+		return new KeySequence(this.codes, this.modifiers, timeout);
+	}
+
+	/**
+	 * Get the amount of steps in this Sequence
+	 *
+	 * @return The amount of steps
+	 */
+	public int getLength() {
+		return this.codes.length;
+	}
+
+	/**
+	 * Get the steps of this Sequence
+	 *
+	 * @return A Chord for each step
+	 */
+	public KeyChord[] getSteps() {
+		final KeyChord[] steps = new KeyChord[this.codes.length];
+		for (int i = 0; i < steps.length; i++)
+			steps[i] = KeyChord.of(ModifierKey.fromMask(this.modifiers[i]), this.codes[i]);
+		return steps;
+	}
+
+	/**
+	 * Get the time allowed between each step
+	 *
+	 * @return The timeout in milliseconds
+	 */
+	public long getTimeout() {
+		return this.timeout;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (!(obj instanceof KeySequence)) return false;
+		KeySequence other = (KeySequence) obj;
+		return this.timeout == other.timeout && Arrays.equals(this.codes, other.codes)
+				&& Arrays.equals(this.modifiers, other.modifiers);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * Arrays.hashCode(this.codes) + Arrays.hashCode(this.modifiers)) + Long.hashCode(this.timeout);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (KeyChord step : this.getSteps()) {
+			if (sb.length() > 0) sb.append(' ');
+			sb.append(step);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Get the symbol of a step that the recognizer moves on
+	 *
+	 * @param step The index of the step
+	 * @return The key and modifiers of the step packed into one int
+	 */
+	int symbol(int step) {
+		return symbol(this.codes[step], this.modifiers[step]);
+	}
+
+	/**
+	 * Pack a key and the modifiers held into one int
+	 *
+	 * @param code      keyCode of the key
+	 * @param modifiers The {@link ModifierKey#mask} bits being held
+	 * @return The packed symbol
+	 */
+	static int symbol(int code, int modifiers) {
+		return code << 4 | modifiers;
+	}
+}
@@ -0,0 +1,278 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * KeySequences holds all the {@link KeyAction}s that are bound to a
+ * {@link KeySequence} and recognizes them as keys are pressed.<br>
+ * <br>
+ * Every Sequence is compiled into one trie with failure links (Aho-Corasick),
+ * so each key press is a single step through the trie no matter how many
+ * Sequences are bound, and a Sequence that starts part way through another one
+ * (Like "UP UP DOWN" after pressing UP three times) is still found.<br>
+ * <br>
+ * The trie is never changed once it is built. Binding and unbinding only marks
+ * it as out of date, and the next key press builds a new one and swaps it in,
+ * so binding a lot of Sequences at once only builds it once and pressing keys
+ * only waits on a lock for the first key after a change. How far each Handler
+ * is through the trie is kept in its own {@link Cursor}, so Handlers sharing an
+ * engine share one trie.
+ *
+ * @author Unlishema
+ *
+ */
+final class KeySequences {
+	private static final KeyAction[] NO_ACTIONS = new KeyAction[0];
+
+	/**
+	 * A single Sequence bound to a single Action
+	 */
+	private static final class Binding {
+		final KeySequence sequence;
+		final KeyAction action;
+
+		Binding(KeySequence sequence, KeyAction action) {
+			this.sequence = sequence;
+			this.action = action;
+		}
+	}
+
+	/**
+	 * The compiled trie. Node 0 is the root and the transitions of every node are
+	 * kept in one open addressed table keyed by the node and the symbol.
+	 */
+	private static final class Trie {
+		final long[] keys;
+		final int[] targets;
+		final int mask;
+		final int[] fail;
+		final boolean[] leaf;
+		final long[] timeouts;
+		final KeyAction[][] outputs;
+
+		Trie(int nodes, int transitions) {
+			int capacity = 2;
+			while (capacity < transitions * 2) capacity <<= 1;
+			this.keys = new long[capacity];
+			Arrays.fill(this.keys, -1L);
+			this.targets = new int[capacity];
+			this.mask = capacity - 1;
+			this.fail = new int[nodes];
+			this.leaf = new boolean[nodes];
+			this.timeouts = new long[nodes];
+			this.outputs = new KeyAction[nodes][];
+		}
+
+		void put(int node, int symbol, int target) {
+			final long key = key(node, symbol);
+			int slot = hash(key) & this.mask;
+			while (this.keys[slot] != -1L) slot = (slot + 1) & this.mask;
+			this.keys[slot] = key;
+			this.targets[slot] = target;
+		}
+
+		int get(int node, int symbol) {
+			final long key = key(node, symbol);
+			for (int slot = hash(key) & this.mask;; slot = (slot + 1) & this.mask) {
+				final long found = this.keys[slot];
+				if (found == key) return this.targets[slot];
+				if (found == -1L) return -1;
+			}
+		}
+
+		private static long key(int node, int symbol) {
+			return (long) node << 32 | (symbol & 0xFFFFFFFFL);
+		}
+
+		private static int hash(long key) {
+			final long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+
+	/**
+	 * How far a Handler is through the trie. Only the Thread sending the Events
+	 * of the Handler moves it, even when it is reset from another Thread.
+	 */
+	static final class Cursor {
+		private Trie trie = EMPTY;
+		private int node = 0;
+		private long lastMillis = 0L;
+		private volatile boolean resetPending = false;
+
+		/**
+		 * Forget the steps that have been pressed so far. The Thread sending the
+		 * Events does this before the next key press.
+		 */
+		void reset() {
+			this.resetPending = true;
+		}
+	}
+
+	private static final Trie EMPTY = build(new ArrayList<Binding>());
+
+	// Private Variables
+	private final List<Binding> bindings = new ArrayList<Binding>();
+	// The trie is null while it is out of date
+	private volatile Trie trie = EMPTY;
+
+	/**
+	 * Bind an Action to a Sequence
+	 *
+	 * @param sequence The Sequence that triggers the Action
+	 * @param action   The Action to run
+	 */
+	synchronized void bind(KeySequence sequence, KeyAction action) {
+		this.bindings.add(new Binding(sequence, action));
+		this.trie = null;
+	}
+
+	/**
+	 * Remove every Sequence
+	 */
+	synchronized void clear() {
+		this.bindings.clear();
+		this.trie = EMPTY;
+	}
+
+	/**
+	 * Move through the trie for the key that was just pressed and run the Actions
+	 * of every Sequence that was finished by it
+	 *
+	 * @param cursor    How far the Handler of the Event is through the trie
+	 * @param code      keyCode of the key that was just pressed
+	 * @param modifiers The {@link SimpleKeyEvent.ModifierKey#mask} bits being held
+	 * @param millis    The time of the key press
+	 * @param event     The Event sent to the Actions
+	 * @return The amount of Actions that were run
+	 */
+	int dispatch(Cursor cursor, int code, int modifiers, long millis, SimpleKeyEvent event) {
+		if (KeyState.modifierBit(code) != 0) return 0;
+		Trie trie = this.trie;
+		if (trie == null) trie = this.rebuild();
+		if (trie == EMPTY) return 0;
+		int node = cursor.node;
+		if (cursor.resetPending) {
+			cursor.resetPending = false;
+			node = 0;
+		}
+		// Start over if the trie was rebuilt or the last step timed out
+		if (trie != cursor.trie) {
+			cursor.trie = trie;
+			node = 0;
+		} else if (node != 0 && millis - cursor.lastMillis > trie.timeouts[node]) node = 0;
+		final int symbol = KeySequence.symbol(code, modifiers);
+		int next = trie.get(node, symbol);
+		while (next < 0 && node != 0) {
+			node = trie.fail[node];
+			next = trie.get(node, symbol);
+		}
+		if (next < 0) next = 0;
+		cursor.lastMillis = millis;
+		final KeyAction[] outputs = trie.outputs[next];
+		cursor.node = outputs.length > 0 && trie.leaf[next] ? 0 : next;
+		for (KeyAction action : outputs) action.onAction(event);
+		return outputs.length;
+	}
+
+	/**
+	 * Remove a binding
+	 *
+	 * @param sequence The Sequence the Action was bound to
+	 * @param action   The Action to remove, or null to remove every Action of the
+	 *                 Sequence
+	 */
+	synchronized void unbind(KeySequence sequence, KeyAction action) {
+		boolean removed = false;
+		for (int i = this.bindings.size() - 1; i >= 0; i--) {
+			final Binding binding = this.bindings.get(i);
+			if (!binding.sequence.equals(sequence) || (action != null && binding.action != action)) continue;
+			this.bindings.remove(i);
+			removed = true;
+		}
+		if (removed) this.trie = null;
+	}
+
+	/**
+	 * Build the trie again if it is out of date
+	 *
+	 * @return The trie
+	 */
+	private synchronized Trie rebuild() {
+		if (this.trie == null) this.trie = this.bindings.isEmpty() ? EMPTY : build(this.bindings);
+		return this.trie;
+	}
+
+	/**
+	 * Compile the bindings into a trie
+	 */
+	private static Trie build(List<Binding> bindings) {
+		// Build the plain trie first
+		final Map<Long, Integer> edges = new HashMap<Long, Integer>();
+		final List<List<int[]>> children = new ArrayList<List<int[]>>();
+		final List<Long> timeouts = new ArrayList<Long>();
+		final List<List<KeyAction>> actions = new ArrayList<List<KeyAction>>();
+		children.add(new ArrayList<int[]>());
+		timeouts.add(0L);
+		actions.add(new ArrayList<KeyAction>());
+		for (Binding binding : bindings) {
+			final KeySequence sequence = binding.sequence;
+			int node = 0;
+			for (int step = 0; step < sequence.getLength(); step++) {
+				// The time allowed after a node is the longest of any Sequence going past it
+				timeouts.set(node, Math.max(timeouts.get(node), sequence.getTimeout()));
+				final int symbol = sequence.symbol(step);
+				final Long edge = (long) node << 32 | (symbol & 0xFFFFFFFFL);
+				Integer next = edges.get(edge);
+				if (next == null) {
+					next = children.size();
+					edges.put(edge, next);
+					children.get(node).add(new int[] { symbol, next });
+					children.add(new ArrayList<int[]>());
+					timeouts.add(0L);
+					actions.add(new ArrayList<KeyAction>());
+				}
+				node = next;
+			}
+			actions.get(node).add(binding.action);
+		}
+
+		final Trie trie = new Trie(children.size(), edges.size());
+		for (int node = 0; node < children.size(); node++) {
+			for (int[] child : children.get(node)) trie.put(node, child[0], child[1]);
+			trie.leaf[node] = children.get(node).isEmpty();
+			trie.timeouts[node] = timeouts.get(node);
+		}
+
+		// Then link every node to the longest suffix that is also in the trie
+		trie.outputs[0] = NO_ACTIONS;
+		final int[] queue = new int[children.size()];
+		int head = 0, tail = 0;
+		queue[tail++] = 0;
+		while (head < tail) {
+			final int node = queue[head++];
+			for (int[] child : children.get(node)) {
+				final int symbol = child[0], target = child[1];
+				int fail = 0;
+				if (node != 0) {
+					int link = trie.fail[node];
+					while (link != 0 && trie.get(link, symbol) < 0) link = trie.fail[link];
+					final int next = trie.get(link, symbol);
+					fail = next < 0 ? 0 : next;
+				}
+				trie.fail[target] = fail;
+				final List<KeyAction> own = actions.get(target);
+				final KeyAction[] inherited = trie.outputs[fail];
+				final KeyAction[] outputs = own.toArray(new KeyAction[own.size() + inherited.length]);
+				System.arraycopy(inherited, 0, outputs, own.size(), inherited.length);
+				trie.outputs[target] = outputs;
+				queue[tail++] = target;
+			}
+		}
+		return trie;
+	}
+}
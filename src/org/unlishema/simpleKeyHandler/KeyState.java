@@ -0,0 +1,343 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.awt.event.KeyEvent;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+
+/**
+ * A KeyState is the table of keys that are currently held down.<br>
+ * <br>
+ * Every key code from 0 up to {@link #CAPACITY} is stored as a single bit
+ * inside of a long[] so pressing, releasing and checking a key is just one bit
+ * operation with no boxing or searching. Key codes outside of that range (some
+ * of the larger VK codes) are kept in a small overflow array instead, since
+ * they are rarely ever held.<br>
+ * <br>
+ * The modifiers (ALT, CTRL, SHIFT and WIN) being held are also kept as a 4 bit
+ * mask that matches {@link ModifierKey#mask}, so checking a modifier is a
+ * single compare.<br>
+ * <br>
+ * The time each key was pressed is kept as well (Only once a key has been
+ * pressed on this KeyState, copies do not keep times) so how long a key has been
+ * held is just a subtraction.<br>
+ * <br>
+ * Changes are synchronized so the Handler and your sketch can both clear it,
+ * but reading never has to wait on a lock. Every change is published through a
+ * sequence number (A seqlock) that is odd while a change is being made, so
+ * checking several keys at once from any Thread (The physics, audio or render
+ * Thread) either sees all of a change or none of it, and simply tries again in
+ * the rare case it overlapped one.
+ *
+ * @author Unlishema
+ *
+ */
+final class KeyState {
+	/**
+	 * The amount of key codes that are stored inside of the bitset. This covers
+	 * every common VK code including the Windows Key (524).
+	 */
+	static final int CAPACITY = 1024;
+
+	/**
+	 * The amount of longs needed to hold {@link #CAPACITY} bits
+	 */
+	static final int WORDS = CAPACITY >>> 6;
+
+	/**
+	 * Passed as the modifiers to check when any modifiers are allowed
+	 */
+	static final int ANY_MODIFIERS = -1;
+
+	private static final int[] NO_OVERFLOW = new int[0];
+
+	// Private Variables
+	private final AtomicLongArray words = new AtomicLongArray(WORDS);
+	private long[] times = null;
+	private volatile int[] overflow = NO_OVERFLOW;
+	private long[] overflowTimes = new long[0];
+	private volatile int sequence = 0;
+	private volatile int count = 0;
+	private volatile int modifiers = 0;
+
+	/**
+	 * Get the modifier bit of a key code
+	 *
+	 * @param code The key code to check
+	 * @return The {@link ModifierKey#mask} bit of the key, or 0 if it is not a
+	 *         modifier
+	 */
+	static int modifierBit(int code) {
+		switch (code) {
+			case KeyEvent.VK_ALT:
+				return ModifierKey.ALT.mask;
+			case KeyEvent.VK_CONTROL:
+				return ModifierKey.CTRL.mask;
+			case KeyEvent.VK_SHIFT:
+				return ModifierKey.SHIFT.mask;
+			case KeyEvent.VK_WINDOWS:
+				return ModifierKey.WIN.mask;
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Check if a key code is stored inside of the bitset or the overflow array
+	 *
+	 * @param code The key code to check
+	 * @return true if the code fits in the bitset, otherwise false
+	 */
+	static boolean inRange(int code) {
+		return code >= 0 && code < CAPACITY;
+	}
+
+	/**
+	 * Release every key that is being held
+	 */
+	synchronized void clear() {
+		if (this.count == 0) return;
+		this.sequence++;
+		for (int i = 0; i < WORDS; i++) this.words.set(i, 0L);
+		this.overflow = NO_OVERFLOW;
+		this.overflowTimes = new long[0];
+		this.count = 0;
+		this.modifiers = 0;
+		this.sequence++;
+	}
+
+	/**
+	 * Check if every key of a compiled bitmask is being held along with exactly
+	 * the modifiers, as one consistent read
+	 *
+	 * @param modifiers The {@link ModifierKey#mask} bits that must be held, or
+	 *                  {@link #ANY_MODIFIERS}
+	 * @param mask      The bits of the keys inside of the bitset
+	 * @param overflow  The keys that do not fit inside of the bitset
+	 * @return true if ANY key is held and ALL the keys are held, otherwise false
+	 */
+	boolean containsAll(int modifiers, long[] mask, int[] overflow) {
+		for (;;) {
+			final int sequence = this.sequence;
+			if ((sequence & 1) != 0) continue;
+			final boolean result = this.count != 0 && (modifiers == ANY_MODIFIERS || this.modifiers == modifiers)
+					&& this.containsWords(mask) && this.containsOverflow(overflow);
+			if (sequence == this.sequence) return result;
+		}
+	}
+
+	/**
+	 * Check if every key is being held along with exactly the modifiers, as one
+	 * consistent read
+	 *
+	 * @param modifiers The {@link ModifierKey#mask} bits that must be held, or
+	 *                  {@link #ANY_MODIFIERS}
+	 * @param codes     The keys that must be held
+	 * @return true if ANY key is held and ALL the keys are held, otherwise false
+	 */
+	boolean containsAll(int modifiers, int[] codes) {
+		for (;;) {
+			final int sequence = this.sequence;
+			if ((sequence & 1) != 0) continue;
+			boolean result = this.count != 0 && (modifiers == ANY_MODIFIERS || this.modifiers == modifiers);
+			for (int i = 0; result && i < codes.length; i++) result = this.get(codes[i]);
+			if (sequence == this.sequence) return result;
+		}
+	}
+
+	/**
+	 * Copy every key being held from another KeyState into this one. The source
+	 * is read as one consistent snapshot without locking it.
+	 *
+	 * @param source The KeyState to copy
+	 */
+	synchronized void copyFrom(KeyState source) {
+		this.sequence++;
+		for (;;) {
+			final int sequence = source.sequence;
+			if ((sequence & 1) != 0) continue;
+			for (int i = 0; i < WORDS; i++) this.words.set(i, source.words.get(i));
+			this.overflow = source.overflow;
+			this.count = source.count;
+			this.modifiers = source.modifiers;
+			if (sequence == source.sequence) break;
+		}
+		if (this.overflowTimes.length != this.overflow.length) this.overflowTimes = new long[this.overflow.length];
+		else Arrays.fill(this.overflowTimes, 0L);
+		this.sequence++;
+	}
+
+	/**
+	 * Get the amount of keys being held
+	 *
+	 * @return The amount of keys being held
+	 */
+	int count() {
+		return this.count;
+	}
+
+	/**
+	 * Get every key being held
+	 *
+	 * @return The keyCodes of the keys being held, smallest first with the large
+	 *         codes at the end
+	 */
+	synchronized int[] keys() {
+		final int[] overflow = this.overflow;
+		final int[] keys = new int[this.count];
+		int size = 0;
+		for (int i = 0; i < WORDS && size < keys.length - overflow.length; i++) {
+			for (long word = this.words.get(i); word != 0L; word &= word - 1)
+				keys[size++] = (i << 6) + Long.numberOfTrailingZeros(word);
+		}
+		System.arraycopy(overflow, 0, keys, size, overflow.length);
+		return keys;
+	}
+
+	/**
+	 * Get the sequence number of the KeyState. It changes every time a key is
+	 * pressed or released and is odd while a change is being made.
+	 *
+	 * @return The sequence number
+	 */
+	int version() {
+		return this.sequence;
+	}
+
+	/**
+	 * Get the modifiers being held
+	 *
+	 * @return The {@link ModifierKey#mask} bits of the modifiers being held
+	 */
+	int modifiers() {
+		return this.modifiers;
+	}
+
+	/**
+	 * Check if a key is being held
+	 *
+	 * @param code keyCode of the key to check
+	 * @return true if the key is held, otherwise false
+	 */
+	boolean get(int code) {
+		if (inRange(code)) return (this.words.get(code >>> 6) & (1L << code)) != 0L;
+		return indexOf(this.overflow, code) >= 0;
+	}
+
+	/**
+	 * Get the time a key was pressed
+	 *
+	 * @param code keyCode of the key to check
+	 * @return The System.nanoTime() the key was pressed at, or 0 if it is not held
+	 *         or the time is not known
+	 */
+	synchronized long pressedAt(int code) {
+		if (inRange(code)) return this.times != null && this.get(code) ? this.times[code] : 0L;
+		final int index = indexOf(this.overflow, code);
+		return index < 0 ? 0L : this.overflowTimes[index];
+	}
+
+	/**
+	 * Mark a key as being held
+	 *
+	 * @param code keyCode of the key being pressed
+	 * @return true if the key was not held before, otherwise false
+	 */
+	synchronized boolean set(int code) {
+		if (inRange(code)) {
+			final int word = code >>> 6;
+			final long bit = 1L << code;
+			final long value = this.words.get(word);
+			if ((value & bit) != 0L) return false;
+			if (this.times == null) this.times = new long[CAPACITY];
+			this.times[code] = System.nanoTime();
+			this.sequence++;
+			this.words.set(word, value | bit);
+			this.modifiers |= modifierBit(code);
+		} else {
+			if (indexOf(this.overflow, code) >= 0) return false;
+			// Large codes are rare, so they are copied on write to keep reads lock free
+			final int length = this.overflow.length;
+			final int[] overflow = Arrays.copyOf(this.overflow, length + 1);
+			overflow[length] = code;
+			this.overflowTimes = Arrays.copyOf(this.overflowTimes, length + 1);
+			this.overflowTimes[length] = System.nanoTime();
+			this.sequence++;
+			this.overflow = overflow;
+		}
+		this.count++;
+		this.sequence++;
+		return true;
+	}
+
+	/**
+	 * Mark a key as no longer being held
+	 *
+	 * @param code keyCode of the key being released
+	 * @return true if the key was held before, otherwise false
+	 */
+	synchronized boolean unset(int code) {
+		if (inRange(code)) {
+			final int word = code >>> 6;
+			final long bit = 1L << code;
+			final long value = this.words.get(word);
+			if ((value & bit) == 0L) return false;
+			this.sequence++;
+			this.words.set(word, value & ~bit);
+			this.modifiers &= ~modifierBit(code);
+		} else {
+			final int index = indexOf(this.overflow, code);
+			if (index < 0) return false;
+			final int last = this.overflow.length - 1;
+			final int[] overflow = Arrays.copyOf(this.overflow, last);
+			final long[] overflowTimes = Arrays.copyOf(this.overflowTimes, last);
+			if (index < last) {
+				overflow[index] = this.overflow[last];
+				overflowTimes[index] = this.overflowTimes[last];
+			}
+			this.overflowTimes = overflowTimes;
+			this.sequence++;
+			this.overflow = last == 0 ? NO_OVERFLOW : overflow;
+		}
+		this.count--;
+		this.sequence++;
+		return true;
+	}
+
+	/**
+	 * Check if every bit of a compiled bitmask is set
+	 *
+	 * @param mask The bits of the keys inside of the bitset
+	 * @return true if ALL the bits are set, otherwise false
+	 */
+	private boolean containsWords(long[] mask) {
+		for (int i = 0; i < WORDS; i++) if (mask[i] != 0L && (this.words.get(i) & mask[i]) != mask[i]) return false;
+		return true;
+	}
+
+	/**
+	 * Check if every large key code is inside of the overflow array
+	 *
+	 * @param codes The key codes that do not fit inside of the bitset
+	 * @return true if ALL the codes are held, otherwise false
+	 */
+	private boolean containsOverflow(int[] codes) {
+		if (codes.length == 0) return true;
+		final int[] overflow = this.overflow;
+		for (int code : codes) if (indexOf(overflow, code) < 0) return false;
+		return true;
+	}
+
+	/**
+	 * Find where a large key code is inside of an overflow array
+	 *
+	 * @param overflow The overflow array to look in
+	 * @param code     The key code to look for
+	 * @return The index of the code, otherwise -1
+	 */
+	private static int indexOf(int[] overflow, int code) {
+		for (int i = 0; i < overflow.length; i++) if (overflow[i] == code) return i;
+		return -1;
+	}
+}
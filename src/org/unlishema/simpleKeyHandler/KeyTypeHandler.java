@@ -0,0 +1,26 @@
+package org.unlishema.simpleKeyHandler;
+
+/**
+ * A KeyTypeHandler is executed when a key is typed. It only has one method, so
+ * it can be a lambda:<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * skh.addTypeHandler(event -&gt; println(event.getLastKeyTyped()));
+ * </pre>
+ *
+ * Every {@link SimpleKeyListener} is also a KeyTypeHandler.
+ *
+ * @author Unlishema
+ *
+ */
+@FunctionalInterface
+public interface KeyTypeHandler {
+	/**
+	 * A function for you to do when a key is typed. A copy of SimpleKeyEvent is
+	 * sent so you can access the system.
+	 * 
+	 * @param event An Event to access and determine what keys are typed.
+	 */
+	public void onKeyTyped(final SimpleKeyEvent event);
+}
@@ -0,0 +1,109 @@
+package org.unlishema.simpleKeyHandler;
+
+import processing.core.PApplet;
+import processing.event.KeyEvent;
+
+/**
+ * The KeyWatchdog finds keys that are stuck held down because their release
+ * never came, like when the window loses focus while a key is held.<br>
+ * <br>
+ * It is checked once a frame and only looks at two things, so it costs next to
+ * nothing:<br>
+ * <br>
+ *
+ * <pre>
+	&#183; Focus	: The sketch went from focused to not focused, so every held key is stuck
+	&#183; Repeat	: The last key pressed is held but the computer stopped repeating it for longer than the timeout
+ * </pre>
+ *
+ * The computer only repeats the last key that was pressed, and some never
+ * repeat modifiers, so the timeout is only ever checked on that one key and
+ * never on a modifier. When the last key pressed is released the other keys
+ * are trusted until a new key is pressed.
+ *
+ * @author Unlishema
+ *
+ */
+final class KeyWatchdog {
+	private static final int NO_KEY = -1;
+
+	// Private Variables
+	private final SimpleKeyHandler handler;
+	private final PApplet parent;
+	private volatile long timeout = 0L;
+	private int lastCode = NO_KEY;
+	private long lastSeen = 0L;
+	// A sketch is not focused until its window is shown, so only a change seen here counts
+	private boolean focused = false;
+
+	/**
+	 * Create the watchdog for a Handler
+	 *
+	 * @param handler The Handler whose keys are watched
+	 * @param parent  The sketch whose focus is watched, or null if there is none
+	 */
+	KeyWatchdog(SimpleKeyHandler handler, PApplet parent) {
+		this.handler = handler;
+		this.parent = parent;
+	}
+
+	/**
+	 * Check for stuck keys and release them. This is done once per frame.
+	 */
+	void check() {
+		final boolean focused = this.parent == null || this.parent.focused;
+		final boolean focusLost = this.focused && !focused;
+		this.focused = focused;
+		if (this.handler.getKeyState().count() == 0) return;
+		if (focusLost || this.isRepeatMissing()) this.handler.releaseHeldKeys();
+	}
+
+	/**
+	 * Get the time the last key pressed can go without repeating
+	 *
+	 * @return The time in milliseconds, or 0 if it is not checked
+	 */
+	long getTimeout() {
+		return this.timeout / 1000000L;
+	}
+
+	/**
+	 * Note an Event before it is filtered, so the repeats the Handler suppresses
+	 * still count
+	 *
+	 * @param action  The KeyEvent action
+	 * @param keyCode keyCode of the Event
+	 */
+	synchronized void observe(int action, int keyCode) {
+		if (action == KeyEvent.PRESS) {
+			this.lastCode = keyCode;
+			this.lastSeen = System.nanoTime();
+		} else if (action == KeyEvent.RELEASE && keyCode == this.lastCode) this.lastCode = NO_KEY;
+	}
+
+	/**
+	 * Forget the last key pressed, like when every key was released
+	 */
+	synchronized void reset() {
+		this.lastCode = NO_KEY;
+	}
+
+	/**
+	 * Change the time the last key pressed can go without repeating
+	 *
+	 * @param millis The time in milliseconds, or 0 to not check it
+	 */
+	void setTimeout(long millis) {
+		if (millis < 0) throw new IllegalArgumentException("The timeout can not be negative");
+		this.timeout = millis * 1000000L;
+	}
+
+	/**
+	 * Check if the last key pressed is still held but stopped repeating
+	 */
+	private synchronized boolean isRepeatMissing() {
+		final long timeout = this.timeout;
+		if (timeout == 0L || this.lastCode == NO_KEY || KeyClass.isModifier(this.lastCode)) return false;
+		return this.handler.isKeyPressed(this.lastCode) && System.nanoTime() - this.lastSeen > timeout;
+	}
+}
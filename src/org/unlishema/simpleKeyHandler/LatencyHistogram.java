@@ -0,0 +1,120 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A LatencyHistogram counts how long something took without keeping every
+ * single time.<br>
+ * <br>
+ * The times are put into buckets that double in size, with each doubling split
+ * into 8 smaller buckets, so any time from 1 nanosecond up to hundreds of years
+ * is kept to within 12.5% using a fixed amount of memory. Recording a time is
+ * just one atomic increment and never creates garbage, so it is safe to use on
+ * the Handler's hot paths from any Thread.
+ *
+ * @author Unlishema
+ *
+ */
+public final class LatencyHistogram {
+	private static final int SUB_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int BUCKETS = 64 << SUB_BITS;
+
+	// Private Variables
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Get the amount of times that were recorded
+	 *
+	 * @return The amount of times recorded
+	 */
+	public long getCount() {
+		return this.count.get();
+	}
+
+	/**
+	 * Get the longest time that was recorded
+	 *
+	 * @return The longest time in nanoseconds
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * Get the average of all the times that were recorded
+	 *
+	 * @return The average time in nanoseconds, or 0 if nothing was recorded
+	 */
+	public long getMean() {
+		final long count = this.count.get();
+		return count == 0 ? 0 : this.total.get() / count;
+	}
+
+	/**
+	 * Get the time that a percentage of all the recorded times are at or under
+	 *
+	 * @param percentile The percentage from 0 to 100 (Like 99 or 99.9)
+	 * @return The time in nanoseconds (To within 12.5%), or 0 if nothing was
+	 *         recorded
+	 */
+	public long getPercentile(double percentile) {
+		final long count = this.count.get();
+		if (count == 0) return 0;
+		final long target = Math.max(1, (long) Math.ceil(count * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += this.counts.get(i);
+			if (seen >= target) return Math.min(highestValue(i), this.max.get());
+		}
+		return this.max.get();
+	}
+
+	/**
+	 * Record how long something took
+	 *
+	 * @param nanos The time it took in nanoseconds (Negative times count as 0)
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) nanos = 0;
+		this.counts.incrementAndGet(index(nanos));
+		this.count.incrementAndGet();
+		this.total.addAndGet(nanos);
+		long max;
+		while (nanos > (max = this.max.get()) && !this.max.compareAndSet(max, nanos)) continue;
+	}
+
+	/**
+	 * Forget every time that was recorded
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) this.counts.set(i, 0);
+		this.count.set(0);
+		this.total.set(0);
+		this.max.set(0);
+	}
+
+	/**
+	 * Get the bucket a time goes into
+	 */
+	private static int index(long nanos) {
+		if (nanos < SUB_BUCKETS) return (int) nanos;
+		final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		final int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+	}
+
+	/**
+	 * Get the highest time that goes into a bucket
+	 */
+	private static long highestValue(int index) {
+		if (index < SUB_BUCKETS) return index;
+		final int shift = (index >>> SUB_BITS) - 1;
+		final long sub = SUB_BUCKETS + (index & (SUB_BUCKETS - 1));
+		return ((sub + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,152 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.IdentityHashMap;
+
+/**
+ * A ListenerRegistry holds the Listeners of the Handler.<br>
+ * <br>
+ * Adding and removing a Listener is looked up by identity so it does not have
+ * to search the whole list. Listeners are kept in order of their priority
+ * (Highest first) and then the order they were added. When the Handler sends an
+ * Event it walks a snapshot array of the Listeners, which is only rebuilt the
+ * next time an Event is sent after the Listeners change. This means a Listener
+ * can safely add or remove Listeners (even itself) while an Event is being
+ * sent:<br>
+ * &#183; A Listener that is added will start getting Events with the next
+ * Event.<br>
+ * &#183; A Listener that is removed will not get the current Event if it was
+ * not sent to it yet.<br>
+ *
+ * @author Unlishema
+ *
+ * @param <L> The type of Listener being held
+ */
+final class ListenerRegistry<L> {
+	/**
+	 * A Listener inside of the registry. Once it is removed it is no longer active
+	 * and will be skipped by any snapshot that still holds it.
+	 *
+	 * @param <L> The type of Listener being held
+	 */
+	static final class Entry<L> {
+		final L listener;
+		final int priority;
+		final KeyInterest interest;
+		final boolean keyFiltered;
+		volatile boolean active = true;
+		volatile DispatchMetrics.ListenerStats stats = null;
+		private Entry<L> previous, next;
+
+		private Entry(L listener, int priority, KeyInterest interest) {
+			this.listener = listener;
+			this.priority = priority;
+			this.interest = interest;
+			this.keyFiltered = interest.isKeyFiltered();
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static final Entry[] EMPTY = new Entry[0];
+
+	// Private Variables
+	private final IdentityHashMap<L, Entry<L>> entries = new IdentityHashMap<L, Entry<L>>();
+	private Entry<L> first, last;
+	private volatile Entry<L>[] snapshot = empty();
+
+	/**
+	 * Add a Listener to the end of the registry
+	 *
+	 * @param listener The Listener to add
+	 * @return true if it was added, otherwise false if it was already added
+	 */
+	boolean add(L listener) {
+		return this.add(listener, 0, KeyInterest.ALL);
+	}
+
+	/**
+	 * Add a Listener after every Listener with the same or a higher priority
+	 *
+	 * @param listener The Listener to add
+	 * @param priority The priority, higher goes first
+	 * @param interest The Events the Listener wants
+	 * @return true if it was added, otherwise false if it was already added
+	 */
+	synchronized boolean add(L listener, int priority, KeyInterest interest) {
+		if (this.entries.containsKey(listener)) return false;
+		final Entry<L> entry = new Entry<L>(listener, priority, interest == null ? KeyInterest.ALL : interest);
+		this.entries.put(listener, entry);
+		// Find the first Listener with a lower priority, most of the time there is none
+		Entry<L> after = this.last;
+		while (after != null && after.priority < priority) after = after.previous;
+		entry.previous = after;
+		entry.next = after == null ? this.first : after.next;
+		if (entry.previous == null) this.first = entry;
+		else entry.previous.next = entry;
+		if (entry.next == null) this.last = entry;
+		else entry.next.previous = entry;
+		this.snapshot = null;
+		return true;
+	}
+
+	/**
+	 * Remove every Listener from the registry
+	 */
+	synchronized void clear() {
+		for (Entry<L> entry = this.first; entry != null; entry = entry.next) entry.active = false;
+		this.entries.clear();
+		this.first = this.last = null;
+		this.snapshot = empty();
+	}
+
+	/**
+	 * Remove a Listener from the registry
+	 *
+	 * @param listener The Listener to remove
+	 * @return true if it was removed, otherwise false if it was never added
+	 */
+	synchronized boolean remove(L listener) {
+		final Entry<L> entry = this.entries.remove(listener);
+		if (entry == null) return false;
+		entry.active = false;
+		if (entry.previous == null) this.first = entry.next;
+		else entry.previous.next = entry.next;
+		if (entry.next == null) this.last = entry.previous;
+		else entry.next.previous = entry.previous;
+		this.snapshot = null;
+		return true;
+	}
+
+	/**
+	 * Get the snapshot of the Listeners to send an Event to. Make sure to skip any
+	 * Entry that is no longer {@link Entry#active}.
+	 *
+	 * @return The Listeners in order of priority and then the order they were
+	 *         added
+	 */
+	Entry<L>[] snapshot() {
+		final Entry<L>[] snapshot = this.snapshot;
+		return snapshot != null ? snapshot : this.rebuild();
+	}
+
+	/**
+	 * Build a new snapshot of the Listeners
+	 */
+	private synchronized Entry<L>[] rebuild() {
+		if (this.snapshot != null) return this.snapshot;
+		final Entry<L>[] snapshot = newArray(this.entries.size());
+		int i = 0;
+		for (Entry<L> entry = this.first; entry != null; entry = entry.next) snapshot[i++] = entry;
+		this.snapshot = snapshot;
+		return snapshot;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <L> Entry<L>[] empty() {
+		return EMPTY;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <L> Entry<L>[] newArray(int size) {
+		return new Entry[size];
+	}
+}
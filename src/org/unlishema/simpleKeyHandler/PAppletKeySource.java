@@ -0,0 +1,49 @@
+package org.unlishema.simpleKeyHandler;
+
+import processing.core.PApplet;
+
+/**
+ * A PAppletKeySource gets the key Events of a Processing sketch.<br>
+ * <br>
+ * This is what {@link SimpleKeyHandler#SimpleKeyHandler(PApplet)} uses. It
+ * registers the keyEvent, focusGained, focusLost and pre methods of the Handler
+ * with the sketch so the sketch calls them for us.
+ *
+ * @author Unlishema
+ *
+ */
+public final class PAppletKeySource implements KeyInputSource {
+	private static final String[] METHODS = { "keyEvent", "focusGained", "focusLost", "pre" };
+
+	// Private Variables
+	private final PApplet parent;
+
+	/**
+	 * Create the source for a sketch
+	 *
+	 * @param parent The PApplet to get the Events from (Usually is "this")
+	 */
+	public PAppletKeySource(final PApplet parent) {
+		if (parent == null) throw new IllegalArgumentException("The parent can not be null");
+		this.parent = parent;
+	}
+
+	/**
+	 * Get the sketch the Events come from
+	 *
+	 * @return The PApplet
+	 */
+	public PApplet getParent() {
+		return this.parent;
+	}
+
+	@Override
+	public void attach(final SimpleKeyHandler handler) {
+		for (String method : METHODS) this.parent.registerMethod(method, handler);
+	}
+
+	@Override
+	public void detach(final SimpleKeyHandler handler) {
+		for (String method : METHODS) this.parent.unregisterMethod(method, handler);
+	}
+}
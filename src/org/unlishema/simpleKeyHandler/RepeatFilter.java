@@ -0,0 +1,203 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.unlishema.simpleKeyHandler.SimpleKeyHandler.RepeatPolicy;
+
+import processing.event.KeyEvent;
+
+/**
+ * The RepeatFilter finds the Events made by the computer repeating a held key
+ * and suppresses or counts them, depending on the {@link RepeatPolicy} of the
+ * Handler.<br>
+ * <br>
+ * A repeat is either a press of a key that is already held, or a release that
+ * is followed by a press of the same key within the repeat window (Some
+ * computers repeat keys this way). To catch the second kind, a release is held
+ * back until the next Event or the next frame shows it was real, or until the
+ * window has passed. The last one is needed by sources that never start a
+ * frame, so their keys never stay held.<br>
+ * <br>
+ * It locks on the same lock as the engine so holding back a release and
+ * sending it later can never get in between another Event.
+ *
+ * @author Unlishema
+ *
+ */
+final class RepeatFilter {
+	/**
+	 * The default time in milliseconds a release and press can be apart and still
+	 * be a repeat
+	 */
+	static final long DEFAULT_WINDOW = 5L;
+
+	/**
+	 * Sends the releases that are still held back once their window has passed.
+	 * One daemon Thread is shared by every filter and only made once it is needed.
+	 */
+	private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			final Thread thread = new Thread(runnable, "SimpleKeyHandler Repeat Filter");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	// Private Variables
+	private final SimpleKeyHandler handler;
+	private final Object lock;
+	private volatile RepeatPolicy policy = RepeatPolicy.DELIVER;
+	private long window = DEFAULT_WINDOW;
+	private boolean releasePending = false;
+	private int releaseCode = 0;
+	private char releaseKey = 0;
+	private long releaseMillis = 0L, releaseReceived = 0L, releaseId = 0L;
+	private int repeatCode = 0, repeatCount = 0;
+
+	/**
+	 * Create the filter for a Handler
+	 *
+	 * @param handler The Handler whose Events are filtered
+	 * @param lock    The lock of the engine of the Handler
+	 */
+	RepeatFilter(SimpleKeyHandler handler, Object lock) {
+		this.handler = handler;
+		this.lock = lock;
+	}
+
+	/**
+	 * Forget any held back release and counted repeats without sending them
+	 */
+	void clear() {
+		synchronized (this.lock) {
+			this.releasePending = false;
+			this.repeatCount = 0;
+		}
+	}
+
+	/**
+	 * Check an Event before it is handled
+	 *
+	 * @param action   The KeyEvent action
+	 * @param keyCode  keyCode of the Event
+	 * @param key      The key of the Event
+	 * @param millis   The time of the Event
+	 * @param received The System.nanoTime() the Event was received at
+	 * @return true if the Event should be handled, false if it was held back,
+	 *         suppressed or counted
+	 */
+	boolean filter(int action, int keyCode, char key, long millis, long received) {
+		final RepeatPolicy policy = this.policy;
+		if (policy == RepeatPolicy.DELIVER) return true;
+		synchronized (this.lock) {
+			if (this.releasePending) {
+				// A press right after the release means the release was the computer repeating the key
+				if (action == KeyEvent.PRESS && keyCode == this.releaseCode && millis - this.releaseMillis <= this.window)
+					this.releasePending = false;
+				else this.flushRelease();
+			}
+			switch (action) {
+				case KeyEvent.RELEASE:
+					if (!this.handler.isKeyPressed(keyCode)) return true;
+					this.releasePending = true;
+					this.releaseCode = keyCode;
+					this.releaseKey = key;
+					this.releaseMillis = millis;
+					this.releaseReceived = received;
+					// A press exactly at the end of the window is still a repeat, so wait just past it
+					final long id = ++this.releaseId;
+					TIMER.schedule(new Runnable() {
+						@Override
+						public void run() {
+							RepeatFilter.this.flushLate(id);
+						}
+					}, this.window + 1L, TimeUnit.MILLISECONDS);
+					return false;
+				case KeyEvent.PRESS:
+					if (!this.handler.isKeyPressed(keyCode)) return true;
+					if (policy == RepeatPolicy.SUPPRESS) return false;
+					if (this.repeatCount > 0 && this.repeatCode != keyCode) this.flushRepeats();
+					this.repeatCode = keyCode;
+					this.repeatCount++;
+					return false;
+				default:
+					return true;
+			}
+		}
+	}
+
+	/**
+	 * Send any held back release and counted repeats. This is done once per
+	 * frame.
+	 */
+	void flush() {
+		if (this.policy == RepeatPolicy.DELIVER) return;
+		synchronized (this.lock) {
+			this.flushRelease();
+			this.flushRepeats();
+		}
+	}
+
+	/**
+	 * Get the policy of the filter
+	 *
+	 * @return The RepeatPolicy
+	 */
+	RepeatPolicy getPolicy() {
+		return this.policy;
+	}
+
+	/**
+	 * Change the policy of the filter, sending anything that was held back first
+	 *
+	 * @param policy The RepeatPolicy
+	 * @param window The time in milliseconds a release and press can be apart and
+	 *               still be a repeat
+	 */
+	void setPolicy(RepeatPolicy policy, long window) {
+		if (policy == null) throw new IllegalArgumentException("The policy can not be null");
+		if (window < 0) throw new IllegalArgumentException("The window can not be negative");
+		synchronized (this.lock) {
+			this.flushRelease();
+			this.flushRepeats();
+			this.policy = policy;
+			this.window = window;
+		}
+	}
+
+	/**
+	 * Send a held back release once its window has passed, if it is still held
+	 * back and no other release has been held back since
+	 *
+	 * @param id The number of the release
+	 */
+	private void flushLate(long id) {
+		synchronized (this.lock) {
+			if (this.releasePending && this.releaseId == id) this.flushRelease();
+		}
+	}
+
+	/**
+	 * Send the held back release, after the repeats of its key
+	 */
+	private void flushRelease() {
+		if (!this.releasePending) return;
+		this.releasePending = false;
+		if (this.repeatCode == this.releaseCode) this.flushRepeats();
+		this.handler.getEngine().handle(this.handler, KeyEvent.RELEASE, this.releaseCode, this.releaseKey,
+				this.releaseMillis, this.releaseReceived);
+	}
+
+	/**
+	 * Send the counted repeats to the Repeat Listeners
+	 */
+	private void flushRepeats() {
+		if (this.repeatCount == 0) return;
+		final int count = this.repeatCount;
+		this.repeatCount = 0;
+		this.handler.dispatchRepeat(this.repeatCode, count);
+	}
+}
@@ -0,0 +1,655 @@
+package org.unlishema.simpleKeyHandler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.unlishema.simpleKeyHandler.SimpleKeyHandler.BackpressurePolicy;
+
+import processing.event.KeyEvent;
+
+/**
+ * A SimpleKeyEngine is the part of the Handler that can be shared between
+ * windows.<br>
+ * <br>
+ * Every Handler has its own keys being held, but the Listeners, the Actions
+ * bound to KeyChords and KeySequences, the async dispatcher and the
+ * DispatchMetrics all live in the engine. If you have a lot of windows give
+ * their Handlers the same engine, then everything only has to be added once and
+ * there is only one of each no matter how many windows there are. You can also
+ * ask the engine if a key is held in any window.<br>
+ * <br>
+ * The Events of every Handler on an engine are handled one at a time, so your
+ * Listeners never run at the same time even if the windows have their own
+ * Threads. You can tell which window an Event came from with
+ * {@link SimpleKeyEvent#getSource()}.<br>
+ * <br>
+ * Every Handler made without an engine gets its own.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyEngine engine = new SimpleKeyEngine();
+ *
+ * // Inside of each window's sketch
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this, engine);
+ *
+ * void draw() {
+ * 	if (engine.isKeyPressed(' ')) println("Space is held in one of the windows");
+ * }
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class SimpleKeyEngine {
+	// Private Variables
+	private final ListenerRegistry<SimpleKeyHandler> handlers = new ListenerRegistry<SimpleKeyHandler>();
+	private final KeyListeners listeners = new KeyListeners();
+	private final KeyBindings bindings = new KeyBindings();
+	private final KeySequences sequences = new KeySequences();
+	private final KeyBindings keyMapBindings = new KeyBindings();
+	private final Map<String, KeyAction> namedActions = new HashMap<String, KeyAction>();
+	private volatile KeyMap keyMap = KeyMap.EMPTY;
+	private final KeyEventSnapshot.Pool snapshots = new KeyEventSnapshot.Pool();
+	private final DispatchMetrics metrics = new DispatchMetrics();
+	private final Object eventLock = new Object();
+	private volatile AsyncDispatcher dispatcher = null;
+	private volatile boolean metricsEnabled = false;
+	private volatile long dispatchBudget = 0L;
+	private final LongAdder skippedListeners = new LongAdder();
+
+	/**
+	 * Add a new listener into the engine. It gets the Events of every Handler.
+	 *
+	 * @param kel new SimpleKeyListener() {}
+	 */
+	public void addListener(SimpleKeyListener kel) {
+		this.listeners.add(kel, 0, null);
+	}
+
+	/**
+	 * Add a new listener into the engine that only gets the Events it wants.
+	 * Listeners with a higher priority are executed first and can
+	 * {@link SimpleKeyEvent#consume() consume} the Event before the rest get it.
+	 *
+	 * @param kel      new SimpleKeyListener() {}
+	 * @param priority The priority of the Listener, the default is 0
+	 * @param interest The Events the Listener wants, or null for every Event
+	 */
+	public void addListener(SimpleKeyListener kel, int priority, KeyInterest interest) {
+		this.listeners.add(kel, priority, interest);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is pressed in any Handler
+	 *
+	 * @param handler event -&gt; {}
+	 */
+	public void addPressHandler(KeyPressHandler handler) {
+		this.listeners.pressed.add(handler);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is pressed, see
+	 * {@link #addListener(SimpleKeyListener, int, KeyInterest)}. The actions of
+	 * the KeyInterest are not used.
+	 *
+	 * @param handler  event -&gt; {}
+	 * @param priority The priority of the handler, the default is 0
+	 * @param interest The keys the handler wants, or null for every key
+	 */
+	public void addPressHandler(KeyPressHandler handler, int priority, KeyInterest interest) {
+		this.listeners.pressed.add(handler, priority, interest);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is released in any Handler
+	 *
+	 * @param handler event -&gt; {}
+	 */
+	public void addReleaseHandler(KeyReleaseHandler handler) {
+		this.listeners.released.add(handler);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is released, see
+	 * {@link #addListener(SimpleKeyListener, int, KeyInterest)}. The actions of
+	 * the KeyInterest are not used.
+	 *
+	 * @param handler  event -&gt; {}
+	 * @param priority The priority of the handler, the default is 0
+	 * @param interest The keys the handler wants, or null for every key
+	 */
+	public void addReleaseHandler(KeyReleaseHandler handler, int priority, KeyInterest interest) {
+		this.listeners.released.add(handler, priority, interest);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is typed in any Handler
+	 *
+	 * @param handler event -&gt; {}
+	 */
+	public void addTypeHandler(KeyTypeHandler handler) {
+		this.listeners.typed.add(handler);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is typed, see
+	 * {@link #addListener(SimpleKeyListener, int, KeyInterest)}. The KeyInterest
+	 * is not used since a typed key has no keyCode, it is only there to match the
+	 * other handlers.
+	 *
+	 * @param handler  event -&gt; {}
+	 * @param priority The priority of the handler, the default is 0
+	 * @param interest Not used, can be null
+	 */
+	public void addTypeHandler(KeyTypeHandler handler, int priority, KeyInterest interest) {
+		this.listeners.typed.add(handler, priority, interest);
+	}
+
+	/**
+	 * Bind an Action to a KeyChord for every Handler. The Action is not executed
+	 * again while the key is held and repeating.
+	 *
+	 * @param chord  The KeyChord that triggers the Action
+	 * @param action The Action to execute
+	 */
+	public void bind(KeyChord chord, KeyAction action) {
+		this.bindings.bind(chord, action, false);
+	}
+
+	/**
+	 * Bind an Action to a KeyChord for every Handler
+	 *
+	 * @param chord  The KeyChord that triggers the Action
+	 * @param action The Action to execute
+	 * @param repeat true to execute the Action again each time the held key
+	 *               repeats, false to only execute it when the key is first
+	 *               pressed
+	 */
+	public void bind(KeyChord chord, KeyAction action, boolean repeat) {
+		this.bindings.bind(chord, action, repeat);
+	}
+
+	/**
+	 * Bind an Action to a KeySequence for every Handler. Each Handler keeps track
+	 * of the steps pressed in it on its own.
+	 *
+	 * @param sequence The KeySequence that triggers the Action
+	 * @param action   The Action to execute
+	 */
+	public void bindSequence(KeySequence sequence, KeyAction action) {
+		this.sequences.bind(sequence, action);
+	}
+
+	/**
+	 * Give an Action a name so a {@link KeyMap} can run it
+	 *
+	 * @param name   The name of the action in the KeyMap
+	 * @param action The Action to run, or null to remove the name
+	 */
+	public void defineAction(String name, KeyAction action) {
+		synchronized (this.namedActions) {
+			final KeyAction old = action == null ? this.namedActions.remove(name) : this.namedActions.put(name, action);
+			// Only the Chords of this action change, so there is no need to compile the whole KeyMap again
+			final KeyChord[] chords = this.keyMap.getBindings().get(name);
+			if (chords == null) return;
+			for (KeyChord chord : chords) {
+				if (old != null) this.keyMapBindings.unbind(chord, old);
+				if (action != null) this.keyMapBindings.bind(chord, action, false);
+			}
+		}
+	}
+
+	/**
+	 * Go back to executing the Actions and Listeners on the Thread of the Event.
+	 * Any Events still waiting are dispatched first, and any new Event waits for
+	 * them.
+	 */
+	public void disableAsyncDispatch() {
+		synchronized (this.eventLock) {
+			final AsyncDispatcher dispatcher = this.dispatcher;
+			// The dispatcher takes itself out once it has sent every Event it took
+			if (dispatcher != null) dispatcher.shutdown();
+		}
+	}
+
+	/**
+	 * Execute the Actions and Listeners of every Handler on their own Thread, see
+	 * {@link SimpleKeyHandler#enableAsyncDispatch(int, BackpressurePolicy)}
+	 *
+	 * @param capacity The most Events that can be waiting to be dispatched
+	 * @param policy   What to do when the Events don't fit
+	 */
+	public void enableAsyncDispatch(int capacity, BackpressurePolicy policy) {
+		synchronized (this.eventLock) {
+			final AsyncDispatcher previous = this.dispatcher;
+			// The new dispatcher waits for the old one to send what it took before sending anything
+			this.dispatcher = new AsyncDispatcher(this, this.snapshots, capacity, policy, previous);
+			if (previous != null) previous.stop();
+		}
+	}
+
+	/**
+	 * Get the amount of Events that were dropped because the Listeners fell behind
+	 * while dispatching is async
+	 *
+	 * @return The amount of dropped Events, or 0 if dispatching is not async
+	 */
+	public long getDroppedEventCount() {
+		final AsyncDispatcher dispatcher = this.dispatcher;
+		return dispatcher == null ? 0 : dispatcher.getDropped();
+	}
+
+	/**
+	 * Get the time each Event is given before the Listeners with a priority below
+	 * 0 are skipped
+	 *
+	 * @return The budget in nanoseconds, or 0 if there is none
+	 */
+	public long getDispatchBudget() {
+		return this.dispatchBudget;
+	}
+
+	/**
+	 * Get every Handler that is using this engine
+	 *
+	 * @return A copy of the Handlers
+	 */
+	public List<SimpleKeyHandler> getHandlers() {
+		final List<SimpleKeyHandler> handlers = new ArrayList<SimpleKeyHandler>();
+		for (ListenerRegistry.Entry<SimpleKeyHandler> entry : this.handlers.snapshot())
+			if (entry.active) handlers.add(entry.listener);
+		return handlers;
+	}
+
+	/**
+	 * Get the KeyMap being used
+	 *
+	 * @return The KeyMap, or KeyMap.EMPTY if none was set
+	 */
+	public KeyMap getKeyMap() {
+		return this.keyMap;
+	}
+
+	/**
+	 * Get the DispatchMetrics of the engine
+	 *
+	 * @return The DispatchMetrics
+	 */
+	public DispatchMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Get the amount of times a Listener was skipped because an Event went over
+	 * the {@link #setDispatchBudget(long) dispatch budget}
+	 *
+	 * @return The amount of skipped Listeners
+	 */
+	public long getSkippedListenerCount() {
+		return this.skippedListeners.sum();
+	}
+
+	/**
+	 * Check and see if ANY key is pressed in ANY window
+	 *
+	 * @return true if a key is pressed in any window, otherwise false
+	 */
+	public boolean isAnyKeyPressed() {
+		for (ListenerRegistry.Entry<SimpleKeyHandler> entry : this.handlers.snapshot())
+			if (entry.active && entry.listener.isAnyKeyPressed()) return true;
+		return false;
+	}
+
+	/**
+	 * Check if the Actions and Listeners are executed on their own Thread
+	 *
+	 * @return true if dispatching is async, otherwise false
+	 */
+	public boolean isAsyncDispatch() {
+		final AsyncDispatcher dispatcher = this.dispatcher;
+		return dispatcher != null && dispatcher.isRunning();
+	}
+
+	/**
+	 * Check and see if a specific key is pressed in ANY window
+	 *
+	 * @param index The key you want to check
+	 * @return true if the key is pressed in any window, otherwise false
+	 */
+	public boolean isKeyPressed(int index) {
+		for (ListenerRegistry.Entry<SimpleKeyHandler> entry : this.handlers.snapshot())
+			if (entry.active && entry.listener.isKeyPressed(index)) return true;
+		return false;
+	}
+
+	/**
+	 * Check and see if a KeyChord is pressed in ANY window. The whole Chord has to
+	 * be held in the same window.
+	 *
+	 * @param chord The KeyChord you want to check
+	 * @return true if the Chord is pressed in any window, otherwise false
+	 */
+	public boolean isKeysPressed(KeyChord chord) {
+		for (ListenerRegistry.Entry<SimpleKeyHandler> entry : this.handlers.snapshot())
+			if (entry.active && entry.listener.isKeysPressed(chord)) return true;
+		return false;
+	}
+
+	/**
+	 * Check if the engine is recording DispatchMetrics
+	 *
+	 * @return true if metrics are recorded, otherwise false
+	 */
+	public boolean isMetricsEnabled() {
+		return this.metricsEnabled;
+	}
+
+	/**
+	 * Remove All the Listeners from the engine
+	 */
+	public void removeAllListeners() {
+		this.listeners.clear();
+	}
+
+	/**
+	 * Remove a listener from the engine so it won't be executed
+	 *
+	 * @param kel The SimpleKeyListener that you want to remove
+	 */
+	public void removeListener(final SimpleKeyListener kel) {
+		this.listeners.remove(kel);
+	}
+
+	/**
+	 * Remove a handler of pressed keys
+	 *
+	 * @param handler The KeyPressHandler that you want to remove
+	 */
+	public void removePressHandler(final KeyPressHandler handler) {
+		this.listeners.pressed.remove(handler);
+	}
+
+	/**
+	 * Remove a handler of released keys
+	 *
+	 * @param handler The KeyReleaseHandler that you want to remove
+	 */
+	public void removeReleaseHandler(final KeyReleaseHandler handler) {
+		this.listeners.released.remove(handler);
+	}
+
+	/**
+	 * Remove a handler of typed keys
+	 *
+	 * @param handler The KeyTypeHandler that you want to remove
+	 */
+	public void removeTypeHandler(final KeyTypeHandler handler) {
+		this.listeners.typed.remove(handler);
+	}
+
+	/**
+	 * Give each Event a time budget. Once the Actions and Listeners of an Event
+	 * have taken longer than the budget, the Listeners with a priority below 0
+	 * are skipped for that Event, so extra work (Like sounds or effects) never
+	 * slows down the keys that matter.
+	 *
+	 * @param nanos The budget in nanoseconds, or 0 for no budget
+	 */
+	public void setDispatchBudget(long nanos) {
+		if (nanos < 0) throw new IllegalArgumentException("The budget can not be negative");
+		this.dispatchBudget = nanos;
+	}
+
+	/**
+	 * Use a KeyMap to decide which keys run the named actions. The KeyMap is
+	 * compiled first and then swapped in all at once, so it is safe to change
+	 * while keys are being pressed. Actions in the KeyMap that have not been
+	 * {@link #defineAction(String, KeyAction) defined} are ignored until they
+	 * are.
+	 *
+	 * @param keyMap The KeyMap, or null to stop using one
+	 */
+	public void setKeyMap(KeyMap keyMap) {
+		synchronized (this.namedActions) {
+			this.keyMap = keyMap == null ? KeyMap.EMPTY : keyMap;
+			this.compileKeyMap();
+		}
+	}
+
+	/**
+	 * Record how long the Actions and Listeners take into the
+	 * {@link #getMetrics() DispatchMetrics}
+	 *
+	 * @param metricsEnabled true to record metrics, otherwise false
+	 */
+	public void setMetricsEnabled(boolean metricsEnabled) {
+		this.metricsEnabled = metricsEnabled;
+	}
+
+	/**
+	 * Remove an Action from a KeyChord
+	 *
+	 * @param chord  The KeyChord the Action was bound to
+	 * @param action The Action to remove, or null to remove every Action of the
+	 *               Chord
+	 */
+	public void unbind(KeyChord chord, KeyAction action) {
+		this.bindings.unbind(chord, action);
+	}
+
+	/**
+	 * Remove All the Actions that are bound to KeyChords and KeySequences
+	 */
+	public void unbindAll() {
+		this.bindings.clear();
+		this.sequences.clear();
+	}
+
+	/**
+	 * Remove an Action from a KeySequence
+	 *
+	 * @param sequence The KeySequence the Action was bound to
+	 * @param action   The Action to remove, or null to remove every Action of the
+	 *                 Sequence
+	 */
+	public void unbindSequence(KeySequence sequence, KeyAction action) {
+		this.sequences.unbind(sequence, action);
+	}
+
+	/**
+	 * Get the lock that is held while an Event is handled
+	 *
+	 * @return The lock of the engine
+	 */
+	Object getEventLock() {
+		return this.eventLock;
+	}
+
+	/**
+	 * Forget a dispatcher that has stopped and sent every Event it took. Must be
+	 * called while holding the lock of the Events.
+	 *
+	 * @param dispatcher The dispatcher that stopped
+	 */
+	void stopped(AsyncDispatcher dispatcher) {
+		if (this.dispatcher == dispatcher) this.dispatcher = null;
+	}
+
+	/**
+	 * Start sending the Events of a Handler
+	 *
+	 * @param handler The Handler that is using the engine
+	 */
+	void attach(SimpleKeyHandler handler) {
+		this.handlers.add(handler);
+	}
+
+	/**
+	 * Stop sending the Events of a Handler
+	 *
+	 * @param handler The Handler that is no longer using the engine
+	 */
+	void detach(SimpleKeyHandler handler) {
+		this.handlers.remove(handler);
+	}
+
+	/**
+	 * Execute the Actions and Listeners for an Event. This is called right away
+	 * from the Thread of the Event, or from the dispatcher Thread when
+	 * dispatching is async.<br>
+	 * <br>
+	 * The Actions run first, then the Listeners of the focused
+	 * {@link KeyFocusNode} path (Capture down, then bubble up) and last the
+	 * Listeners of the engine, until one of them consumes the Event.
+	 *
+	 * @param event The Snapshot of the Event
+	 */
+	void dispatch(KeyEventSnapshot event) {
+		final DispatchMetrics metrics = this.metricsEnabled ? this.metrics : null;
+		final long start = metrics == null ? 0L : metrics.begin(event);
+		final long budget = this.dispatchBudget;
+		final long deadline = budget == 0L ? 0L : System.nanoTime() + budget;
+		// Execute all Actions bound to the key or finished Sequence
+		if (event.getAction() == KeyEvent.PRESS) {
+			this.bindings.dispatch(event.getKeyCode(), event.getKeyState(), event);
+			this.keyMapBindings.dispatch(event.getKeyCode(), event.getKeyState(), event);
+			if (!event.isRepeat()) this.sequences.dispatch(event.getHandler().getSequenceCursor(), event.getKeyCode(),
+					event.getKeyState().modifiers(), event.getMillis(), event);
+		}
+		final KeyFocusNode focus = event.getFocus();
+		if (focus != null) {
+			final KeyFocusNode[] path = focus.getPath();
+			for (int i = 0; i < path.length && !event.isConsumed(); i++)
+				this.notifyListeners(path[i].getCaptureListeners(), event, metrics, budget, deadline);
+			for (int i = path.length - 1; i >= 0 && !event.isConsumed(); i--)
+				this.notifyListeners(path[i].getListeners(), event, metrics, budget, deadline);
+		}
+		if (!event.isConsumed()) this.notifyListeners(this.listeners, event, metrics, budget, deadline);
+		if (metrics != null) metrics.end(start);
+	}
+
+	/**
+	 * Execute the Listeners that want an Event until one of them consumes it.
+	 * Each action has its own loop, so the same method is always called from the
+	 * same place.
+	 *
+	 * @param listeners The Listeners to execute
+	 * @param event     The Snapshot of the Event
+	 * @param metrics   The DispatchMetrics to record into, or null
+	 * @param budget    The dispatch budget, or 0 if there is none
+	 * @param deadline  When the budget runs out
+	 */
+	private void notifyListeners(KeyListeners listeners, KeyEventSnapshot event, DispatchMetrics metrics, long budget,
+			long deadline) {
+		final int keyCode = event.getKeyCode(), modifiers = event.getKeyState().modifiers();
+		switch (event.getAction()) {
+			// Execute onKeyPressed
+			case KeyEvent.PRESS:
+				for (ListenerRegistry.Entry<KeyPressHandler> entry : listeners.pressed.snapshot()) {
+					if (this.skip(entry, keyCode, modifiers, budget, deadline)) continue;
+					final long listenerStart = metrics == null ? 0L : System.nanoTime();
+					entry.listener.onKeyPressed(event);
+					if (metrics != null) metrics.recordListener(entry, listenerStart);
+					if (event.isConsumed()) return;
+				}
+				break;
+			// Execute onKeyReleased
+			case KeyEvent.RELEASE:
+				for (ListenerRegistry.Entry<KeyReleaseHandler> entry : listeners.released.snapshot()) {
+					if (this.skip(entry, keyCode, modifiers, budget, deadline)) continue;
+					final long listenerStart = metrics == null ? 0L : System.nanoTime();
+					entry.listener.onKeyReleased(event);
+					if (metrics != null) metrics.recordListener(entry, listenerStart);
+					if (event.isConsumed()) return;
+				}
+				break;
+			// Execute onKeyTyped, a typed key has no keyCode to filter by
+			case KeyEvent.TYPE:
+				for (ListenerRegistry.Entry<KeyTypeHandler> entry : listeners.typed.snapshot()) {
+					if (this.skip(entry, -1, KeyState.ANY_MODIFIERS, budget, deadline)) continue;
+					final long listenerStart = metrics == null ? 0L : System.nanoTime();
+					entry.listener.onKeyTyped(event);
+					if (metrics != null) metrics.recordListener(entry, listenerStart);
+					if (event.isConsumed()) return;
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Build the bindings of the KeyMap for the actions that are defined. Must be
+	 * called while holding the lock of the named actions.
+	 */
+	private void compileKeyMap() {
+		final List<KeyBindings.Binding> bindings = new ArrayList<KeyBindings.Binding>(this.keyMap.size());
+		for (Map.Entry<String, KeyChord[]> entry : this.keyMap.getBindings().entrySet()) {
+			final KeyAction action = this.namedActions.get(entry.getKey());
+			if (action == null) continue;
+			for (KeyChord chord : entry.getValue()) bindings.add(new KeyBindings.Binding(chord, action));
+		}
+		this.keyMapBindings.replace(bindings);
+	}
+
+	/**
+	 * Check if a Listener should be skipped for an Event
+	 *
+	 * @param entry     The Listener
+	 * @param keyCode   keyCode of the Event, or -1 for a typed key
+	 * @param modifiers The modifiers being held
+	 * @param budget    The dispatch budget, or 0 if there is none
+	 * @param deadline  When the budget runs out
+	 * @return true if the Listener is skipped, otherwise false
+	 */
+	private boolean skip(ListenerRegistry.Entry<?> entry, int keyCode, int modifiers, long budget, long deadline) {
+		if (!entry.active) return true;
+		if (keyCode >= 0 && entry.keyFiltered && !entry.interest.acceptsKey(keyCode, modifiers)) return true;
+		if (entry.priority < 0 && budget != 0L && System.nanoTime() - deadline > 0) {
+			this.skippedListeners.increment();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Register, deregister or type the key of an Event on a Handler and then
+	 * execute the Actions and Listeners for it. Only one Event of the engine is
+	 * handled at a time.
+	 *
+	 * @param handler  The Handler the Event happened on
+	 * @param action   The KeyEvent action
+	 * @param keyCode  keyCode of the Event
+	 * @param key      The key of the Event
+	 * @param millis   The time of the Event
+	 * @param received The System.nanoTime() the Event was received at
+	 */
+	void handle(SimpleKeyHandler handler, int action, int keyCode, char key, long millis, long received) {
+		synchronized (this.eventLock) {
+			AsyncDispatcher dispatcher = this.dispatcher;
+			if (dispatcher != null) dispatcher.awaitTurn();
+			if (!handler.apply(action, keyCode, key, millis)) return;
+			// Every Listener gets a Snapshot so the Event never changes under them
+			final KeyEventSnapshot event = this.snapshots.capture(handler, received);
+			dispatcher = this.dispatcher;
+			boolean queued = false;
+			while (dispatcher != null && !(queued = dispatcher.offer(event))) {
+				// It was stopped while this waited for room, so wait for it to send what it took
+				dispatcher.awaitTurn();
+				if (dispatcher == this.dispatcher) break;
+				dispatcher = this.dispatcher;
+			}
+			if (!queued) {
+				try {
+					this.dispatch(event);
+				} finally {
+					this.snapshots.release(event);
+				}
+			}
+		}
+	}
+}
@@ -1,9 +1,6 @@
 package org.unlishema.simpleKeyHandler;
 
 import java.awt.event.KeyEvent;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * A SimpleKeyEvent just holds all the data for the SimpleKeyHandler to process
@@ -41,11 +38,27 @@ public class SimpleKeyEvent {
 		DELETE(KeyEvent.VK_DELETE), BACKSPACE(KeyEvent.VK_BACK_SPACE), ENTER(10), RETURN(13), TAB(KeyEvent.VK_TAB),
 		ESCAPE(KeyEvent.VK_ESCAPE);
 
+		private static final ControlKey[] BY_CODE = new ControlKey[128];
+
+		static {
+			for (ControlKey controlKey : ControlKey.values()) BY_CODE[controlKey.code] = controlKey;
+		}
+
 		public final int code;
 
 		private ControlKey(int code) {
 			this.code = code;
 		}
+
+		/**
+		 * Get the Control Key of a keyCode without searching
+		 * 
+		 * @param code The keyCode
+		 * @return The Control Key, or null if the keyCode is not a Control Key
+		 */
+		public static ControlKey fromCode(int code) {
+			return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+		}
 	};
 
 	/**
@@ -69,24 +82,88 @@ public class SimpleKeyEvent {
 	&#183; F10	: 121
 	&#183; F11	: 122
 	&#183; F12	: 123
+	&#183; F13	: 61440
+	&#183; ...
+	&#183; F24	: 61451
 	 * </pre>
 	 * 
-	 * <br>
-	 * More may be added if needed. ATM I have more pressing matters.
-	 * 
 	 * @author Unlishema
 	 *
 	 */
 	public static enum FunctionKey {
 		F1(KeyEvent.VK_F1), F2(KeyEvent.VK_F2), F3(KeyEvent.VK_F3), F4(KeyEvent.VK_F4), F5(KeyEvent.VK_F5),
 		F6(KeyEvent.VK_F6), F7(KeyEvent.VK_F7), F8(KeyEvent.VK_F8), F9(KeyEvent.VK_F9), F10(KeyEvent.VK_F10),
-		F11(KeyEvent.VK_F11), F12(KeyEvent.VK_F12);
+		F11(KeyEvent.VK_F11), F12(KeyEvent.VK_F12), F13(KeyEvent.VK_F13), F14(KeyEvent.VK_F14),
+		F15(KeyEvent.VK_F15), F16(KeyEvent.VK_F16), F17(KeyEvent.VK_F17), F18(KeyEvent.VK_F18),
+		F19(KeyEvent.VK_F19), F20(KeyEvent.VK_F20), F21(KeyEvent.VK_F21), F22(KeyEvent.VK_F22),
+		F23(KeyEvent.VK_F23), F24(KeyEvent.VK_F24);
+
+		private static final FunctionKey[] VALUES = FunctionKey.values();
 
 		public final int code;
 
 		private FunctionKey(int code) {
 			this.code = code;
 		}
+
+		/**
+		 * Get the Function Key of a keyCode without searching
+		 * 
+		 * @param code The keyCode
+		 * @return The Function Key, or null if the keyCode is not a Function Key
+		 */
+		public static FunctionKey fromCode(int code) {
+			// F1 to F12 and F13 to F24 are each in a row
+			if (code >= KeyEvent.VK_F1 && code <= KeyEvent.VK_F12) return VALUES[code - KeyEvent.VK_F1];
+			if (code >= KeyEvent.VK_F13 && code <= KeyEvent.VK_F24) return VALUES[code - KeyEvent.VK_F13 + 12];
+			return null;
+		}
+	};
+
+	/**
+	 * Navigation Keys are the keys that move around, like the arrow keys and Page
+	 * Up. The arrow keys on the number pad are their own keys, so they are here as
+	 * well.<br>
+	 * <br>
+	 * 
+	 * <pre>
+	The Navigation Keys are:
+	&#183; Left, Up, Right, Down		: 37 - 40
+	&#183; Page Up, Page Down, End, Home	: 33 - 36
+	&#183; Insert			: 155
+	&#183; Number Pad Arrows		: 224 - 227
+	 * </pre>
+	 * 
+	 * @author Unlishema
+	 *
+	 */
+	public static enum NavigationKey {
+		LEFT(KeyEvent.VK_LEFT), UP(KeyEvent.VK_UP), RIGHT(KeyEvent.VK_RIGHT), DOWN(KeyEvent.VK_DOWN),
+		PAGE_UP(KeyEvent.VK_PAGE_UP), PAGE_DOWN(KeyEvent.VK_PAGE_DOWN), END(KeyEvent.VK_END), HOME(KeyEvent.VK_HOME),
+		INSERT(KeyEvent.VK_INSERT), KP_UP(KeyEvent.VK_KP_UP), KP_DOWN(KeyEvent.VK_KP_DOWN),
+		KP_LEFT(KeyEvent.VK_KP_LEFT), KP_RIGHT(KeyEvent.VK_KP_RIGHT);
+
+		private static final NavigationKey[] BY_CODE = new NavigationKey[256];
+
+		static {
+			for (NavigationKey navigationKey : NavigationKey.values()) BY_CODE[navigationKey.code] = navigationKey;
+		}
+
+		public final int code;
+
+		private NavigationKey(int code) {
+			this.code = code;
+		}
+
+		/**
+		 * Get the Navigation Key of a keyCode without searching
+		 * 
+		 * @param code The keyCode
+		 * @return The Navigation Key, or null if the keyCode is not a Navigation Key
+		 */
+		public static NavigationKey fromCode(int code) {
+			return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+		}
 	};
 
 	/**
@@ -114,27 +191,115 @@ public class SimpleKeyEvent {
 	 *
 	 */
 	public static enum ModifierKey {
-		NONE(0), ALT(KeyEvent.VK_ALT), CTRL(KeyEvent.VK_CONTROL), SHIFT(KeyEvent.VK_SHIFT), WIN(KeyEvent.VK_WINDOWS),
-		ALT_CTRL(0), ALT_SHIFT(0), ALT_WIN(0), CTRL_SHIFT(0), CTRL_WIN(0), SHIFT_WIN(0), ALT_CTRL_SHIFT(0),
-		ALT_CTRL_WIN(0), ALT_SHIFT_WIN(0), CTRL_SHIFT_WIN(0), ALT_CTRL_SHIFT_WIN(0);
+		NONE(0, 0), ALT(KeyEvent.VK_ALT, 1), CTRL(KeyEvent.VK_CONTROL, 2), SHIFT(KeyEvent.VK_SHIFT, 4),
+		WIN(KeyEvent.VK_WINDOWS, 8), ALT_CTRL(0, 3), ALT_SHIFT(0, 5), ALT_WIN(0, 9), CTRL_SHIFT(0, 6),
+		CTRL_WIN(0, 10), SHIFT_WIN(0, 12), ALT_CTRL_SHIFT(0, 7), ALT_CTRL_WIN(0, 11), ALT_SHIFT_WIN(0, 13),
+		CTRL_SHIFT_WIN(0, 14), ALT_CTRL_SHIFT_WIN(0, 15);
+
+		private static final ModifierKey[] BY_MASK = new ModifierKey[16];
+
+		static {
+			for (ModifierKey modifier : ModifierKey.values()) BY_MASK[modifier.mask] = modifier;
+		}
 
 		public final int code;
 
-		private ModifierKey(int code) {
+		/**
+		 * The bits of the modifiers that make up this Modifier Key. ALT is 1, CTRL is
+		 * 2, SHIFT is 4 and WIN is 8, so ALT_CTRL is 3 and so on.
+		 */
+		public final int mask;
+
+		private ModifierKey(int code, int mask) {
 			this.code = code;
+			this.mask = mask;
+		}
+
+		/**
+		 * Get the Modifier Key that matches the modifier bits
+		 * 
+		 * @param mask The modifier bits (only the lowest 4 bits are used)
+		 * @return The Modifier Key for those bits
+		 */
+		public static ModifierKey fromMask(int mask) {
+			return BY_MASK[mask & 15];
+		}
+
+		/**
+		 * Get the Modifier Key of a keyCode without searching. Only ALT, CTRL, SHIFT
+		 * and WIN have a keyCode.
+		 * 
+		 * @param code The keyCode
+		 * @return The Modifier Key, or null if the keyCode is not a Modifier Key
+		 */
+		public static ModifierKey fromCode(int code) {
+			final int mask = KeyState.modifierBit(code);
+			return mask == 0 ? null : BY_MASK[mask];
 		}
 	};
 
 	// Private Variables
-	private final List<Integer> keysPressed = Collections.synchronizedList(new ArrayList<Integer>());
+	private final KeyState keysPressed = new KeyState();
 	private char lastKeyTyped = Character.MIN_VALUE;
+	private int action = 0, keyCode = 0;
+	private long millis = 0L;
+	private boolean repeat = false;
+	private SimpleKeyHandler source = null;
+	private KeyFocusNode focus = null;
+	private boolean consumed = false;
 	protected boolean overrideEscape = false;
 
 	/**
 	 * Clear the KeyEvent of all of the currently pressed keys
 	 */
 	public void clear() {
-		if (this.isAnyKeyPressed()) this.keysPressed.clear();
+		this.keysPressed.clear();
+	}
+
+	/**
+	 * Stop the Event from going to any more Listeners. The Listeners of the
+	 * {@link KeyFocusNode}s and then the Handler get the Event in order, and once
+	 * it is consumed the rest of them are skipped.
+	 */
+	public void consume() {
+		this.consumed = true;
+	}
+
+	/**
+	 * Make a copy of this Event that will never change.<br>
+	 * <br>
+	 * The Event sent to your Listeners is recycled once every Listener is done
+	 * with it, so if you want to keep it for later (Like to use on another
+	 * Thread) you need to make a copy of it.
+	 * 
+	 * @return A copy of this Event
+	 */
+	public SimpleKeyEvent copy() {
+		final SimpleKeyEvent copy = new SimpleKeyEvent();
+		copy.copyFrom(this);
+		return copy;
+	}
+
+	/**
+	 * Get the action of the Event.<br>
+	 * <br>
+	 * This is processing.event.KeyEvent.PRESS, RELEASE or TYPE. When used on the
+	 * Handler itself it is the action of the newest Event.
+	 * 
+	 * @return The action of the Event, or 0 if there has been no Event yet
+	 */
+	public int getAction() {
+		return this.action;
+	}
+
+	/**
+	 * Get the keyCode of the key that was pressed or released for this Event.
+	 * When used on the Handler itself it is the keyCode of the newest Event.
+	 * 
+	 * @return The keyCode of the Event, or 0 if there has been no Event yet
+	 */
+	public int getKeyCode() {
+		return this.keyCode;
 	}
 
 	/**
@@ -150,13 +315,23 @@ public class SimpleKeyEvent {
 		return this.lastKeyTyped;
 	}
 
+	/**
+	 * Get the time that the Event happened. When used on the Handler itself it is
+	 * the time of the newest Event.
+	 * 
+	 * @return The time in milliseconds, or 0 if there has been no Event yet
+	 */
+	public long getMillis() {
+		return this.millis;
+	}
+
 	/**
 	 * Check and see if ANY key is pressed down at this current time
 	 * 
 	 * @return true if ANY key is press, otherwise false
 	 */
 	public boolean isAnyKeyPressed() {
-		return this.keysPressed.size() > 0;
+		return this.keysPressed.count() > 0;
 	}
 
 	/**
@@ -168,8 +343,7 @@ public class SimpleKeyEvent {
 	 * @return true if the key you declared is pressed, otherwise false
 	 */
 	public boolean isKeyPressed(int index) {
-		if (this.isAnyKeyPressed()) return this.keysPressed.contains((Object) index);
-		return false;
+		return this.keysPressed.get(index);
 	}
 
 	/**
@@ -198,6 +372,19 @@ public class SimpleKeyEvent {
 		return this.isKeyPressed(functionKey.code);
 	}
 
+	/**
+	 * Check and see if a specific Navigation Key is pressed.<br>
+	 * <br>
+	 * This will make sure that the Navigation Key you specify is pressed.
+	 * 
+	 * @param navigationKey The Navigation Key you want to check and see if they
+	 *                      are pressed
+	 * @return true if the Navigation Key you declared is pressed, otherwise false
+	 */
+	public boolean isKeyPressed(NavigationKey navigationKey) {
+		return this.isKeyPressed(navigationKey.code);
+	}
+
 	/**
 	 * <pre>
 	 * Check and see if a specific Modifier Key is pressed.
@@ -229,11 +416,22 @@ public class SimpleKeyEvent {
 	 * @return true ONLY if ALL the keys you declared are pressed, otherwise false
 	 */
 	public boolean isKeysPressed(int... indexies) {
-		if (this.isAnyKeyPressed()) {
-			for (int index : indexies) if (!this.isKeyPressed(index)) return false;
-			return true;
-		}
-		return false;
+		return this.keysPressed.containsAll(KeyState.ANY_MODIFIERS, indexies);
+	}
+
+	/**
+	 * Check and see if a KeyChord is pressed.<br>
+	 * <br>
+	 * This will make sure that all the keys of the Chord are pressed. If the Chord
+	 * was made with a Modifier it will also make sure ONLY that modifier is
+	 * pressed. Unlike {@link #isKeysPressed(int...)} this does not create any
+	 * garbage.
+	 * 
+	 * @param chord The KeyChord you want to check and see if it is pressed
+	 * @return true ONLY if the Chord is pressed, otherwise false
+	 */
+	public boolean isKeysPressed(KeyChord chord) {
+		return chord.matches(this.keysPressed);
 	}
 
 	/**
@@ -295,8 +493,23 @@ public class SimpleKeyEvent {
 	 *         declared are pressed, otherwise false
 	 */
 	public boolean isModifiedKeysPressed(ModifierKey modifier, int... indexies) {
-		if (this.isAnyKeyPressed() && this.isModifierPressed(modifier)) return this.isKeysPressed(indexies);
-		return false;
+		return this.keysPressed.containsAll(modifier.mask, indexies);
+	}
+
+	/**
+	 * Check and see if all the keys of a KeyChord are pressed, with a
+	 * modifier.<br>
+	 * <br>
+	 * The modifier you give here is used instead of the one the Chord was made
+	 * with.
+	 * 
+	 * @param modifier The Modifier you want to check if it is pressed
+	 * @param chord    The KeyChord you want to check and see if it is pressed
+	 * @return true if ONLY the modifier you specify is pressed and ALL the keys of
+	 *         the Chord are pressed, otherwise false
+	 */
+	public boolean isModifiedKeysPressed(ModifierKey modifier, KeyChord chord) {
+		return chord.matches(this.keysPressed, modifier);
 	}
 
 	/**
@@ -310,59 +523,68 @@ public class SimpleKeyEvent {
 	 * @return true if ONLY the modifier you specify is pressed, otherwise false
 	 */
 	public boolean isModifierPressed(ModifierKey modifier) {
-		switch (modifier) {
-			case NONE:
-				return !this.isKeyPressed(ModifierKey.ALT) && !this.isKeyPressed(ModifierKey.CTRL)
-						&& !this.isKeyPressed(ModifierKey.SHIFT) && !this.isKeyPressed(ModifierKey.WIN);
-			case ALT:
-				return this.isKeyPressed(ModifierKey.ALT) && !this.isKeyPressed(ModifierKey.CTRL)
-						&& !this.isKeyPressed(ModifierKey.SHIFT) && !this.isKeyPressed(ModifierKey.WIN);
-			case CTRL:
-				return !this.isKeyPressed(ModifierKey.ALT) && this.isKeyPressed(ModifierKey.CTRL)
-						&& !this.isKeyPressed(ModifierKey.SHIFT) && !this.isKeyPressed(ModifierKey.WIN);
-			case SHIFT:
-				return !this.isKeyPressed(ModifierKey.ALT) && !this.isKeyPressed(ModifierKey.CTRL)
-						&& this.isKeyPressed(ModifierKey.SHIFT) && !this.isKeyPressed(ModifierKey.WIN);
-			case WIN:
-				return !this.isKeyPressed(ModifierKey.ALT) && !this.isKeyPressed(ModifierKey.CTRL)
-						&& !this.isKeyPressed(ModifierKey.SHIFT) && this.isKeyPressed(ModifierKey.WIN);
-			case ALT_CTRL:
-				return this.isKeyPressed(ModifierKey.ALT) && this.isKeyPressed(ModifierKey.CTRL)
-						&& !this.isKeyPressed(ModifierKey.SHIFT) && !this.isKeyPressed(ModifierKey.WIN);
-			case ALT_SHIFT:
-				return this.isKeyPressed(ModifierKey.ALT) && !this.isKeyPressed(ModifierKey.CTRL)
-						&& this.isKeyPressed(ModifierKey.SHIFT) && !this.isKeyPressed(ModifierKey.WIN);
-			case ALT_WIN:
-				return this.isKeyPressed(ModifierKey.ALT) && !this.isKeyPressed(ModifierKey.CTRL)
-						&& !this.isKeyPressed(ModifierKey.SHIFT) && this.isKeyPressed(ModifierKey.WIN);
-			case CTRL_SHIFT:
-				return !this.isKeyPressed(ModifierKey.ALT) && this.isKeyPressed(ModifierKey.CTRL)
-						&& this.isKeyPressed(ModifierKey.SHIFT) && !this.isKeyPressed(ModifierKey.WIN);
-			case CTRL_WIN:
-				return !this.isKeyPressed(ModifierKey.ALT) && this.isKeyPressed(ModifierKey.CTRL)
-						&& !this.isKeyPressed(ModifierKey.SHIFT) && this.isKeyPressed(ModifierKey.WIN);
-			case SHIFT_WIN:
-				return !this.isKeyPressed(ModifierKey.ALT) && !this.isKeyPressed(ModifierKey.CTRL)
-						&& this.isKeyPressed(ModifierKey.SHIFT) && this.isKeyPressed(ModifierKey.WIN);
-			case ALT_CTRL_SHIFT:
-				return this.isKeyPressed(ModifierKey.ALT) && this.isKeyPressed(ModifierKey.CTRL)
-						&& this.isKeyPressed(ModifierKey.SHIFT) && !this.isKeyPressed(ModifierKey.WIN);
-			case ALT_CTRL_WIN:
-				return this.isKeyPressed(ModifierKey.ALT) && this.isKeyPressed(ModifierKey.CTRL)
-						&& !this.isKeyPressed(ModifierKey.SHIFT) && this.isKeyPressed(ModifierKey.WIN);
-			case ALT_SHIFT_WIN:
-				return this.isKeyPressed(ModifierKey.ALT) && !this.isKeyPressed(ModifierKey.CTRL)
-						&& this.isKeyPressed(ModifierKey.SHIFT) && this.isKeyPressed(ModifierKey.WIN);
-			case CTRL_SHIFT_WIN:
-				return !this.isKeyPressed(ModifierKey.ALT) && this.isKeyPressed(ModifierKey.CTRL)
-						&& this.isKeyPressed(ModifierKey.SHIFT) && this.isKeyPressed(ModifierKey.WIN);
-			case ALT_CTRL_SHIFT_WIN:
-				return this.isKeyPressed(ModifierKey.ALT) && this.isKeyPressed(ModifierKey.CTRL)
-						&& this.isKeyPressed(ModifierKey.SHIFT) && this.isKeyPressed(ModifierKey.WIN);
-			default:
-				break;
-		}
-		return false;
+		return this.keysPressed.modifiers() == modifier.mask;
+	}
+
+	/**
+	 * Get the Modifier that is pressed at this current time.<br>
+	 * <br>
+	 * This will return the combination of every modifier being held, so if ALT
+	 * and CTRL are both held you will get ALT_CTRL.
+	 * 
+	 * @return The Modifier being pressed, or NONE if no modifiers are pressed
+	 */
+	public ModifierKey getModifierPressed() {
+		return ModifierKey.fromMask(this.keysPressed.modifiers());
+	}
+
+	/**
+	 * Get the table of keys that are being held
+	 * 
+	 * @return The KeyState of this Event
+	 */
+	KeyState getKeyState() {
+		return this.keysPressed;
+	}
+
+	/**
+	 * Get the Handler this Event came from. This is how you tell which window an
+	 * Event happened in when Handlers share a {@link SimpleKeyEngine}.
+	 * 
+	 * @return The Handler of the Event
+	 */
+	public SimpleKeyHandler getSource() {
+		return this.source;
+	}
+
+	/**
+	 * Get the KeyFocusNode that had the focus when the Event happened. When used
+	 * on the Handler itself it is the node that has the focus right now.
+	 * 
+	 * @return The focused node, or null if nothing has the focus
+	 */
+	public KeyFocusNode getFocus() {
+		return this.focus;
+	}
+
+	/**
+	 * Check if a Listener has {@link #consume() consumed} the Event
+	 * 
+	 * @return true if the Event was consumed, otherwise false
+	 */
+	public boolean isConsumed() {
+		return this.consumed;
+	}
+
+	/**
+	 * Check if the key of this Event was already held down, meaning the Event is
+	 * the computer repeating a key that is being held. When used on the Handler
+	 * itself it is for the newest Event.
+	 * 
+	 * @return true if the key was already held, otherwise false
+	 */
+	public boolean isRepeat() {
+		return this.repeat;
 	}
 
 	/**
@@ -374,6 +596,24 @@ public class SimpleKeyEvent {
 		return this.overrideEscape;
 	}
 
+	/**
+	 * Copy everything from another Event into this one
+	 * 
+	 * @param source The Event to copy
+	 */
+	void copyFrom(SimpleKeyEvent source) {
+		this.keysPressed.copyFrom(source.keysPressed);
+		this.lastKeyTyped = source.lastKeyTyped;
+		this.action = source.action;
+		this.keyCode = source.keyCode;
+		this.millis = source.millis;
+		this.repeat = source.repeat;
+		this.source = source.getSource();
+		this.focus = source.getFocus();
+		this.consumed = false;
+		this.overrideEscape = source.overrideEscape;
+	}
+
 	/**
 	 * Deregister the Key with the Handler so it knows the key is being
 	 * Released
@@ -381,7 +621,21 @@ public class SimpleKeyEvent {
 	 * @param index keyCode of the key being released
 	 */
 	protected void deregisterKey(int index) {
-		if (this.isKeyPressed(index)) this.keysPressed.remove((Object) index);
+		this.keysPressed.unset(index);
+		this.repeat = false;
+	}
+
+	/**
+	 * Update the newest Event in the Handler.
+	 * 
+	 * @param action  The action of the Event
+	 * @param keyCode The keyCode of the Event
+	 * @param millis  The time of the Event
+	 */
+	protected void updateEvent(int action, int keyCode, long millis) {
+		this.action = action;
+		this.keyCode = keyCode;
+		this.millis = millis;
 	}
 
 	/**
@@ -399,6 +653,6 @@ public class SimpleKeyEvent {
 	 * @param index keyCode of the key being pressed
 	 */
 	protected void registerKey(int index) {
-		if (!this.isKeyPressed(index)) this.keysPressed.add(index);
+		this.repeat = !this.keysPressed.set(index);
 	}
 }
@@ -0,0 +1,37 @@
+package org.unlishema.simpleKeyHandler;
+
+/**
+ * This is a SimpleKeyFrameListener to be used with SimpleKeyHandler when it is
+ * batching Events by frame (See {@link SimpleKeyHandler#setFrameBatched(boolean)}).<br>
+ * <br>
+ * Instead of being executed for every single key that is pressed, released or
+ * typed, it is executed once at the start of every frame that had any Events.
+ * You can then ask the Handler which keys were pressed or released during that
+ * frame.<br>
+ * <br>
+ * 
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ * 
+ * void setup() {
+ * 	skh.setFrameBatched(true);
+ * 	skh.addFrameListener(new SimpleKeyFrameListener() {
+ * 		void onKeyFrame(final SimpleKeyHandler handler) {
+ * 			if (handler.isKeyPressedThisFrame(' ')) jump();
+ * 		}
+ * 	});
+ * }
+ * </pre>
+ * 
+ * @author Unlishema
+ */
+public interface SimpleKeyFrameListener {
+	/**
+	 * A function for you to do once per frame after all the Events of that frame
+	 * have been handled.
+	 * 
+	 * @param handler The Handler to access and determine what keys changed this
+	 *                frame.
+	 */
+	public void onKeyFrame(final SimpleKeyHandler handler);
+}
@@ -1,10 +1,10 @@
 package org.unlishema.simpleKeyHandler;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.io.IOException;
+import java.util.Arrays;
 
 import processing.core.PApplet;
+import processing.core.PConstants;
 import processing.event.KeyEvent;
 
 /**
@@ -24,6 +24,10 @@ import processing.event.KeyEvent;
  * time, and you can check for modifiers being used on these keys like Shift,
  * Alt, Ctrl, and Win.<br>
  * <br>
+ * If your sketch has more than one window you can give every Handler the same
+ * {@link SimpleKeyEngine}, so the Listeners and Actions are only added once and
+ * are shared by all of the windows while each window keeps its own keys.<br>
+ * <br>
  * A couple notes to keep in mind is keyPressed and keyReleased are more for
  * controls for the sketch, while keyTyped is more for input of keys into a
  * String, TextField, or similar. You don't have to follow this. The keyPressed
@@ -42,7 +46,8 @@ import processing.event.KeyEvent;
  * 
  * <h3>Known Bugs:</h3>
  * &#183; If you hold a key and change windows the key will stay held down until
- * you change back and press it again. (This is being worked on right now)<br>
+ * the next frame finds it is stuck and releases it. Sketches without a window
+ * can find stuck keys with {@link #setStaleKeyTimeout(long)}.<br>
  * &#183; If you use the default keyPressed, keyReleased, and keyTyped methods
  * there is an issue. It executes them before keyEvent is executed causing an
  * issue of not registering and deregistering keys before method is
@@ -60,22 +65,138 @@ import processing.event.KeyEvent;
  *
  */
 public class SimpleKeyHandler extends SimpleKeyEvent {
+	/**
+	 * Backpressure Policies decide what happens when Events come in faster than
+	 * the Listeners can handle them while dispatching is async.<br>
+	 * <br>
+	 * 
+	 * <pre>
+	The Backpressure Policies are:
+	&#183; DROP_OLDEST	: Drop the oldest Event that is waiting
+	&#183; COALESCE	: Drop the new Event if it repeats the newest waiting Event, otherwise DROP_OLDEST
+	&#183; BLOCK		: Make the sketch wait until there is room
+	 * </pre>
+	 * 
+	 * @author Unlishema
+	 *
+	 */
+	public static enum BackpressurePolicy {
+		DROP_OLDEST, COALESCE, BLOCK;
+	};
+
+	/**
+	 * Repeat Policies decide what happens to the Events made by the computer
+	 * repeating a key that is held down.<br>
+	 * <br>
+	 * 
+	 * <pre>
+	The Repeat Policies are:
+	&#183; DELIVER	: Every repeat goes to the Listeners as a key press
+	&#183; SUPPRESS	: Repeats are ignored (Typed keys are still sent)
+	&#183; COALESCE	: Repeats are counted and sent once per frame to the Repeat Listeners
+	 * </pre>
+	 * 
+	 * @author Unlishema
+	 *
+	 */
+	public static enum RepeatPolicy {
+		DELIVER, SUPPRESS, COALESCE;
+	};
+
+	private static final KeyFocusNode[] NO_FOCUS = new KeyFocusNode[0];
 
 	private final PApplet parent;
 
-	private final List<SimpleKeyListener> listeners = Collections.synchronizedList(new ArrayList<SimpleKeyListener>());
+	private final ListenerRegistry<KeyInputSource> sources = new ListenerRegistry<KeyInputSource>();
+
+	private final SimpleKeyEngine engine;
+
+	private final KeySequences.Cursor sequenceCursor = new KeySequences.Cursor();
+
+	private final ListenerRegistry<SimpleKeyRepeatListener> repeatListeners = new ListenerRegistry<SimpleKeyRepeatListener>();
+
+	private final RepeatFilter repeats;
+
+	private final KeyWatchdog watchdog;
+
+	private final ListenerRegistry<InputMap> inputMaps = new ListenerRegistry<InputMap>();
+
+	private final ListenerRegistry<SimpleKeyFrameListener> frameListeners = new ListenerRegistry<SimpleKeyFrameListener>();
+
+	private final Object frameLock = new Object();
+
+	private KeyEventBuffer pendingEvents = new KeyEventBuffer(), frameEvents = new KeyEventBuffer();
+
+	private final KeyState pressedThisFrame = new KeyState(), releasedThisFrame = new KeyState();
+
+	private final KeyState pressedNextFrame = new KeyState(), releasedNextFrame = new KeyState();
+
+	private volatile boolean frameBatched = false;
+
+	private volatile KeyEventRecorder recorder = null;
+
+	private volatile TextInputBuffer textInput = null;
+
+	private volatile KeyFocusNode[] focusStack = NO_FOCUS;
 
 	/**
-	 * Default and ONLY Constructor of the Simple Key Handler
+	 * Default Constructor of the Simple Key Handler
 	 * 
 	 * @param parent The PApplet that this Library is being used on (Usually is
 	 *               "this")
 	 */
 	public SimpleKeyHandler(final PApplet parent) {
-		this.parent = parent;
-		this.parent.registerMethod("keyEvent", this);
-		this.parent.registerMethod("focusGained", this);
-		this.parent.registerMethod("focusLost", this);
+		this(new PAppletKeySource(parent), new SimpleKeyEngine());
+	}
+
+	/**
+	 * Constructor of the Simple Key Handler for a window that shares its engine
+	 * with other windows
+	 * 
+	 * @param parent The PApplet that this Library is being used on (Usually is
+	 *               "this")
+	 * @param engine The SimpleKeyEngine to share
+	 */
+	public SimpleKeyHandler(final PApplet parent, final SimpleKeyEngine engine) {
+		this(new PAppletKeySource(parent), engine);
+	}
+
+	/**
+	 * Constructor of the Simple Key Handler for using it without a sketch.<br>
+	 * <br>
+	 * The Handler gets its Events from the source instead, like a
+	 * {@link HeadlessKeySource} for running with no window at all.
+	 * 
+	 * @param source The KeyInputSource to get the Events from
+	 */
+	public SimpleKeyHandler(final KeyInputSource source) {
+		this(source, new SimpleKeyEngine());
+	}
+
+	/**
+	 * Constructor of the Simple Key Handler for using it without a sketch and
+	 * sharing its engine with other Handlers
+	 * 
+	 * @param source The KeyInputSource to get the Events from
+	 * @param engine The SimpleKeyEngine to share
+	 */
+	public SimpleKeyHandler(final KeyInputSource source, final SimpleKeyEngine engine) {
+		if (engine == null) throw new IllegalArgumentException("The engine can not be null");
+		this.parent = source instanceof PAppletKeySource ? ((PAppletKeySource) source).getParent() : null;
+		this.engine = engine;
+		this.repeats = new RepeatFilter(this, engine.getEventLock());
+		this.watchdog = new KeyWatchdog(this, this.parent);
+		this.engine.attach(this);
+		this.addInputSource(source);
+	}
+
+	/**
+	 * Add another source of Events to the Handler
+	 * 
+	 * @param source The KeyInputSource to get Events from
+	 */
+	public void addInputSource(final KeyInputSource source) {
+		if (this.sources.add(source)) source.attach(this);
 	}
 
 	/**
@@ -83,15 +204,16 @@ public class SimpleKeyHandler extends SimpleKeyEvent {
 	 * issue.<br>
 	 * <br>
 	 * When we gain focus of the window we want to make sure the keys that are
-	 * pressed is empty and ready to be used.
+	 * pressed is empty and ready to be used.<br>
+	 * <br>
+	 * The sketch never calls this, so {@link #pre()} watches the focus of the
+	 * sketch instead and releases the keys that are stuck.
 	 */
-	// FIXME Make sure we remove all keys being pressed if window loses focus
-	// for some reason it don't trigger these event on minimize or anything
 	public void focusGained() {
-		this.parent.focusGained();
+		if (this.parent != null) this.parent.focusGained();
 		System.err.println("NOTICE: Let Unlishema know the focusGained() method is fixed!");
 		System.out.println("Focus Gained! Resetting keys being Pressed as a precaution.");
-		this.clear();
+		this.releaseHeldKeys();
 	}
 
 	/**
@@ -102,10 +224,10 @@ public class SimpleKeyHandler extends SimpleKeyEvent {
 	 * pressed down.
 	 */
 	public void focusLost() {
-		this.parent.focusLost();
+		if (this.parent != null) this.parent.focusLost();
 		System.err.println("NOTICE: Let Unlishema know the focusLost() method is fixed!");
 		System.out.println("Focus Lost! Resetting keys being Pressed to prevent ghost held keys.");
-		this.clear();
+		this.releaseHeldKeys();
 	}
 
 	/**
@@ -116,48 +238,539 @@ public class SimpleKeyHandler extends SimpleKeyEvent {
 	 * @param e The Event for the keyEvent
 	 */
 	public void keyEvent(final KeyEvent e) {
-		switch (e.getAction()) {
-			// When Key is Pressed register key and execute all Listeners onKeyPressed
+		final int action = e.getAction();
+		final int keyCode = e.getKeyCode();
+		// Override the Escape Key if the user wants it overridden
+		if (action == KeyEvent.PRESS && this.isOverridingEscape() && keyCode == ControlKey.ESCAPE.code
+				&& this.parent != null)
+			this.parent.key = 0;
+		this.postKeyEvent(action, keyCode, e.getKey(), e.getMillis());
+	}
+
+	/**
+	 * Send an Event into the Handler. This is how a {@link KeyInputSource} gives
+	 * the Handler its Events, but you can also use it to fake key presses.
+	 * 
+	 * @param action  processing.event.KeyEvent.PRESS, RELEASE or TYPE
+	 * @param keyCode keyCode of the Event
+	 * @param key     The key of the Event
+	 * @param millis  The time of the Event
+	 */
+	public void postKeyEvent(int action, int keyCode, char key, long millis) {
+		final long received = System.nanoTime();
+		final KeyEventRecorder recorder = this.recorder;
+		if (recorder != null) this.record(recorder, action, keyCode, key, millis);
+		if (this.frameBatched) {
+			synchronized (this.frameLock) {
+				if (this.frameBatched) {
+					this.pendingEvents.add(action, keyCode, key, millis, received);
+					return;
+				}
+			}
+		}
+		this.handleKeyEvent(action, keyCode, key, millis, received);
+	}
+
+	/**
+	 * Write an Event to the Recorder, and stop recording if it can not be written
+	 */
+	private void record(KeyEventRecorder recorder, int action, int keyCode, char key, long millis) {
+		try {
+			recorder.record(action, keyCode, key, millis);
+		} catch (IOException e) {
+			System.err.println("Could not record a key event, recording has been stopped.");
+			e.printStackTrace();
+			if (this.recorder == recorder) this.recorder = null;
+		}
+	}
+
+	/**
+	 * Register, deregister or type the key of an Event and then execute the
+	 * Actions and Listeners for it.
+	 * 
+	 * @param action   The KeyEvent action
+	 * @param keyCode  keyCode of the Event
+	 * @param key      The key of the Event
+	 * @param millis   The time of the Event
+	 * @param received The System.nanoTime() the Event was received at
+	 */
+	void handleKeyEvent(int action, int keyCode, char key, long millis, long received) {
+		this.watchdog.observe(action, keyCode);
+		if (this.repeats.filter(action, keyCode, key, millis, received))
+			this.engine.handle(this, action, keyCode, key, millis, received);
+	}
+
+	/**
+	 * Register, deregister or type the key of an Event.
+	 * 
+	 * @param action  The KeyEvent action
+	 * @param keyCode keyCode of the Event
+	 * @param key     The key of the Event
+	 * @param millis  The time of the Event
+	 * @return true if the Event should be dispatched, otherwise false
+	 */
+	boolean apply(int action, int keyCode, char key, long millis) {
+		switch (action) {
+			// When Key is Pressed register key
 			case KeyEvent.PRESS:
-				int keyCode = e.getKeyCode();
 				this.registerKey(keyCode);
-				// Override the Escape Key if the user wants it overridden
-				if (this.isOverridingEscape() && keyCode == ControlKey.ESCAPE.code)
-					this.parent.key = 0;
-				if (this.listeners.size() > 0)
-					for (SimpleKeyListener skl : this.listeners)
-						skl.onKeyPressed(this);
+				if (!this.isRepeat()) this.pressedNextFrame.set(keyCode);
 				break;
-			// When Key is Released deregister key and execute all Listeners onKeyReleased
+			// When Key is Released deregister key
 			case KeyEvent.RELEASE:
-				this.deregisterKey(e.getKeyCode());
-				if (this.listeners.size() > 0)
-					for (SimpleKeyListener skl : this.listeners)
-						skl.onKeyReleased(this);
+				if (this.getKeyState().get(keyCode)) this.releasedNextFrame.set(keyCode);
+				this.deregisterKey(keyCode);
 				break;
-			// When Key is Typed update last key typed and execute all Listeners onKeyTyped
+			// When Key is Typed update last key typed
 			case KeyEvent.TYPE:
-				this.updateTypedKey(e.getKey());
-				if (this.listeners.size() > 0)
-					for (SimpleKeyListener skl : this.listeners)
-						skl.onKeyTyped(this);
+				this.updateTypedKey(key);
+				final TextInputBuffer textInput = this.textInput;
+				if (textInput != null) textInput.type(key);
 				break;
 			default:
-				break;
+				return false;
 		}
+		this.updateEvent(action, keyCode, millis);
+		return true;
+	}
+
+	/**
+	 * The pre method that the sketch executes at the start of every frame.<br>
+	 * <br>
+	 * This sends the repeats counted since the last frame. When the Handler is
+	 * batching Events by frame this is also where all of the Events since the
+	 * last frame are handled. Then any key that is stuck held down (See
+	 * {@link #setStaleKeyTimeout(long)}) is released, the keys pressed and
+	 * released since the last frame are kept for {@link #wasJustPressed(int)} and
+	 * {@link #wasJustReleased(int)}, the Frame Listeners are executed and last the
+	 * {@link InputMap}s are updated.
+	 */
+	public void pre() {
+		this.repeats.flush();
+		final boolean batched = this.frameBatched && this.handleFrame();
+		this.watchdog.check();
+		this.nextFrame();
+		if (batched) this.dispatchFrame();
+		for (ListenerRegistry.Entry<InputMap> entry : this.inputMaps.snapshot())
+			if (entry.active) entry.listener.update(this);
+	}
+
+	/**
+	 * Execute the Repeat Listeners for a key that repeated
+	 * 
+	 * @param keyCode keyCode of the key that repeated
+	 * @param count   The amount of times it repeated
+	 */
+	void dispatchRepeat(int keyCode, int count) {
+		for (ListenerRegistry.Entry<SimpleKeyRepeatListener> entry : this.repeatListeners.snapshot())
+			if (entry.active) entry.listener.onKeyRepeat(this, keyCode, count);
+	}
+
+	/**
+	 * Handle every Event that was batched since the last frame
+	 * 
+	 * @return true if there were any Events, otherwise false
+	 */
+	private boolean handleFrame() {
+		final KeyEventBuffer events;
+		synchronized (this.frameLock) {
+			events = this.pendingEvents;
+			this.pendingEvents = this.frameEvents;
+			this.frameEvents = events;
+		}
+		if (events.size() == 0) return false;
+		for (int i = 0; i < events.size(); i++)
+			this.handleKeyEvent(events.action(i), events.keyCode(i), events.key(i), events.millis(i),
+					events.received(i));
+		events.clear();
+		this.repeats.flush();
+		return true;
+	}
+
+	/**
+	 * Execute the Frame Listeners once for the frame
+	 */
+	private void dispatchFrame() {
+		for (ListenerRegistry.Entry<SimpleKeyFrameListener> entry : this.frameListeners.snapshot())
+			if (entry.active) entry.listener.onKeyFrame(this);
+	}
+
+	/**
+	 * Start a new frame by keeping the keys pressed and released since the last
+	 * frame and forgetting the ones from before it. Both the batched and the
+	 * normal Events are counted the same way, as they are registered.
+	 */
+	private void nextFrame() {
+		synchronized (this.engine.getEventLock()) {
+			this.pressedThisFrame.copyFrom(this.pressedNextFrame);
+			this.releasedThisFrame.copyFrom(this.releasedNextFrame);
+			this.pressedNextFrame.clear();
+			this.releasedNextFrame.clear();
+		}
+	}
+
+	/**
+	 * Add a new Frame Listener into the Handler.<br>
+	 * <br>
+	 * Frame Listeners are only executed while the Handler is batching Events by
+	 * frame, once per frame that had any Events.
+	 * 
+	 * @param kfl new SimpleKeyFrameListener() {}
+	 */
+	public void addFrameListener(SimpleKeyFrameListener kfl) {
+		this.frameListeners.add(kfl);
+	}
+
+	/**
+	 * Add a new Repeat Listener into the Handler.<br>
+	 * <br>
+	 * Repeat Listeners are only executed while the Repeat Policy is COALESCE.
+	 * 
+	 * @param krl new SimpleKeyRepeatListener() {}
+	 */
+	public void addRepeatListener(SimpleKeyRepeatListener krl) {
+		this.repeatListeners.add(krl);
 	}
 
 	/**
 	 * Add a new listener into the Handler.<br>
 	 * <br>
 	 * Here is where you add the listeners that you create into the Handler so the
-	 * Handler can execute your code.
+	 * Handler can execute your code.<br>
+	 * <br>
+	 * It is safe to add a Listener from inside of another Listener, it will start
+	 * getting Events with the next Event.
 	 * 
 	 * @param kel new SimpleKeyListener() {}
 	 */
 	public void addListener(SimpleKeyListener kel) {
-		if (!this.listeners.contains(kel))
-			this.listeners.add(kel);
+		this.engine.addListener(kel);
+	}
+
+	/**
+	 * Add a Listener that only gets the Events it wants. Listeners with a higher
+	 * priority are executed first and can {@link SimpleKeyEvent#consume() consume}
+	 * the Event before the rest get it.
+	 * 
+	 * @param kel      new SimpleKeyListener() {}
+	 * @param priority The priority of the Listener, the default is 0
+	 * @param interest The Events the Listener wants, or null for every Event
+	 */
+	public void addListener(SimpleKeyListener kel, int priority, KeyInterest interest) {
+		this.engine.addListener(kel, priority, interest);
+	}
+
+	/**
+	 * Add an InputMap that is updated from this Handler at the start of every
+	 * frame
+	 * 
+	 * @param map The InputMap
+	 */
+	public void addInputMap(InputMap map) {
+		this.inputMaps.add(map);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is pressed. It only has one method,
+	 * so it can be a lambda.
+	 * 
+	 * @param handler event -&gt; {}
+	 */
+	public void addPressHandler(KeyPressHandler handler) {
+		this.engine.addPressHandler(handler);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is pressed, see
+	 * {@link SimpleKeyEngine#addPressHandler(KeyPressHandler, int, KeyInterest)}
+	 * 
+	 * @param handler  event -&gt; {}
+	 * @param priority The priority of the handler, the default is 0
+	 * @param interest The keys the handler wants, or null for every key
+	 */
+	public void addPressHandler(KeyPressHandler handler, int priority, KeyInterest interest) {
+		this.engine.addPressHandler(handler, priority, interest);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is released. It only has one method,
+	 * so it can be a lambda.
+	 * 
+	 * @param handler event -&gt; {}
+	 */
+	public void addReleaseHandler(KeyReleaseHandler handler) {
+		this.engine.addReleaseHandler(handler);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is released, see
+	 * {@link SimpleKeyEngine#addReleaseHandler(KeyReleaseHandler, int, KeyInterest)}
+	 * 
+	 * @param handler  event -&gt; {}
+	 * @param priority The priority of the handler, the default is 0
+	 * @param interest The keys the handler wants, or null for every key
+	 */
+	public void addReleaseHandler(KeyReleaseHandler handler, int priority, KeyInterest interest) {
+		this.engine.addReleaseHandler(handler, priority, interest);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is typed. It only has one method,
+	 * so it can be a lambda.
+	 * 
+	 * @param handler event -&gt; {}
+	 */
+	public void addTypeHandler(KeyTypeHandler handler) {
+		this.engine.addTypeHandler(handler);
+	}
+
+	/**
+	 * Add a handler that is executed when a key is typed, see
+	 * {@link SimpleKeyEngine#addTypeHandler(KeyTypeHandler, int, KeyInterest)}
+	 * 
+	 * @param handler  event -&gt; {}
+	 * @param priority The priority of the handler, the default is 0
+	 * @param interest The keys the handler wants, or null for every key
+	 */
+	public void addTypeHandler(KeyTypeHandler handler, int priority, KeyInterest interest) {
+		this.engine.addTypeHandler(handler, priority, interest);
+	}
+
+	/**
+	 * Bind an Action to a KeyChord.<br>
+	 * <br>
+	 * The Action is only executed when a key of the Chord is pressed while the
+	 * rest of the Chord (and its Modifier) is held. The Handler looks the Action up by the key
+	 * that was pressed, so binding a lot of Actions does not slow down key presses
+	 * like adding a lot of Listeners does.<br>
+	 * <br>
+	 * The Action is not executed again while the key is held and repeating, see
+	 * {@link #bind(KeyChord, KeyAction, boolean)} to change that.
+	 * 
+	 * @param chord  The KeyChord that triggers the Action
+	 * @param action The Action to execute
+	 */
+	public void bind(KeyChord chord, KeyAction action) {
+		this.engine.bind(chord, action, false);
+	}
+
+	/**
+	 * Bind an Action to a KeyChord that can also be executed each time the held
+	 * key repeats, like moving a cursor while an arrow key is held.
+	 * 
+	 * @param chord  The KeyChord that triggers the Action
+	 * @param action The Action to execute
+	 * @param repeat true to execute the Action again each time the held key
+	 *               repeats, false to only execute it when the key is first
+	 *               pressed
+	 */
+	public void bind(KeyChord chord, KeyAction action, boolean repeat) {
+		this.engine.bind(chord, action, repeat);
+	}
+
+	/**
+	 * Bind an Action to a KeyChord written like "CTRL+SHIFT+S".
+	 * 
+	 * @param chord  The KeyChord that triggers the Action, see
+	 *               {@link KeyChord#parse(String)}
+	 * @param action The Action to execute
+	 */
+	public void bind(String chord, KeyAction action) {
+		this.engine.bind(KeyChord.parse(chord), action, false);
+	}
+
+	/**
+	 * Bind an Action to a KeySequence.<br>
+	 * <br>
+	 * The Action is executed when the last step of the Sequence is pressed. Every
+	 * Sequence is recognized together, so binding a lot of Sequences costs the
+	 * same per key press as binding one.
+	 * 
+	 * @param sequence The KeySequence that triggers the Action
+	 * @param action   The Action to execute
+	 */
+	public void bindSequence(KeySequence sequence, KeyAction action) {
+		this.engine.bindSequence(sequence, action);
+	}
+
+	/**
+	 * Bind an Action to a KeySequence written like "G G" or "CTRL+X CTRL+S".
+	 * 
+	 * @param sequence The KeySequence that triggers the Action, see
+	 *                 {@link KeySequence#parse(String)}
+	 * @param action   The Action to execute
+	 */
+	public void bindSequence(String sequence, KeyAction action) {
+		this.engine.bindSequence(KeySequence.parse(sequence), action);
+	}
+
+	/**
+	 * Clear the Handler of all of the currently pressed keys and any KeySequence
+	 * that was part way pressed
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		this.sequenceCursor.reset();
+		this.repeats.clear();
+		this.watchdog.reset();
+	}
+
+	/**
+	 * Give an Action a name so a {@link KeyMap} can run it
+	 * 
+	 * @param name   The name of the action in the KeyMap
+	 * @param action The Action to run, or null to remove the name
+	 */
+	public void defineAction(String name, KeyAction action) {
+		this.engine.defineAction(name, action);
+	}
+
+	/**
+	 * Get the KeyMap being used
+	 * 
+	 * @return The KeyMap, or KeyMap.EMPTY if none was set
+	 */
+	public KeyMap getKeyMap() {
+		return this.engine.getKeyMap();
+	}
+
+	/**
+	 * Get the DispatchMetrics of the Handler. Nothing is recorded into them unless
+	 * they are enabled with {@link #setMetricsEnabled(boolean)}.
+	 * 
+	 * @return The DispatchMetrics
+	 */
+	public DispatchMetrics getMetrics() {
+		return this.engine.getMetrics();
+	}
+
+	/**
+	 * Get the engine of the Handler. This is shared with every other Handler that
+	 * was given the same engine.
+	 * 
+	 * @return The SimpleKeyEngine
+	 */
+	public SimpleKeyEngine getEngine() {
+		return this.engine;
+	}
+
+	/**
+	 * Get how long a key has been held down for.
+	 * 
+	 * @param index The key you want to check
+	 * @return The nanoseconds the key has been held for, or 0 if it is not held
+	 */
+	public long heldDurationNanos(int index) {
+		final long pressedAt = this.getKeyState().pressedAt(index);
+		return pressedAt == 0L ? 0L : System.nanoTime() - pressedAt;
+	}
+
+	/**
+	 * Get how long the last key pressed can go without repeating before it is
+	 * stuck
+	 * 
+	 * @return The time in milliseconds, or 0 if it is not checked
+	 */
+	public long getStaleKeyTimeout() {
+		return this.watchdog.getTimeout();
+	}
+
+	/**
+	 * Get what happens to the Events of keys repeating while held
+	 * 
+	 * @return The RepeatPolicy
+	 */
+	public RepeatPolicy getRepeatPolicy() {
+		return this.repeats.getPolicy();
+	}
+
+	/**
+	 * Get how far this Handler is through the KeySequences
+	 * 
+	 * @return The Cursor of the Handler
+	 */
+	KeySequences.Cursor getSequenceCursor() {
+		return this.sequenceCursor;
+	}
+
+	/**
+	 * Get the KeyFocusNode on the top of the focus stack
+	 * 
+	 * @return The focused node, or null if nothing has the focus
+	 */
+	@Override
+	public KeyFocusNode getFocus() {
+		final KeyFocusNode[] focusStack = this.focusStack;
+		return focusStack.length == 0 ? null : focusStack[focusStack.length - 1];
+	}
+
+	/**
+	 * The Handler is the source of its own Events
+	 * 
+	 * @return This Handler
+	 */
+	@Override
+	public SimpleKeyHandler getSource() {
+		return this;
+	}
+
+	/**
+	 * Check if the Handler is batching Events by frame
+	 * 
+	 * @return true if Events are batched, otherwise false
+	 */
+	public boolean isFrameBatched() {
+		return this.frameBatched;
+	}
+
+	/**
+	 * Get the Recorder that every Event is being written to
+	 * 
+	 * @return The KeyEventRecorder, or null if the Handler is not recording
+	 */
+	public KeyEventRecorder getRecorder() {
+		return this.recorder;
+	}
+
+	/**
+	 * Get the TextInputBuffer that typed keys go into
+	 * 
+	 * @return The TextInputBuffer, or null if typed keys don't go into one
+	 */
+	public TextInputBuffer getTextInput() {
+		return this.textInput;
+	}
+
+	/**
+	 * Check if the Handler is recording DispatchMetrics
+	 * 
+	 * @return true if metrics are recorded, otherwise false
+	 */
+	public boolean isMetricsEnabled() {
+		return this.engine.isMetricsEnabled();
+	}
+
+	/**
+	 * Check and see if a key was pressed during this frame. This is the same as
+	 * {@link #wasJustPressed(int)}.
+	 * 
+	 * @param index The key you want to check
+	 * @return true if the key was pressed since the last frame, otherwise false
+	 */
+	public boolean isKeyPressedThisFrame(int index) {
+		return this.wasJustPressed(index);
+	}
+
+	/**
+	 * Check and see if a key was released during this frame. This is the same as
+	 * {@link #wasJustReleased(int)}.
+	 * 
+	 * @param index The key you want to check
+	 * @return true if the key was released since the last frame, otherwise false
+	 */
+	public boolean isKeyReleasedThisFrame(int index) {
+		return this.wasJustReleased(index);
 	}
 
 	/**
@@ -172,21 +785,418 @@ public class SimpleKeyHandler extends SimpleKeyEvent {
 		this.overrideEscape = overrideEscape;
 	}
 
+	/**
+	 * Execute the Actions and Listeners on their own Thread instead of the
+	 * sketch's Thread.<br>
+	 * <br>
+	 * This way a slow Listener (Like one that saves a file) won't freeze your
+	 * sketch. Every Listener still gets the Events in the order they happened. If
+	 * the Listeners fall behind by more than the capacity the policy decides what
+	 * happens.<br>
+	 * <br>
+	 * NOTICE: Your Listeners will no longer run on the sketch's Thread, so be
+	 * careful what you change from inside of them.
+	 * 
+	 * @param capacity The most Events that can be waiting to be dispatched
+	 * @param policy   What to do when the Events don't fit
+	 */
+	public void enableAsyncDispatch(int capacity, BackpressurePolicy policy) {
+		this.engine.enableAsyncDispatch(capacity, policy);
+	}
+
+	/**
+	 * Go back to executing the Actions and Listeners on the sketch's Thread. Any
+	 * Events still waiting are dispatched first.
+	 */
+	public void disableAsyncDispatch() {
+		this.engine.disableAsyncDispatch();
+	}
+
+	/**
+	 * Check if the Actions and Listeners are executed on their own Thread
+	 * 
+	 * @return true if dispatching is async, otherwise false
+	 */
+	public boolean isAsyncDispatch() {
+		return this.engine.isAsyncDispatch();
+	}
+
+	/**
+	 * Get the amount of Events that were dropped because the Listeners fell behind
+	 * while dispatching is async
+	 * 
+	 * @return The amount of dropped Events, or 0 if dispatching is not async
+	 */
+	public long getDroppedEventCount() {
+		return this.engine.getDroppedEventCount();
+	}
+
+	/**
+	 * Give each Event a time budget, see
+	 * {@link SimpleKeyEngine#setDispatchBudget(long)}
+	 * 
+	 * @param nanos The budget in nanoseconds, or 0 for no budget
+	 */
+	public void setDispatchBudget(long nanos) {
+		this.engine.setDispatchBudget(nanos);
+	}
+
+	/**
+	 * Remove All the Actions that are bound to the Handler
+	 */
+	public void unbindAll() {
+		this.engine.unbindAll();
+	}
+
+	/**
+	 * Remove an Action from a KeyChord so it won't be executed
+	 * 
+	 * @param chord  The KeyChord the Action was bound to
+	 * @param action The Action that you want to remove from the Handler
+	 */
+	public void unbind(KeyChord chord, KeyAction action) {
+		this.engine.unbind(chord, action);
+	}
+
+	/**
+	 * Remove every Action from a KeyChord so they won't be executed
+	 * 
+	 * @param chord The KeyChord the Actions were bound to
+	 */
+	public void unbind(KeyChord chord) {
+		this.engine.unbind(chord, null);
+	}
+
+	/**
+	 * Remove an Action from a KeySequence so it won't be executed
+	 * 
+	 * @param sequence The KeySequence the Action was bound to
+	 * @param action   The Action to remove
+	 */
+	public void unbindSequence(KeySequence sequence, KeyAction action) {
+		this.engine.unbindSequence(sequence, action);
+	}
+
+	/**
+	 * Remove every Action from a KeySequence so they won't be executed
+	 * 
+	 * @param sequence The KeySequence the Actions were bound to
+	 */
+	public void unbindSequence(KeySequence sequence) {
+		this.engine.unbindSequence(sequence, null);
+	}
+
+	/**
+	 * Take the focus away from every KeyFocusNode
+	 */
+	public synchronized void clearFocus() {
+		this.focusStack = NO_FOCUS;
+	}
+
+	/**
+	 * Take the focus away from the focused KeyFocusNode and give it back to the
+	 * node that had it before
+	 * 
+	 * @return The node that lost the focus, or null if nothing had the focus
+	 */
+	public synchronized KeyFocusNode popFocus() {
+		final KeyFocusNode[] focusStack = this.focusStack;
+		if (focusStack.length == 0) return null;
+		this.focusStack = Arrays.copyOf(focusStack, focusStack.length - 1);
+		return focusStack[focusStack.length - 1];
+	}
+
+	/**
+	 * Give the focus to a KeyFocusNode. The node that had the focus gets it back
+	 * when this one is {@link #popFocus() popped}, like when a dialog is closed.
+	 * 
+	 * @param node The node to focus
+	 */
+	public synchronized void pushFocus(KeyFocusNode node) {
+		if (node == null) throw new NullPointerException("The node can not be null");
+		final KeyFocusNode[] focusStack = Arrays.copyOf(this.focusStack, this.focusStack.length + 1);
+		focusStack[focusStack.length - 1] = node;
+		this.focusStack = focusStack;
+	}
+
+	/**
+	 * Remove a KeyFocusNode from anywhere in the focus stack, like when the
+	 * widget is removed from the sketch
+	 * 
+	 * @param node The node to remove
+	 */
+	public synchronized void removeFocus(KeyFocusNode node) {
+		final KeyFocusNode[] focusStack = this.focusStack;
+		int size = 0;
+		final KeyFocusNode[] kept = new KeyFocusNode[focusStack.length];
+		for (KeyFocusNode focused : focusStack) if (focused != node) kept[size++] = focused;
+		if (size != focusStack.length) this.focusStack = size == 0 ? NO_FOCUS : Arrays.copyOf(kept, size);
+	}
+
+	/**
+	 * Stop using the Handler, like when its window is closed. It stops getting
+	 * Events from its sources and is removed from its engine.
+	 */
+	public void dispose() {
+		for (ListenerRegistry.Entry<KeyInputSource> entry : this.sources.snapshot())
+			this.removeInputSource(entry.listener);
+		this.engine.detach(this);
+	}
+
+	/**
+	 * Release every key being held down.<br>
+	 * <br>
+	 * Unlike {@link #clear()} this sends a release Event for each key through
+	 * the Actions and Listeners, so anything that started on a key press (Like
+	 * walking) is told to stop. This is done for you when a key is stuck.
+	 */
+	public void releaseHeldKeys() {
+		synchronized (this.engine.getEventLock()) {
+			// Anything the RepeatFilter held back goes first so the releases come last
+			this.repeats.flush();
+			final long millis = System.currentTimeMillis(), received = System.nanoTime();
+			for (int keyCode : this.getKeyState().keys()) {
+				this.engine.handle(this, KeyEvent.RELEASE, keyCode, (char) PConstants.CODED, millis, received);
+			}
+			this.watchdog.reset();
+		}
+	}
+
+	/**
+	 * Stop updating an InputMap
+	 * 
+	 * @param map The InputMap
+	 */
+	public void removeInputMap(final InputMap map) {
+		this.inputMaps.remove(map);
+	}
+
+	/**
+	 * Stop getting Events from a source
+	 * 
+	 * @param source The KeyInputSource to stop getting Events from
+	 */
+	public void removeInputSource(final KeyInputSource source) {
+		if (this.sources.remove(source)) source.detach(this);
+	}
+
 	/**
 	 * Remove All the Listeners that are in the Handler's List
 	 */
 	public void removeAllListeners() {
-		this.listeners.clear();
+		this.engine.removeAllListeners();
+		this.repeatListeners.clear();
+		this.frameListeners.clear();
+	}
+
+	/**
+	 * Remove a Frame Listener from the List so it won't be executed
+	 * 
+	 * @param kfl The SimpleKeyFrameListener that you want to remove from the
+	 *            Handler
+	 */
+	public void removeFrameListener(final SimpleKeyFrameListener kfl) {
+		this.frameListeners.remove(kfl);
 	}
 
 	/**
-	 * Remove a listener from the List so it won't be executed
+	 * Remove a Repeat Listener from the List so it won't be executed
+	 * 
+	 * @param krl The SimpleKeyRepeatListener that you want to remove from the
+	 *            Handler
+	 */
+	public void removeRepeatListener(final SimpleKeyRepeatListener krl) {
+		this.repeatListeners.remove(krl);
+	}
+
+	/**
+	 * Remove a listener from the List so it won't be executed<br>
+	 * <br>
+	 * It is safe to remove a Listener from inside of another Listener (even
+	 * itself), it will not be executed again even for the current Event.
 	 * 
 	 * @param kel The SimpleKeyListener that you want to remove from the Handler
 	 */
 	public void removeListener(final SimpleKeyListener kel) {
-		if (this.listeners.contains(kel))
-			this.listeners.remove(kel);
+		this.engine.removeListener(kel);
+	}
+
+	/**
+	 * Remove a handler of pressed keys from the Handler
+	 * 
+	 * @param handler The KeyPressHandler that you want to remove
+	 */
+	public void removePressHandler(final KeyPressHandler handler) {
+		this.engine.removePressHandler(handler);
+	}
+
+	/**
+	 * Remove a handler of released keys from the Handler
+	 * 
+	 * @param handler The KeyReleaseHandler that you want to remove
+	 */
+	public void removeReleaseHandler(final KeyReleaseHandler handler) {
+		this.engine.removeReleaseHandler(handler);
+	}
+
+	/**
+	 * Remove a handler of typed keys from the Handler
+	 * 
+	 * @param handler The KeyTypeHandler that you want to remove
+	 */
+	public void removeTypeHandler(final KeyTypeHandler handler) {
+		this.engine.removeTypeHandler(handler);
+	}
+
+	/**
+	 * Batch the Events by frame instead of handling them right away.<br>
+	 * <br>
+	 * While batching, the keys are not registered and the Listeners are not
+	 * executed until the start of the next frame (Right before draw() is
+	 * executed). This way the keys never change in the middle of a frame and you
+	 * can use the Frame Listeners to handle a whole frame of Events at once.<br>
+	 * <br>
+	 * Default is false
+	 * 
+	 * @param frameBatched true to batch Events by frame, otherwise false
+	 */
+	public void setFrameBatched(boolean frameBatched) {
+		synchronized (this.frameLock) {
+			if (this.frameBatched == frameBatched) return;
+			this.frameBatched = frameBatched;
+		}
+		// Handle anything still waiting so no Events are lost
+		if (!frameBatched && this.handleFrame()) {
+			this.nextFrame();
+			this.dispatchFrame();
+		}
+	}
+
+	/**
+	 * Check and see if a key was just pressed.<br>
+	 * <br>
+	 * This is true for the whole frame after the key was pressed (Repeats do not
+	 * count), so you don't have to remember if it was held yourself. A key that
+	 * was pressed and released between two frames counts as both just pressed and
+	 * just released.
+	 * 
+	 * @param index The key you want to check
+	 * @return true if the key was pressed since the last frame, otherwise false
+	 */
+	public boolean wasJustPressed(int index) {
+		return this.pressedThisFrame.get(index);
+	}
+
+	/**
+	 * Check and see if a key was just released.<br>
+	 * <br>
+	 * This is true for the whole frame after the key was released.
+	 * 
+	 * @param index The key you want to check
+	 * @return true if the key was released since the last frame, otherwise false
+	 */
+	public boolean wasJustReleased(int index) {
+		return this.releasedThisFrame.get(index);
+	}
+
+	/**
+	 * Write every Event that comes into the Handler to a Recorder so it can be
+	 * played back later with a {@link KeyEventReplayer}. Setting a new Recorder (or
+	 * null to stop recording) closes the old one.
+	 * 
+	 * @param recorder The KeyEventRecorder, or null to stop recording
+	 */
+	public synchronized void setRecorder(KeyEventRecorder recorder) {
+		final KeyEventRecorder old = this.recorder;
+		this.recorder = recorder;
+		if (old == null || old == recorder) return;
+		try {
+			old.close();
+		} catch (IOException e) {
+			System.err.println("Could not close the old KeyEventRecorder.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Use a KeyMap to decide which keys run the named actions, see
+	 * {@link SimpleKeyEngine#setKeyMap(KeyMap)}
+	 * 
+	 * @param keyMap The KeyMap, or null to stop using one
+	 */
+	public void setKeyMap(KeyMap keyMap) {
+		this.engine.setKeyMap(keyMap);
+	}
+
+	/**
+	 * Send every typed key into a TextInputBuffer before the Listeners are told
+	 * about it, so none of them are lost.
+	 * 
+	 * @param textInput The TextInputBuffer, or null to stop
+	 */
+	public void setTextInput(TextInputBuffer textInput) {
+		this.textInput = textInput;
+	}
+
+	/**
+	 * Decide what happens to the Events made by the computer repeating a key that
+	 * is held down.<br>
+	 * <br>
+	 * While this is not DELIVER, a key release is held back until the next Event
+	 * or frame, since some computers repeat a key by releasing and pressing it
+	 * again. If neither comes within the repeat window, the release is sent
+	 * from the Thread of the RepeatFilter once the window has passed.<br>
+	 * <br>
+	 * Default is DELIVER
+	 * 
+	 * @param policy The RepeatPolicy
+	 */
+	public void setRepeatPolicy(RepeatPolicy policy) {
+		this.repeats.setPolicy(policy, RepeatFilter.DEFAULT_WINDOW);
+	}
+
+	/**
+	 * Decide what happens to the Events made by the computer repeating a key that
+	 * is held down, see {@link #setRepeatPolicy(RepeatPolicy)}.
+	 * 
+	 * @param policy       The RepeatPolicy
+	 * @param windowMillis The most milliseconds a release and press of the same key
+	 *                     can be apart and still be a repeat
+	 */
+	public void setRepeatPolicy(RepeatPolicy policy, long windowMillis) {
+		this.repeats.setPolicy(policy, windowMillis);
+	}
+
+	/**
+	 * Release every key if the last key pressed is still held but the computer
+	 * stopped repeating it for this long, since its release must have been
+	 * missed.<br>
+	 * <br>
+	 * The computer only repeats the last key pressed, so only that key is
+	 * checked and never a modifier. The timeout has to be longer than the delay
+	 * before the computer starts repeating a key (Up to 1000 milliseconds on
+	 * some computers), and should not be used if the sketch turns off key
+	 * repeating. Losing the focus of the sketch always releases every key, this
+	 * is only needed when that is not seen.<br>
+	 * <br>
+	 * Default is 0 (Not checked)
+	 * 
+	 * @param millis The time in milliseconds, or 0 to not check it
+	 */
+	public void setStaleKeyTimeout(long millis) {
+		this.watchdog.setTimeout(millis);
+	}
+
+	/**
+	 * Record how long the Actions and Listeners take into the
+	 * {@link #getMetrics() DispatchMetrics}.<br>
+	 * <br>
+	 * Default is false
+	 * 
+	 * @param metricsEnabled true to record metrics, otherwise false
+	 */
+	public void setMetricsEnabled(boolean metricsEnabled) {
+		this.engine.setMetricsEnabled(metricsEnabled);
 	}
 
 	/**
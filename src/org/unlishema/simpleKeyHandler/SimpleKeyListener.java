@@ -8,6 +8,11 @@ package org.unlishema.simpleKeyHandler;
  * typed all Listeners onKeyTyped method is executed, so make sure you take this
  * into account when creating your Listeners.<br>
  * <br>
+ * The SimpleKeyEvent sent to a Listener is a snapshot of the Handler at the
+ * moment the key was pressed, released or typed, so it will not change while
+ * you are using it. It is recycled once every Listener is done with it though,
+ * so use {@link SimpleKeyEvent#copy()} if you want to keep it.<br>
+ * <br>
  * You can either create the Listeners as needed since sketches doesn't have to
  * have Objects to run, you can use Java's default feature of implementation, or
  * you can get keys on the Fly.<br>
@@ -119,16 +124,23 @@ package org.unlishema.simpleKeyHandler;
  * }
  * </pre>
  * 
+ * A Listener is just a {@link KeyPressHandler}, {@link KeyReleaseHandler} and
+ * {@link KeyTypeHandler} in one. If you only need one of them you can add a
+ * lambda with addPressHandler(), addReleaseHandler() or addTypeHandler()
+ * instead.<br>
+ * <br>
+ * 
  * @author Unlishema
  */
 
-public interface SimpleKeyListener {
+public interface SimpleKeyListener extends KeyPressHandler, KeyReleaseHandler, KeyTypeHandler {
 	/**
 	 * A function for you to do when a key is pressed. A copy of SimpleKeyEvent is
 	 * sent so you can access the system.
 	 * 
 	 * @param event An Event to access and determine what keys are pressed.
 	 */
+	@Override
 	public void onKeyPressed(final SimpleKeyEvent event);
 
 	/**
@@ -137,6 +149,7 @@ public interface SimpleKeyListener {
 	 * 
 	 * @param event An Event to access and determine what keys are released.
 	 */
+	@Override
 	public void onKeyReleased(final SimpleKeyEvent event);
 
 	/**
@@ -145,5 +158,6 @@ public interface SimpleKeyListener {
 	 * 
 	 * @param event An Event to access and determine what keys are typed.
 	 */
+	@Override
 	public void onKeyTyped(final SimpleKeyEvent event);
 }
@@ -0,0 +1,38 @@
+package org.unlishema.simpleKeyHandler;
+
+/**
+ * This is a SimpleKeyRepeatListener to be used with SimpleKeyHandler when it is
+ * coalescing repeats (See
+ * {@link SimpleKeyHandler#setRepeatPolicy(SimpleKeyHandler.RepeatPolicy)}).<br>
+ * <br>
+ * When a key is held down the computer keeps pressing it over and over. Instead
+ * of every Listener getting onKeyPressed for each of those, this is executed
+ * once per frame (And once more right before the key is released) with how many
+ * times the key repeated.<br>
+ * <br>
+ * 
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ * 
+ * void setup() {
+ * 	skh.setRepeatPolicy(SimpleKeyHandler.RepeatPolicy.COALESCE);
+ * 	skh.addRepeatListener(new SimpleKeyRepeatListener() {
+ * 		void onKeyRepeat(final SimpleKeyHandler handler, final int keyCode, final int count) {
+ * 			if (keyCode == DOWN) scroll(count);
+ * 		}
+ * 	});
+ * }
+ * </pre>
+ * 
+ * @author Unlishema
+ */
+public interface SimpleKeyRepeatListener {
+	/**
+	 * A function for you to do when a held key has repeated.
+	 * 
+	 * @param handler The Handler the key is held in
+	 * @param keyCode keyCode of the key that repeated
+	 * @param count   The amount of times it repeated since the last time
+	 */
+	public void onKeyRepeat(final SimpleKeyHandler handler, final int keyCode, final int count);
+}
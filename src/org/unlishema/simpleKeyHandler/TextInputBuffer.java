@@ -0,0 +1,283 @@
+package org.unlishema.simpleKeyHandler;
+
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ControlKey;
+
+import processing.core.PConstants;
+
+/**
+ * A TextInputBuffer holds the text that has been typed into a Handler.<br>
+ * <br>
+ * Give one to a Handler with {@link SimpleKeyHandler#setTextInput(TextInputBuffer)}
+ * and every typed key goes into it before the Listeners are told about it, so
+ * no character is lost even if many keys are typed before you read them. The
+ * {@link ControlKey}s edit the text instead of being added:<br>
+ * <br>
+ *
+ * <pre>
+	&#183; BACKSPACE	: Remove the character before the caret
+	&#183; DELETE	: Remove the character after the caret
+	&#183; ENTER/RETURN	: Add a new line, or nothing if the buffer is not multiline
+	&#183; ESCAPE	: Nothing
+ * </pre>
+ *
+ * The text is kept in a ring of characters that only grows when it is full, so
+ * typing and {@link #drainTo(StringBuilder) draining} the text never makes any
+ * garbage. The buffer is a CharSequence, so it can be given straight to
+ * text(), a StringBuilder or a regular expression without turning it into a
+ * String first.<br>
+ * <br>
+ *
+ * <pre style="color: #000;background-color: #D6D6D6;padding: 2px;">
+ * final SimpleKeyHandler skh = new SimpleKeyHandler(this);
+ * final TextInputBuffer name = new TextInputBuffer();
+ *
+ * void setup() {
+ * 	skh.setTextInput(name);
+ * }
+ *
+ * void draw() {
+ * 	background(0);
+ * 	text(name.toString(), 10, 20);
+ * }
+ * </pre>
+ *
+ * @author Unlishema
+ *
+ */
+public final class TextInputBuffer implements CharSequence {
+	private static final int DEFAULT_CAPACITY = 64;
+
+	// Private Variables
+	private char[] chars;
+	private int mask;
+	private int head = 0;
+	private int length = 0;
+	private int caret = 0;
+	private boolean multiline = true;
+
+	/**
+	 * Create a buffer that has room for 64 characters before it has to grow
+	 */
+	public TextInputBuffer() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a buffer
+	 *
+	 * @param capacity The amount of characters it has room for before it has to
+	 *                 grow
+	 */
+	public TextInputBuffer(int capacity) {
+		if (capacity < 1) throw new IllegalArgumentException("The capacity must be at least 1");
+		int size = 1;
+		while (size < capacity) size <<= 1;
+		this.chars = new char[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Get a character of the text
+	 *
+	 * @param index The index of the character
+	 * @return The character
+	 */
+	@Override
+	public synchronized char charAt(int index) {
+		if (index < 0 || index >= this.length) throw new IndexOutOfBoundsException("Index: " + index);
+		return this.chars[(this.head + index) & this.mask];
+	}
+
+	/**
+	 * Remove All the text
+	 */
+	public synchronized void clear() {
+		this.head = 0;
+		this.length = 0;
+		this.caret = 0;
+	}
+
+	/**
+	 * Move the text into an array and remove it from the buffer. If the array is
+	 * too small then only the start of the text is moved.
+	 *
+	 * @param dst    The array to move the text into
+	 * @param offset Where in the array to start
+	 * @return The amount of characters moved
+	 */
+	public synchronized int drainTo(char[] dst, int offset) {
+		final int count = Math.min(this.length, dst.length - offset);
+		if (count <= 0) return 0;
+		final int first = Math.min(count, this.chars.length - this.head);
+		System.arraycopy(this.chars, this.head, dst, offset, first);
+		System.arraycopy(this.chars, 0, dst, offset + first, count - first);
+		this.remove(count);
+		return count;
+	}
+
+	/**
+	 * Move All the text onto the end of a StringBuilder and remove it from the
+	 * buffer
+	 *
+	 * @param dst The StringBuilder to add the text to
+	 * @return The amount of characters moved
+	 */
+	public synchronized int drainTo(StringBuilder dst) {
+		final int count = this.length;
+		final int first = Math.min(count, this.chars.length - this.head);
+		dst.append(this.chars, this.head, first);
+		dst.append(this.chars, 0, count - first);
+		this.remove(count);
+		return count;
+	}
+
+	/**
+	 * Get where the caret is. 0 is before the first character and
+	 * {@link #length()} is after the last one.
+	 *
+	 * @return The index of the caret
+	 */
+	public synchronized int getCaret() {
+		return this.caret;
+	}
+
+	/**
+	 * Check if ENTER and RETURN add a new line
+	 *
+	 * @return true if new lines are added, otherwise false
+	 */
+	public synchronized boolean isMultiline() {
+		return this.multiline;
+	}
+
+	/**
+	 * Get the amount of characters in the text
+	 *
+	 * @return The length of the text
+	 */
+	@Override
+	public synchronized int length() {
+		return this.length;
+	}
+
+	/**
+	 * Move the caret. It stays inside of the text.
+	 *
+	 * @param caret The new index of the caret
+	 */
+	public synchronized void setCaret(int caret) {
+		this.caret = Math.max(0, Math.min(this.length, caret));
+	}
+
+	/**
+	 * Set if ENTER and RETURN add a new line. When they don't they are left for
+	 * the Listeners to use (Like to submit the text).
+	 *
+	 * @param multiline true to add new lines, otherwise false
+	 */
+	public synchronized void setMultiline(boolean multiline) {
+		this.multiline = multiline;
+	}
+
+	/**
+	 * Get part of the text as a String
+	 *
+	 * @param start The index of the first character
+	 * @param end   The index after the last character
+	 * @return The part of the text
+	 */
+	@Override
+	public synchronized CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > this.length || start > end)
+			throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + this.length);
+		final char[] copy = new char[end - start];
+		for (int i = start; i < end; i++) copy[i - start] = this.chars[(this.head + i) & this.mask];
+		return new String(copy);
+	}
+
+	/**
+	 * Get the text as a String
+	 *
+	 * @return The text
+	 */
+	@Override
+	public synchronized String toString() {
+		return this.subSequence(0, this.length).toString();
+	}
+
+	/**
+	 * Type a key into the buffer at the caret, the same way a typed key from the
+	 * Handler is
+	 *
+	 * @param key The key that was typed
+	 */
+	public synchronized void type(char key) {
+		switch (key) {
+			case PConstants.BACKSPACE:
+				if (this.caret > 0) this.removeAt(--this.caret);
+				break;
+			case PConstants.DELETE:
+				if (this.caret < this.length) this.removeAt(this.caret);
+				break;
+			case PConstants.ENTER:
+			case PConstants.RETURN:
+				if (this.multiline) this.insert('\n');
+				break;
+			case PConstants.TAB:
+				this.insert(key);
+				break;
+			default:
+				// Ignore the other control characters (Like CTRL+C) and keys with no character
+				if (key >= ' ' && key != PConstants.CODED) this.insert(key);
+				break;
+		}
+	}
+
+	/**
+	 * Add a character at the caret and move the caret past it
+	 */
+	private void insert(char c) {
+		if (this.length == this.chars.length) this.grow();
+		for (int i = this.length; i > this.caret; i--)
+			this.chars[(this.head + i) & this.mask] = this.chars[(this.head + i - 1) & this.mask];
+		this.chars[(this.head + this.caret) & this.mask] = c;
+		this.length++;
+		this.caret++;
+	}
+
+	/**
+	 * Remove a character without moving the caret
+	 */
+	private void removeAt(int index) {
+		// Removing from the front only has to move the head
+		if (index == 0) {
+			this.remove(1);
+			return;
+		}
+		for (int i = index; i < this.length - 1; i++)
+			this.chars[(this.head + i) & this.mask] = this.chars[(this.head + i + 1) & this.mask];
+		this.length--;
+	}
+
+	/**
+	 * Remove characters from the front of the text
+	 */
+	private void remove(int count) {
+		this.head = (this.head + count) & this.mask;
+		this.length -= count;
+		this.caret = Math.max(0, this.caret - count);
+	}
+
+	/**
+	 * Double the room in the ring
+	 */
+	private void grow() {
+		final char[] chars = new char[this.chars.length << 1];
+		final int first = this.chars.length - this.head;
+		System.arraycopy(this.chars, this.head, chars, 0, first);
+		System.arraycopy(this.chars, 0, chars, first, this.head);
+		this.chars = chars;
+		this.mask = chars.length - 1;
+		this.head = 0;
+	}
+}
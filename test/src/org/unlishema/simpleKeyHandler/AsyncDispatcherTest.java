@@ -0,0 +1,161 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+import org.unlishema.simpleKeyHandler.SimpleKeyHandler.BackpressurePolicy;
+
+/**
+ * Tests for sending Events on the {@link AsyncDispatcher} Thread
+ *
+ * @author Unlishema
+ *
+ */
+public class AsyncDispatcherTest {
+	@Test(timeout = 10000)
+	public void blockKeepsEveryEventInOrder() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		final List<Integer> pressed = Collections.synchronizedList(new ArrayList<Integer>());
+		handler.addPressHandler(event -> {
+			pressed.add(event.getKeyCode());
+			Thread.yield();
+		});
+		handler.enableAsyncDispatch(2, BackpressurePolicy.BLOCK);
+		final List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 500; i++) {
+			final int key = 'A' + i % 26;
+			source.tap(key);
+			expected.add(key);
+		}
+		handler.disableAsyncDispatch();
+		assertEquals(expected, pressed);
+		assertEquals(0L, handler.getDroppedEventCount());
+	}
+
+	@Test(timeout = 10000)
+	public void blockDoesNotDeadlockWhenAListenerTakesTheLock() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		final int[] calls = new int[1];
+		handler.addPressHandler(event -> {
+			// Give the sketch time to fill the buffer and wait for room
+			if (calls[0]++ == 0) sleep(50L);
+			handler.setRepeatPolicy(SimpleKeyHandler.RepeatPolicy.DELIVER);
+			handler.clear();
+		});
+		handler.enableAsyncDispatch(1, BackpressurePolicy.BLOCK);
+		for (int i = 0; i < 50; i++) source.tap('A' + i % 26);
+		handler.disableAsyncDispatch();
+		assertEquals(50, calls[0]);
+	}
+
+	@Test(timeout = 10000)
+	public void listenerCanSendEventsIntoAFullBuffer() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		final int[] calls = new int[1];
+		handler.addPressHandler(event -> {
+			calls[0]++;
+			// Releasing every held key from the dispatcher Thread must not wait on itself
+			if (event.getKeyCode() == 'Z') handler.releaseHeldKeys();
+		});
+		handler.enableAsyncDispatch(1, BackpressurePolicy.BLOCK);
+		for (int i = 0; i < 20; i++) source.press('A' + i);
+		source.press('Z');
+		handler.disableAsyncDispatch();
+		assertEquals(21, calls[0]);
+		assertEquals(0, handler.getKeyState().count());
+	}
+
+	@Test
+	public void dropOldestCountsDroppedEvents() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		handler.addPressHandler(event -> sleep(20L));
+		handler.enableAsyncDispatch(2, BackpressurePolicy.DROP_OLDEST);
+		for (int i = 0; i < 10; i++) source.press('A' + i);
+		assertTrue(handler.getDroppedEventCount() > 0);
+		handler.disableAsyncDispatch();
+	}
+
+	@Test
+	public void enablingAgainReusesTheSnapshots() {
+		final SimpleKeyEngine engine = new SimpleKeyEngine();
+		final KeyEventSnapshot.Pool pool = new KeyEventSnapshot.Pool();
+		synchronized (engine.getEventLock()) {
+			for (int i = 0; i < 10; i++) new AsyncDispatcher(engine, pool, 4, BackpressurePolicy.BLOCK, null).shutdown();
+			assertEquals(5, pool.made());
+			new AsyncDispatcher(engine, pool, 8, BackpressurePolicy.BLOCK, null).shutdown();
+		}
+		assertEquals(9, pool.made());
+	}
+
+	@Test(timeout = 10000)
+	public void disablingWhileEventsWaitKeepsThemInOrder() throws InterruptedException {
+		this.switchWhileSending(handler -> handler.disableAsyncDispatch());
+	}
+
+	@Test(timeout = 10000)
+	public void enablingAgainWhileEventsWaitKeepsThemInOrder() throws InterruptedException {
+		this.switchWhileSending(handler -> {
+			for (int i = 0; i < 5; i++) {
+				handler.enableAsyncDispatch(4, BackpressurePolicy.BLOCK);
+				sleep(2L);
+			}
+			handler.disableAsyncDispatch();
+		});
+	}
+
+	/**
+	 * Send Events while another Thread changes how they are dispatched, and
+	 * check they still come one at a time and in order
+	 */
+	private void switchWhileSending(final Consumer<SimpleKeyHandler> change) throws InterruptedException {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		final List<Integer> pressed = Collections.synchronizedList(new ArrayList<Integer>());
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicBoolean overlapped = new AtomicBoolean();
+		handler.addPressHandler(event -> {
+			if (running.incrementAndGet() > 1) overlapped.set(true);
+			pressed.add(event.getKeyCode());
+			sleep(1L);
+			running.decrementAndGet();
+		});
+		handler.enableAsyncDispatch(64, BackpressurePolicy.BLOCK);
+		final Thread changer = new Thread(() -> {
+			sleep(5L);
+			change.accept(handler);
+		});
+		changer.start();
+		final List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 200; i++) {
+			final int key = 'A' + i % 26;
+			source.tap(key);
+			expected.add(key);
+		}
+		changer.join();
+		handler.disableAsyncDispatch();
+		assertFalse(overlapped.get());
+		assertEquals(expected, pressed);
+		assertFalse(handler.isAsyncDispatch());
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
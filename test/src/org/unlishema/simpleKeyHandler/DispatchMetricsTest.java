@@ -0,0 +1,130 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import processing.event.KeyEvent;
+
+/**
+ * Tests for the DispatchMetrics of a Handler
+ *
+ * @author Unlishema
+ *
+ */
+public class DispatchMetricsTest {
+	private HeadlessKeySource source;
+	private SimpleKeyHandler handler;
+	private DispatchMetrics metrics;
+
+	@Before
+	public void setUp() {
+		this.source = new HeadlessKeySource(0L);
+		this.handler = new SimpleKeyHandler(this.source);
+		this.handler.setMetricsEnabled(true);
+		this.metrics = this.handler.getMetrics();
+	}
+
+	@Test
+	public void countsTheEventsOfEachAction() {
+		this.source.tap('A');
+		this.source.type('a');
+		assertEquals(1, this.metrics.getEventCount(KeyEvent.PRESS));
+		assertEquals(1, this.metrics.getEventCount(KeyEvent.RELEASE));
+		assertEquals(1, this.metrics.getEventCount(KeyEvent.TYPE));
+		assertEquals(3, this.metrics.getDispatchTime().getCount());
+	}
+
+	@Test
+	public void latencyIsFromWhenTheEventWasReceived() throws InterruptedException {
+		// The clock of the source never moves, so its millis can not be used
+		this.handler.setFrameBatched(true);
+		this.source.press('A');
+		Thread.sleep(20);
+		this.source.frame();
+		assertEquals(1, this.metrics.getEventLatency().getCount());
+		assertTrue(this.metrics.getEventLatency().getMax() >= TimeUnit.MILLISECONDS.toNanos(20));
+		assertTrue(this.metrics.getEventLatency().getMax() < TimeUnit.SECONDS.toNanos(10));
+	}
+
+	@Test
+	public void slowestListenersIncludeTheFocusNodes() {
+		final KeyPressHandler fast = new KeyPressHandler() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+			}
+		};
+		final KeyPressHandler slow = new KeyPressHandler() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		final KeyFocusNode node = new KeyFocusNode();
+		node.addPressHandler(slow);
+		this.handler.pushFocus(node);
+		this.handler.addPressHandler(fast);
+		this.source.press('A');
+		final List<DispatchMetrics.ListenerTiming> timings = this.metrics.getSlowestListeners(10);
+		assertEquals(2, timings.size());
+		assertSame(slow, timings.get(0).listener);
+		assertSame(fast, timings.get(1).listener);
+	}
+
+	@Test
+	public void removedListenersAreForgotten() {
+		final KeyFocusNode node = new KeyFocusNode();
+		final KeyPressHandler press = new KeyPressHandler() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+			}
+		};
+		node.addPressHandler(press);
+		this.handler.pushFocus(node);
+		this.source.press('A');
+		assertEquals(1, this.metrics.getSlowestListeners(10).size());
+		node.removePressHandler(press);
+		assertEquals(0, this.metrics.getSlowestListeners(10).size());
+	}
+
+	@Test
+	public void resetForgetsEverything() {
+		this.handler.addPressHandler(new KeyPressHandler() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+			}
+		});
+		this.source.press('A');
+		this.metrics.reset();
+		assertEquals(0, this.metrics.getEventCount(KeyEvent.PRESS));
+		assertEquals(0, this.metrics.getEventLatency().getCount());
+		assertEquals(0, this.metrics.getSlowestListeners(10).size());
+	}
+
+	@Test
+	public void listenerTimesFromManyThreadsAllCount() throws InterruptedException {
+		final DispatchMetrics.ListenerStats stats = new DispatchMetrics.ListenerStats();
+		final Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			final long nanos = i + 1;
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 10000; j++) stats.record(nanos);
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) thread.join();
+		assertEquals(40000, stats.calls.sum());
+		assertEquals(100000, stats.totalNanos.sum());
+		assertEquals(4, stats.maxNanos.get());
+	}
+}
@@ -0,0 +1,73 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for batching the Events by frame
+ *
+ * @author Unlishema
+ *
+ */
+public class FrameBatchTest {
+	private HeadlessKeySource source;
+	private SimpleKeyHandler handler;
+	private int frames;
+
+	@Before
+	public void setUp() {
+		this.source = new HeadlessKeySource(0L);
+		this.handler = new SimpleKeyHandler(this.source);
+		this.handler.setFrameBatched(true);
+		this.frames = 0;
+		this.handler.addFrameListener(new SimpleKeyFrameListener() {
+			@Override
+			public void onKeyFrame(SimpleKeyHandler handler) {
+				FrameBatchTest.this.frames++;
+			}
+		});
+	}
+
+	@Test
+	public void keysChangeOnlyAtTheNextFrame() {
+		this.source.press('A');
+		assertFalse(this.handler.isKeyPressed('A'));
+		this.source.frame();
+		assertTrue(this.handler.isKeyPressed('A'));
+		assertTrue(this.handler.isKeyPressedThisFrame('A'));
+		this.source.frame();
+		assertTrue(this.handler.isKeyPressed('A'));
+		assertFalse(this.handler.isKeyPressedThisFrame('A'));
+	}
+
+	@Test
+	public void frameListenersRunOnceForEveryFrameWithEvents() {
+		this.source.tap('A');
+		this.source.tap('B');
+		this.source.frame();
+		assertEquals(1, this.frames);
+		this.source.frame();
+		assertEquals(1, this.frames);
+	}
+
+	@Test
+	public void tapInsideOfOneFrameIsSeen() {
+		this.source.tap('A');
+		this.source.frame();
+		assertFalse(this.handler.isKeyPressed('A'));
+		assertTrue(this.handler.isKeyPressedThisFrame('A'));
+		assertTrue(this.handler.isKeyReleasedThisFrame('A'));
+	}
+
+	@Test
+	public void stoppingHandlesTheWaitingEvents() {
+		this.source.press('A');
+		this.handler.setFrameBatched(false);
+		assertTrue(this.handler.isKeyPressed('A'));
+		assertEquals(1, this.frames);
+	}
+}
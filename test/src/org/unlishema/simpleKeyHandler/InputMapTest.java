@@ -0,0 +1,104 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.event.KeyEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+
+/**
+ * Tests for the actions and axes of an {@link InputMap}
+ *
+ * @author Unlishema
+ *
+ */
+public class InputMapTest {
+	private HeadlessKeySource source;
+	private SimpleKeyHandler handler;
+	private final InputMap input = new InputMap();
+	private int moveX, jump, save;
+
+	@Before
+	public void setUp() {
+		this.source = new HeadlessKeySource(0L);
+		this.handler = new SimpleKeyHandler(this.source);
+		this.moveX = this.input.defineAxis("move x", 'A', 'D');
+		this.jump = this.input.defineAction("jump", ' ', 'W');
+		this.save = this.input.defineAction("save", KeyChord.of(ModifierKey.CTRL, 'S'));
+		this.handler.addInputMap(this.input);
+	}
+
+	@Test
+	public void axisFollowsTheKeysAtTheStartOfTheFrame() {
+		this.source.frame();
+		assertEquals(0f, this.input.getAxis(this.moveX), 0f);
+		this.source.press('D');
+		assertEquals(0f, this.input.getAxis(this.moveX), 0f);
+		this.source.frame();
+		assertEquals(1f, this.input.getAxis(this.moveX), 0f);
+		this.source.press('A');
+		this.source.frame();
+		assertEquals(0f, this.input.getAxis(this.moveX), 0f);
+		this.source.release('D');
+		this.source.frame();
+		assertEquals(-1f, this.input.getAxis(this.moveX), 0f);
+	}
+
+	@Test
+	public void actionIsOnWhileAnyKeyIsHeld() {
+		this.source.press('W');
+		this.source.frame();
+		assertTrue(this.input.isAction(this.jump));
+		assertTrue(this.input.isActionJustPressed(this.jump));
+		this.source.press(' ');
+		this.source.release('W');
+		this.source.frame();
+		assertTrue(this.input.isAction(this.jump));
+		assertFalse(this.input.isActionJustPressed(this.jump));
+		this.source.release(' ');
+		this.source.frame();
+		assertFalse(this.input.isAction(this.jump));
+		assertTrue(this.input.isActionJustReleased(this.jump));
+		this.source.frame();
+		assertFalse(this.input.isActionJustReleased(this.jump));
+	}
+
+	@Test
+	public void chordActionNeedsItsModifier() {
+		this.source.press('S');
+		this.source.frame();
+		assertFalse(this.input.isAction(this.save));
+		this.source.release('S');
+		this.source.press(KeyEvent.VK_CONTROL);
+		this.source.press('S');
+		this.source.frame();
+		assertTrue(this.input.isAction(this.save));
+	}
+
+	@Test
+	public void namesLookUpTheIndexes() {
+		assertEquals(this.moveX, this.input.getAxisIndex("move x"));
+		assertEquals(this.jump, this.input.getActionIndex("jump"));
+		assertEquals(-1, this.input.getActionIndex("move x"));
+		assertEquals(-1, this.input.getAxisIndex("nope"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void actionNamesCanNotBeUsedTwice() {
+		this.input.defineAction("jump", 'J');
+	}
+
+	@Test
+	public void removedInputMapsAreNotUpdated() {
+		this.handler.removeInputMap(this.input);
+		this.source.press('D');
+		this.source.frame();
+		assertEquals(0f, this.input.getAxis(this.moveX), 0f);
+		this.input.update(this.handler);
+		assertEquals(1f, this.input.getAxis(this.moveX), 0f);
+	}
+}
@@ -0,0 +1,79 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the keys that were just pressed and just released
+ *
+ * @author Unlishema
+ *
+ */
+public class JustPressedTest {
+	private HeadlessKeySource source;
+	private SimpleKeyHandler handler;
+
+	@Before
+	public void setUp() {
+		this.source = new HeadlessKeySource(0L);
+		this.handler = new SimpleKeyHandler(this.source);
+	}
+
+	@Test
+	public void pressIsSeenForOneFrame() {
+		this.source.press('A');
+		this.source.frame();
+		assertTrue(this.handler.wasJustPressed('A'));
+		assertTrue(this.handler.isKeyPressedThisFrame('A'));
+		this.source.frame();
+		assertFalse(this.handler.wasJustPressed('A'));
+	}
+
+	@Test
+	public void tapBetweenTwoFramesIsSeen() {
+		this.source.frame();
+		this.source.tap('A');
+		this.source.frame();
+		assertTrue(this.handler.wasJustPressed('A'));
+		assertTrue(this.handler.wasJustReleased('A'));
+		assertFalse(this.handler.isKeyPressed('A'));
+	}
+
+	@Test
+	public void repeatIsNotAPress() {
+		this.source.press('A');
+		this.source.frame();
+		this.source.frame();
+		this.source.press('A');
+		this.source.frame();
+		assertFalse(this.handler.wasJustPressed('A'));
+	}
+
+	@Test
+	public void releasingAKeyThatIsNotHeldIsNotARelease() {
+		this.source.release('A');
+		this.source.frame();
+		assertFalse(this.handler.wasJustReleased('A'));
+	}
+
+	@Test
+	public void sameInBothModes() {
+		this.handler.setFrameBatched(true);
+		this.source.tap('A');
+		this.source.frame();
+		assertTrue(this.handler.wasJustPressed('A'));
+		assertTrue(this.handler.isKeyReleasedThisFrame('A'));
+	}
+
+	@Test
+	public void releaseHeldKeysIsARelease() {
+		this.source.press('A');
+		this.source.frame();
+		this.handler.releaseHeldKeys();
+		this.source.frame();
+		assertTrue(this.handler.wasJustReleased('A'));
+	}
+}
@@ -0,0 +1,106 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.event.KeyEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the Actions bound to {@link KeyChord}s
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyBindingsTest {
+	private HeadlessKeySource source;
+	private SimpleKeyHandler handler;
+	private int runs;
+	private final KeyAction count = new KeyAction() {
+		@Override
+		public void onAction(SimpleKeyEvent event) {
+			KeyBindingsTest.this.runs++;
+		}
+	};
+
+	@Before
+	public void setUp() {
+		this.source = new HeadlessKeySource(0L);
+		this.handler = new SimpleKeyHandler(this.source);
+		this.runs = 0;
+	}
+
+	@Test
+	public void runsWhenTheLastKeyOfTheChordIsPressed() {
+		this.handler.bind("CTRL+S", this.count);
+		this.source.press('S');
+		assertEquals(0, this.runs);
+		this.source.release('S');
+		this.source.press(KeyEvent.VK_CONTROL);
+		this.source.press('S');
+		assertEquals(1, this.runs);
+	}
+
+	@Test
+	public void needsExactlyTheModifier() {
+		this.handler.bind("CTRL+S", this.count);
+		this.source.press(KeyEvent.VK_CONTROL);
+		this.source.press(KeyEvent.VK_SHIFT);
+		this.source.tap('S');
+		assertEquals(0, this.runs);
+	}
+
+	@Test
+	public void chordWithoutModifierWorksWithAnyModifier() {
+		this.handler.bind(KeyChord.of('A', 'D'), this.count);
+		this.source.press(KeyEvent.VK_SHIFT);
+		this.source.press('A');
+		this.source.press('D');
+		assertEquals(1, this.runs);
+	}
+
+	@Test
+	public void repeatsDoNotRunTheActionAgain() {
+		this.handler.bind("SPACE", this.count);
+		this.source.press(' ');
+		this.source.press(' ');
+		this.source.press(' ');
+		assertEquals(1, this.runs);
+	}
+
+	@Test
+	public void repeatsRunTheActionWhenAsked() {
+		this.handler.bind(KeyChord.parse("RIGHT"), this.count, true);
+		this.source.press(KeyEvent.VK_RIGHT);
+		this.source.press(KeyEvent.VK_RIGHT);
+		this.source.press(KeyEvent.VK_RIGHT);
+		assertEquals(3, this.runs);
+	}
+
+	@Test
+	public void unbindRemovesOnlyThatAction() {
+		final KeyAction other = new KeyAction() {
+			@Override
+			public void onAction(SimpleKeyEvent event) {
+				KeyBindingsTest.this.runs += 10;
+			}
+		};
+		this.handler.bind("F5", this.count);
+		this.handler.bind("F5", other);
+		this.handler.getEngine().unbind(KeyChord.parse("F5"), other);
+		this.source.tap(KeyEvent.VK_F5);
+		assertEquals(1, this.runs);
+		this.handler.unbindAll();
+		this.source.tap(KeyEvent.VK_F5);
+		assertEquals(1, this.runs);
+	}
+
+	@Test
+	public void modifierOnlyChordRunsOnTheModifiers() {
+		this.handler.bind(KeyChord.of(SimpleKeyEvent.ModifierKey.CTRL_SHIFT), this.count);
+		this.source.press(KeyEvent.VK_CONTROL);
+		this.source.press(KeyEvent.VK_SHIFT);
+		assertEquals(1, this.runs);
+	}
+}
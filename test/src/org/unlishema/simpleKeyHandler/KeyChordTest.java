@@ -0,0 +1,98 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.event.KeyEvent;
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+
+/**
+ * Tests for reading, writing and matching {@link KeyChord}s
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyChordTest {
+	@Test
+	public void parseReadsModifiersAndKeys() {
+		final KeyChord chord = KeyChord.parse("ctrl + shift + S");
+		assertEquals(ModifierKey.CTRL_SHIFT, chord.getModifier());
+		assertArrayEquals(new int[] { 'S' }, chord.getKeys());
+		assertEquals(ModifierKey.NONE, KeyChord.parse("F5").getModifier());
+		assertArrayEquals(new int[] { KeyEvent.VK_F5 }, KeyChord.parse("F5").getKeys());
+		assertArrayEquals(new int[] { KeyEvent.VK_SPACE }, KeyChord.parse("SPACE").getKeys());
+		assertArrayEquals(new int[] { KeyEvent.VK_PAGE_UP }, KeyChord.parse("PAGE_UP").getKeys());
+	}
+
+	@Test
+	public void parseMapsPunctuationToItsKey() {
+		assertArrayEquals(new int[] { KeyEvent.VK_QUOTE }, KeyChord.parse("'").getKeys());
+		assertArrayEquals(new int[] { KeyEvent.VK_BACK_QUOTE }, KeyChord.parse("`").getKeys());
+		assertArrayEquals(new int[] { KeyEvent.VK_OPEN_BRACKET }, KeyChord.parse("CTRL+[").getKeys());
+		assertArrayEquals(new int[] { KeyEvent.VK_BACK_SLASH }, KeyChord.parse("\\").getKeys());
+		assertArrayEquals(new int[] { KeyEvent.VK_SEMICOLON }, KeyChord.parse(";").getKeys());
+		assertArrayEquals(new int[] { KeyEvent.VK_PLUS }, KeyChord.parse("SHIFT+PLUS").getKeys());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parseRejectsUnknownCharacters() {
+		KeyChord.parse("CTRL+~");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parseRejectsUnknownNames() {
+		KeyChord.parse("CTRL+NOPE");
+	}
+
+	@Test
+	public void toStringReadsBackTheSameChord() {
+		final KeyChord[] chords = { KeyChord.parse("CTRL+S"), KeyChord.parse("ALT+SHIFT+WIN+F12"),
+				KeyChord.of(ModifierKey.NONE, KeyEvent.VK_QUOTE, KeyEvent.VK_BACK_QUOTE),
+				KeyChord.of(ModifierKey.CTRL, KeyEvent.VK_COMMA, KeyEvent.VK_EQUALS, KeyEvent.VK_CLOSE_BRACKET),
+				KeyChord.of(ModifierKey.NONE, KeyEvent.VK_SPACE, KeyEvent.VK_NUMPAD0, KeyEvent.VK_LEFT),
+				KeyChord.of(ModifierKey.SHIFT, KeyEvent.VK_ESCAPE, KeyEvent.VK_F24, '7'),
+				KeyChord.of(ModifierKey.NONE, 0x12345), KeyChord.of(' '), KeyChord.of(KeyEvent.VK_F1, 'A') };
+		for (KeyChord chord : chords) assertEquals(chord.toString(), chord, KeyChord.parse(chord.toString()));
+	}
+
+	@Test
+	public void anyMatchesWithAnyModifiers() {
+		assertNull(KeyChord.parse("any + SPACE").getModifier());
+		assertEquals("ANY+SPACE", KeyChord.of(' ').toString());
+		assertEquals("SPACE", KeyChord.of(ModifierKey.NONE, ' ').toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void anyCanNotHaveOtherModifiers() {
+		KeyChord.parse("ANY+CTRL+S");
+	}
+
+	@Test
+	public void everyVkCodeReadsBack() throws Exception {
+		for (Field field : KeyEvent.class.getFields()) {
+			if (!field.getName().startsWith("VK_") || field.getType() != int.class) continue;
+			final int code = field.getInt(null);
+			// The names of the modifiers are read as the modifier, not as a key
+			if (KeyState.modifierBit(code) != 0) continue;
+			final KeyChord chord = KeyChord.of(ModifierKey.NONE, code);
+			assertEquals(field.getName(), chord, KeyChord.parse(chord.toString()));
+		}
+	}
+
+	@Test
+	public void matchesChecksTheModifier() {
+		final KeyState state = new KeyState();
+		state.set(KeyEvent.VK_CONTROL);
+		state.set('S');
+		assertTrue(KeyChord.parse("CTRL+S").matches(state));
+		assertFalse(KeyChord.parse("S").matches(state));
+		assertTrue(KeyChord.of('S').matches(state));
+		assertFalse(KeyChord.parse("CTRL+S+D").matches(state));
+	}
+}
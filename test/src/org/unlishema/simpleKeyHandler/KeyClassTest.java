@@ -0,0 +1,59 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.event.KeyEvent;
+
+import org.junit.Test;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ControlKey;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.FunctionKey;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.NavigationKey;
+
+/**
+ * Tests for the flags {@link KeyClass} gives each keyCode
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyClassTest {
+
+	@Test
+	public void lettersAndDigitsArePrintable() {
+		assertEquals(KeyClass.PRINTABLE | KeyClass.LETTER, KeyClass.classify('Q'));
+		assertEquals(KeyClass.PRINTABLE | KeyClass.DIGIT, KeyClass.classify('7'));
+		assertEquals(KeyClass.PRINTABLE | KeyClass.DIGIT | KeyClass.NUMPAD, KeyClass.classify(KeyEvent.VK_NUMPAD5));
+		assertEquals(KeyClass.PRINTABLE | KeyClass.NUMPAD, KeyClass.classify(KeyEvent.VK_ADD));
+		assertTrue(KeyClass.isPrintable(KeyEvent.VK_SPACE));
+		assertTrue(KeyClass.isPrintable(KeyEvent.VK_SEMICOLON));
+	}
+
+	@Test
+	public void everyEnumKeyHasItsFlag() {
+		for (ControlKey controlKey : ControlKey.values()) assertTrue(controlKey.name(), KeyClass.isControl(controlKey.code));
+		for (FunctionKey functionKey : FunctionKey.values())
+			assertTrue(functionKey.name(), KeyClass.isFunction(functionKey.code));
+		for (NavigationKey navigationKey : NavigationKey.values())
+			assertTrue(navigationKey.name(), KeyClass.isNavigation(navigationKey.code));
+		for (ModifierKey modifierKey : ModifierKey.values())
+			if (modifierKey.code > 0) assertTrue(modifierKey.name(), KeyClass.isModifier(modifierKey.code));
+	}
+
+	@Test
+	public void keysPastTheTableAreClassified() {
+		assertEquals(KeyClass.FUNCTION, KeyClass.classify(KeyEvent.VK_F24));
+		assertEquals(KeyClass.MODIFIER, KeyClass.classify(KeyEvent.VK_ALT_GRAPH));
+		assertTrue(KeyClass.isModifier(KeyEvent.VK_META));
+	}
+
+	@Test
+	public void unknownKeysHaveNoFlags() {
+		assertEquals(0, KeyClass.classify(-1));
+		assertEquals(0, KeyClass.classify(0x10000));
+		assertEquals(0, KeyClass.classify(KeyEvent.VK_UNDEFINED));
+		assertFalse(KeyClass.is('A', KeyClass.CONTROL | KeyClass.NAVIGATION));
+		assertTrue(KeyClass.is('A', KeyClass.CONTROL | KeyClass.LETTER));
+	}
+}
@@ -0,0 +1,67 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import processing.event.KeyEvent;
+
+/**
+ * Tests for sending a processing.event.KeyEvent to many Listeners, the same
+ * way the DispatchBenchmark does
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyEventFanOutTest {
+	private static final int LISTENERS = 100;
+
+	private SimpleKeyHandler handler;
+	private int pressed, released, typed;
+
+	@Before
+	public void setUp() {
+		this.handler = new SimpleKeyHandler(new HeadlessKeySource(0L));
+		this.pressed = this.released = this.typed = 0;
+		for (int i = 0; i < LISTENERS; i++) {
+			this.handler.addListener(new SimpleKeyListener() {
+				@Override
+				public void onKeyPressed(SimpleKeyEvent event) {
+					if (event.isKeyPressed('A')) KeyEventFanOutTest.this.pressed++;
+				}
+
+				@Override
+				public void onKeyReleased(SimpleKeyEvent event) {
+					if (!event.isKeyPressed('A')) KeyEventFanOutTest.this.released++;
+				}
+
+				@Override
+				public void onKeyTyped(SimpleKeyEvent event) {
+					if (event.getLastKeyTyped() == 'a') KeyEventFanOutTest.this.typed++;
+				}
+			});
+		}
+	}
+
+	@Test
+	public void everyListenerGetsEveryEvent() {
+		this.handler.keyEvent(new KeyEvent(null, 0L, KeyEvent.PRESS, 0, 'a', 'A'));
+		assertTrue(this.handler.isKeyPressed('A'));
+		this.handler.keyEvent(new KeyEvent(null, 1L, KeyEvent.TYPE, 0, 'a', 0));
+		this.handler.keyEvent(new KeyEvent(null, 2L, KeyEvent.RELEASE, 0, 'a', 'A'));
+		assertFalse(this.handler.isKeyPressed('A'));
+		assertEquals(LISTENERS, this.pressed);
+		assertEquals(LISTENERS, this.typed);
+		assertEquals(LISTENERS, this.released);
+	}
+
+	@Test
+	public void unknownActionIsIgnored() {
+		this.handler.keyEvent(new KeyEvent(null, 0L, 0, 0, 'a', 'A'));
+		assertFalse(this.handler.isKeyPressed('A'));
+		assertEquals(0, this.pressed + this.released + this.typed);
+	}
+}
@@ -0,0 +1,124 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.event.KeyEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for recording Events with a {@link KeyEventRecorder} and playing them
+ * back with a {@link KeyEventReplayer}
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyEventReplayerTest {
+
+	/**
+	 * Write down every Event a Handler sends to its Listeners
+	 */
+	private static List<String> listen(SimpleKeyHandler handler) {
+		final List<String> events = new ArrayList<String>();
+		handler.addListener(new SimpleKeyListener() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+				events.add("press " + event.getKeyCode() + " " + event.getMillis() + " " + event.getModifierPressed());
+			}
+
+			@Override
+			public void onKeyReleased(SimpleKeyEvent event) {
+				events.add("release " + event.getKeyCode() + " " + event.getMillis());
+			}
+
+			@Override
+			public void onKeyTyped(SimpleKeyEvent event) {
+				events.add("type " + event.getLastKeyTyped() + " " + event.getMillis());
+			}
+		});
+		return events;
+	}
+
+	/**
+	 * Record some typing into a log
+	 */
+	private static byte[] record(HeadlessKeySource source, SimpleKeyHandler handler) throws IOException {
+		final ByteArrayOutputStream log = new ByteArrayOutputStream();
+		final KeyEventRecorder recorder = new KeyEventRecorder(Channels.newChannel(log));
+		handler.setRecorder(recorder);
+		source.press(KeyEvent.VK_SHIFT);
+		source.advance(15L);
+		source.press('H');
+		source.type('H');
+		source.advance(120L);
+		source.release('H');
+		source.release(KeyEvent.VK_SHIFT);
+		source.advance(3L);
+		source.tap('I');
+		source.type('i');
+		assertEquals(8, recorder.getRecorded());
+		handler.setRecorder(null);
+		return log.toByteArray();
+	}
+
+	private static long replay(byte[] log, SimpleKeyHandler handler, double speed) throws IOException {
+		try (KeyEventReplayer replayer = new KeyEventReplayer(Channels.newChannel(new ByteArrayInputStream(log)))) {
+			return replayer.replay(handler, speed);
+		}
+	}
+
+	@Test
+	public void replayIsTheSameAsTheRecording() throws IOException {
+		final HeadlessKeySource source = new HeadlessKeySource(1000L);
+		final SimpleKeyHandler recorded = new SimpleKeyHandler(source);
+		final List<String> expected = listen(recorded);
+		final byte[] log = record(source, recorded);
+
+		final SimpleKeyHandler replayed = new SimpleKeyHandler(new HeadlessKeySource(0L));
+		final List<String> actual = listen(replayed);
+		assertEquals(8, replay(log, replayed, 0));
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void logsPutTogetherAreStillALog() throws IOException {
+		final ByteArrayOutputStream log = new ByteArrayOutputStream();
+		for (int i = 0; i < 2; i++) {
+			final HeadlessKeySource source = new HeadlessKeySource(0L);
+			log.write(record(source, new SimpleKeyHandler(source)));
+		}
+
+		final SimpleKeyHandler replayed = new SimpleKeyHandler(new HeadlessKeySource(0L));
+		final List<String> actual = listen(replayed);
+		assertEquals(16, replay(log.toByteArray(), replayed, 0));
+		assertEquals(actual.subList(0, 8), actual.subList(8, 16));
+	}
+
+	@Test
+	public void replayKeepsTheTimeBetweenEvents() throws IOException {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final byte[] log = record(source, new SimpleKeyHandler(source));
+		final long start = System.nanoTime();
+		replay(log, new SimpleKeyHandler(new HeadlessKeySource(0L)), 1);
+		// The Events were recorded 138 milliseconds apart from first to last
+		assertTrue(System.nanoTime() - start >= 138000000L);
+	}
+
+	@Test
+	public void notALogIsAnError() {
+		try {
+			replay("Not a log".getBytes(), new SimpleKeyHandler(new HeadlessKeySource(0L)), 0);
+			fail("A log that does not start with the header was played back");
+		} catch (IOException e) {
+			// Expected
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.unlishema.simpleKeyHandler.SimpleKeyHandler.BackpressurePolicy;
+
+/**
+ * Tests for the {@link KeyEventSnapshot}s sent to the Listeners
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyEventSnapshotTest {
+	@Test
+	public void listenerGetsASnapshotThatDoesNotChange() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		final List<Boolean> held = new ArrayList<Boolean>();
+		handler.addPressHandler(event -> {
+			assertNotSame(handler, event);
+			if (event.getKeyCode() != 'A') return;
+			// Releasing the key while the Event is being sent does not change the Event
+			source.release('A');
+			held.add(event.isKeyPressed('A'));
+			held.add(handler.isKeyPressed('A'));
+			assertEquals('A', event.getKeyCode());
+		});
+		source.press('A');
+		assertEquals("[true, false]", held.toString());
+	}
+
+	@Test
+	public void asyncListenerSeesTheKeysOfItsEvent() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		final List<String> seen = Collections.synchronizedList(new ArrayList<String>());
+		handler.addPressHandler(event -> seen.add((char) event.getKeyCode() + ":" + event.isKeyPressed('A')));
+		handler.enableAsyncDispatch(16, BackpressurePolicy.BLOCK);
+		source.press('A');
+		source.release('A');
+		source.press('B');
+		handler.disableAsyncDispatch();
+		assertEquals("[A:true, B:false]", seen.toString());
+	}
+
+	@Test
+	public void snapshotsGoBackIntoThePool() {
+		final SimpleKeyHandler handler = new SimpleKeyHandler(new HeadlessKeySource(0L));
+		final KeyEventSnapshot.Pool pool = new KeyEventSnapshot.Pool();
+		final KeyEventSnapshot first = pool.capture(handler, 0L);
+		assertSame(handler, first.getHandler());
+		pool.release(first);
+		assertNull(first.getHandler());
+		assertSame(first, pool.capture(handler, 0L));
+		assertEquals(1, pool.made());
+	}
+}
@@ -0,0 +1,117 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for sending Events through the focused {@link KeyFocusNode}s
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyFocusNodeTest {
+	private HeadlessKeySource source;
+	private SimpleKeyHandler handler;
+	private final KeyFocusNode form = new KeyFocusNode();
+	private final KeyFocusNode field = new KeyFocusNode(this.form);
+	private final KeyFocusNode dialog = new KeyFocusNode();
+	private final List<String> events = new ArrayList<String>();
+
+	/**
+	 * A Listener that writes down its name when a key is pressed
+	 */
+	private SimpleKeyListener named(final String name, final boolean consume) {
+		return new SimpleKeyListener() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+				KeyFocusNodeTest.this.events.add(name);
+				if (consume) event.consume();
+			}
+
+			@Override
+			public void onKeyReleased(SimpleKeyEvent event) {
+			}
+
+			@Override
+			public void onKeyTyped(SimpleKeyEvent event) {
+			}
+		};
+	}
+
+	@Before
+	public void setUp() {
+		this.source = new HeadlessKeySource(0L);
+		this.handler = new SimpleKeyHandler(this.source);
+		this.handler.addListener(this.named("sketch", false));
+	}
+
+	@Test
+	public void captureGoesDownAndBubblingGoesUp() {
+		this.form.addCaptureListener(this.named("form capture", false));
+		this.form.addListener(this.named("form", false));
+		this.field.addCaptureListener(this.named("field capture", false));
+		this.field.addListener(this.named("field", false));
+		this.handler.pushFocus(this.field);
+		this.source.press('A');
+		assertEquals("[form capture, field capture, field, form, sketch]", this.events.toString());
+	}
+
+	@Test
+	public void consumingStopsTheEvent() {
+		this.form.addCaptureListener(this.named("form capture", false));
+		this.field.addListener(this.named("field", true));
+		this.form.addListener(this.named("form", false));
+		this.handler.pushFocus(this.field);
+		this.source.press('A');
+		assertEquals("[form capture, field]", this.events.toString());
+	}
+
+	@Test
+	public void popGivesTheFocusBack() {
+		this.field.addListener(this.named("field", false));
+		this.dialog.addListener(this.named("dialog", true));
+		this.handler.pushFocus(this.field);
+		this.handler.pushFocus(this.dialog);
+		assertSame(this.dialog, this.handler.getFocus());
+		this.source.tap('A');
+		assertSame(this.dialog, this.handler.popFocus());
+		this.source.tap('A');
+		this.handler.removeFocus(this.field);
+		assertNull(this.handler.getFocus());
+		this.source.tap('A');
+		assertEquals("[dialog, field, sketch, sketch]", this.events.toString());
+	}
+
+	@Test
+	public void actionsRunNoMatterWhatIsFocused() {
+		this.field.addCaptureListener(this.named("field", true));
+		this.handler.bind(KeyChord.of('A'), new KeyAction() {
+			@Override
+			public void onAction(SimpleKeyEvent event) {
+				KeyFocusNodeTest.this.events.add("action");
+			}
+		});
+		this.handler.pushFocus(this.field);
+		this.source.press('A');
+		assertEquals("[action, field]", this.events.toString());
+	}
+
+	@Test
+	public void nodesKnowTheirPlaceInTheTree() {
+		assertEquals(0, this.form.getDepth());
+		assertEquals(1, this.field.getDepth());
+		assertSame(this.form, this.field.getParent());
+		assertTrue(this.form.isAncestorOf(this.field));
+		assertFalse(this.field.isAncestorOf(this.form));
+		assertFalse(this.dialog.isAncestorOf(this.field));
+	}
+}
@@ -0,0 +1,83 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the functional {@link KeyPressHandler}, {@link KeyReleaseHandler}
+ * and {@link KeyTypeHandler}, and how they work next to SimpleKeyListeners
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyHandlerFunctionsTest {
+	private HeadlessKeySource source;
+	private SimpleKeyHandler handler;
+	private final List<String> events = new ArrayList<String>();
+
+	@Before
+	public void setUp() {
+		this.source = new HeadlessKeySource(0L);
+		this.handler = new SimpleKeyHandler(this.source);
+	}
+
+	@Test
+	public void eachHandlerOnlyGetsItsAction() {
+		this.handler.addPressHandler(event -> this.events.add("press " + (char) event.getKeyCode()));
+		this.handler.addReleaseHandler(event -> this.events.add("release " + (char) event.getKeyCode()));
+		this.handler.addTypeHandler(event -> this.events.add("type " + event.getLastKeyTyped()));
+		this.source.press('A');
+		this.source.type('a');
+		this.source.release('A');
+		assertEquals("[press A, type a, release A]", this.events.toString());
+	}
+
+	@Test
+	public void removedHandlersAreNotExecuted() {
+		final KeyPressHandler press = event -> this.events.add("press");
+		final KeyReleaseHandler release = event -> this.events.add("release");
+		final KeyTypeHandler type = event -> this.events.add("type");
+		this.handler.addPressHandler(press);
+		this.handler.addReleaseHandler(release);
+		this.handler.addTypeHandler(type);
+		this.handler.removePressHandler(press);
+		this.handler.removeReleaseHandler(release);
+		this.handler.removeTypeHandler(type);
+		this.source.tap('A');
+		this.source.type('a');
+		assertEquals(0, this.events.size());
+	}
+
+	@Test
+	public void listenersAndHandlersShareTheOrder() {
+		final SimpleKeyListener listener = new SimpleKeyListener() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+				KeyHandlerFunctionsTest.this.events.add("listener press");
+			}
+
+			@Override
+			public void onKeyReleased(SimpleKeyEvent event) {
+				KeyHandlerFunctionsTest.this.events.add("listener release");
+			}
+
+			@Override
+			public void onKeyTyped(SimpleKeyEvent event) {
+				KeyHandlerFunctionsTest.this.events.add("listener type");
+			}
+		};
+		this.handler.addPressHandler(event -> this.events.add("handler press"));
+		this.handler.addListener(listener);
+		this.source.tap('A');
+		this.source.type('a');
+		this.handler.removeListener(listener);
+		this.source.tap('A');
+		assertEquals("[handler press, listener press, listener release, listener type, handler press]",
+				this.events.toString());
+	}
+}
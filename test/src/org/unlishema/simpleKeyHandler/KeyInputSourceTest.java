@@ -0,0 +1,90 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.Canvas;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link KeyInputSource}s a Handler gets its Events from
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyInputSourceTest {
+
+	/**
+	 * Write down the keys a Handler sends to its Listeners
+	 */
+	private static List<String> listen(SimpleKeyHandler handler) {
+		final List<String> events = new ArrayList<String>();
+		handler.addListener(new SimpleKeyListener() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+				events.add("press " + (char) event.getKeyCode());
+			}
+
+			@Override
+			public void onKeyReleased(SimpleKeyEvent event) {
+				events.add("release " + (char) event.getKeyCode());
+			}
+
+			@Override
+			public void onKeyTyped(SimpleKeyEvent event) {
+				events.add("type " + event.getLastKeyTyped());
+			}
+		});
+		return events;
+	}
+
+	@Test
+	public void headlessSourceSendsItsEvents() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		final List<String> events = listen(handler);
+		source.press('A');
+		source.type('a');
+		assertTrue(handler.isKeyPressed('A'));
+		source.release('A');
+		assertEquals("[press A, type a, release A]", events.toString());
+	}
+
+	@Test
+	public void detachedSourceStopsSending() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		handler.removeInputSource(source);
+		handler.addInputSource(new HeadlessKeySource(0L));
+		final List<String> events = listen(handler);
+		try {
+			source.press('A');
+			fail("A detached source sent an Event");
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+		assertFalse(handler.isKeyPressed('A'));
+		assertEquals(0, events.size());
+	}
+
+	@Test
+	public void awtSourceReleasesTheKeysWhenFocusIsLost() {
+		final Canvas canvas = new Canvas();
+		final SimpleKeyHandler handler = new SimpleKeyHandler(new AwtKeySource(canvas));
+		final List<String> events = listen(handler);
+		for (java.awt.event.KeyListener listener : canvas.getKeyListeners())
+			listener.keyPressed(new KeyEvent(canvas, KeyEvent.KEY_PRESSED, 0L, 0, KeyEvent.VK_W, 'w'));
+		assertTrue(handler.isKeyPressed('W'));
+		for (java.awt.event.FocusListener listener : canvas.getFocusListeners())
+			listener.focusLost(new FocusEvent(canvas, FocusEvent.FOCUS_LOST));
+		assertFalse(handler.isKeyPressed('W'));
+		assertEquals("[press W, release W]", events.toString());
+	}
+}
@@ -0,0 +1,133 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+
+import processing.event.KeyEvent;
+
+/**
+ * Tests for the priority, {@link KeyInterest} and time budget of Listeners
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyInterestTest {
+	private HeadlessKeySource source;
+	private SimpleKeyHandler handler;
+	private final List<String> events = new ArrayList<String>();
+
+	/**
+	 * A Listener that writes down its name and the action of each Event
+	 */
+	private SimpleKeyListener named(final String name, final boolean consume) {
+		return new SimpleKeyListener() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+				KeyInterestTest.this.events.add(name + " press " + (char) event.getKeyCode());
+				if (consume) event.consume();
+			}
+
+			@Override
+			public void onKeyReleased(SimpleKeyEvent event) {
+				KeyInterestTest.this.events.add(name + " release " + (char) event.getKeyCode());
+			}
+
+			@Override
+			public void onKeyTyped(SimpleKeyEvent event) {
+				KeyInterestTest.this.events.add(name + " type " + event.getLastKeyTyped());
+			}
+		};
+	}
+
+	@Before
+	public void setUp() {
+		this.source = new HeadlessKeySource(0L);
+		this.handler = new SimpleKeyHandler(this.source);
+	}
+
+	@Test
+	public void higherPriorityGoesFirst() {
+		this.handler.addListener(this.named("low", false), -1, null);
+		this.handler.addListener(this.named("first", false));
+		this.handler.addListener(this.named("high", false), 5, null);
+		this.handler.addListener(this.named("second", false));
+		this.source.press('A');
+		assertEquals("[high press A, first press A, second press A, low press A]", this.events.toString());
+	}
+
+	@Test
+	public void consumingStopsTheLowerPriorities() {
+		this.handler.addListener(this.named("low", false));
+		this.handler.addListener(this.named("high", true), 1, null);
+		this.source.tap('A');
+		assertEquals("[high press A, high release A, low release A]", this.events.toString());
+	}
+
+	@Test
+	public void onlyTheActionsWantedAreSent() {
+		this.handler.addListener(this.named("typing", false), 0, KeyInterest.of(KeyEvent.TYPE));
+		this.source.tap('A');
+		this.source.type('a');
+		assertEquals("[typing type a]", this.events.toString());
+	}
+
+	@Test
+	public void onlyTheKeysAndModifiersWantedAreSent() {
+		this.handler.addListener(this.named("numbers", false), 0,
+				KeyInterest.of(KeyEvent.PRESS).withKeys('0', '9').withModifiers(ModifierKey.NONE));
+		this.source.press('A');
+		this.source.press('5');
+		this.source.release('5');
+		this.source.press(java.awt.event.KeyEvent.VK_SHIFT);
+		this.source.press('6');
+		assertEquals("[numbers press 5]", this.events.toString());
+	}
+
+	@Test
+	public void interestAcceptsOnlyWhatItWants() {
+		final KeyInterest interest = KeyInterest.of(KeyEvent.PRESS, KeyEvent.TYPE).withKeys('A', 'C');
+		assertTrue(interest.accepts(KeyEvent.PRESS, 'B', 0));
+		assertFalse(interest.accepts(KeyEvent.PRESS, 'D', 0));
+		assertFalse(interest.accepts(KeyEvent.RELEASE, 'B', 0));
+		assertTrue(interest.accepts(KeyEvent.TYPE, 0, 0));
+		assertTrue(KeyInterest.ALL.accepts(KeyEvent.RELEASE, 0x10000, ModifierKey.CTRL_SHIFT.mask));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownActionIsRejected() {
+		KeyInterest.of(42);
+	}
+
+	@Test
+	public void overBudgetSkipsTheNegativePriorities() {
+		this.handler.setDispatchBudget(1L);
+		this.handler.addListener(new SimpleKeyListener() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+				final long end = System.nanoTime() + 1000000L;
+				while (System.nanoTime() < end) Thread.yield();
+			}
+
+			@Override
+			public void onKeyReleased(SimpleKeyEvent event) {
+			}
+
+			@Override
+			public void onKeyTyped(SimpleKeyEvent event) {
+			}
+		}, 1, null);
+		this.handler.addListener(this.named("normal", false));
+		this.handler.addListener(this.named("effects", false), -1, null);
+		this.source.press('A');
+		assertEquals("[normal press A]", this.events.toString());
+		assertEquals(1, this.handler.getEngine().getSkippedListenerCount());
+	}
+}
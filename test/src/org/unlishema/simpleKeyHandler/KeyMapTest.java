@@ -0,0 +1,83 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+
+/**
+ * Tests for reading, writing and running a {@link KeyMap}
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyMapTest {
+
+	private static KeyMap reload(KeyMap keyMap) throws IOException {
+		final StringWriter writer = new StringWriter();
+		keyMap.write(writer);
+		return KeyMap.load(new StringReader(writer.toString()));
+	}
+
+	@Test
+	public void writeThenLoadKeepsEveryChord() throws IOException {
+		final KeyMap keyMap = KeyMap.EMPTY.with("jump", KeyChord.of(' '), KeyChord.of(ModifierKey.NONE, 'W'))
+				.with("save", KeyChord.of(ModifierKey.CTRL, 'S'))
+				.with("quit", KeyChord.of(ModifierKey.ALT, KeyEvent.VK_F4), KeyChord.of(KeyEvent.VK_ESCAPE, 'Q'));
+		final KeyMap loaded = reload(keyMap);
+		assertEquals(keyMap.getActions(), loaded.getActions());
+		assertEquals(keyMap.size(), loaded.size());
+		for (String action : keyMap.getActions())
+			assertArrayEquals(action, keyMap.getChords(action).toArray(), loaded.getChords(action).toArray());
+		assertEquals(keyMap.toString(), loaded.toString());
+	}
+
+	@Test
+	public void modifierKeysInAChordStayKeys() throws IOException {
+		final KeyMap keyMap = KeyMap.EMPTY.with("shout", KeyChord.of(KeyEvent.VK_SHIFT, 'A'))
+				.with("select", KeyChord.of(ModifierKey.CTRL, KeyEvent.VK_SHIFT, 'A'));
+		assertEquals("shout = ANY+VK_SHIFT+A\nselect = CTRL+VK_SHIFT+A\n", keyMap.toString());
+		final KeyMap loaded = reload(keyMap);
+		assertArrayEquals(keyMap.getChords("shout").toArray(), loaded.getChords("shout").toArray());
+		assertArrayEquals(keyMap.getChords("select").toArray(), loaded.getChords("select").toArray());
+		assertEquals(ModifierKey.CTRL, loaded.getChords("select").get(0).getModifier());
+	}
+
+	@Test
+	public void loadedAnyChordStillWorksWithShiftHeld() throws IOException {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		final List<String> ran = new ArrayList<String>();
+		handler.defineAction("jump", new KeyAction() {
+			@Override
+			public void onAction(SimpleKeyEvent event) {
+				ran.add("jump");
+			}
+		});
+		handler.setKeyMap(reload(KeyMap.EMPTY.with("jump", KeyChord.of(' '))));
+		source.press(KeyEvent.VK_SHIFT);
+		source.tap(' ');
+		assertEquals("[jump]", ran.toString());
+	}
+
+	@Test
+	public void parseSkipsCommentsAndBlankLines() {
+		final KeyMap keyMap = KeyMap.parse("# keys", "", "save = CTRL+S", "jump = ANY+SPACE, W", "jump = UP");
+		assertEquals("[save, jump]", keyMap.getActions().toString());
+		assertEquals(4, keyMap.size());
+		assertEquals("[ANY+SPACE, W, UP]", keyMap.getChords("jump").toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void lineWithoutAnActionIsRejected() {
+		KeyMap.parse("CTRL+S");
+	}
+}
@@ -0,0 +1,111 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.event.KeyEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the Actions bound to {@link KeySequence}s
+ *
+ * @author Unlishema
+ *
+ */
+public class KeySequencesTest {
+	private HeadlessKeySource source;
+	private SimpleKeyHandler handler;
+	private int runs;
+	private final KeyAction count = new KeyAction() {
+		@Override
+		public void onAction(SimpleKeyEvent event) {
+			KeySequencesTest.this.runs++;
+		}
+	};
+
+	@Before
+	public void setUp() {
+		this.source = new HeadlessKeySource(0L);
+		this.handler = new SimpleKeyHandler(this.source);
+		this.runs = 0;
+	}
+
+	@Test
+	public void runsWhenTheLastStepIsPressed() {
+		this.handler.bindSequence("G G", this.count);
+		this.source.tap('G');
+		assertEquals(0, this.runs);
+		this.source.tap('G');
+		assertEquals(1, this.runs);
+		this.source.tap('G');
+		assertEquals(1, this.runs);
+	}
+
+	@Test
+	public void findsASequenceThatStartsPartWayThrough() {
+		this.handler.bindSequence("UP UP DOWN", this.count);
+		this.source.tap(KeyEvent.VK_UP);
+		this.source.tap(KeyEvent.VK_UP);
+		this.source.tap(KeyEvent.VK_UP);
+		this.source.tap(KeyEvent.VK_DOWN);
+		assertEquals(1, this.runs);
+	}
+
+	@Test
+	public void stepsNeedTheirModifiers() {
+		this.handler.bindSequence("CTRL+X CTRL+S", this.count);
+		this.source.press(KeyEvent.VK_CONTROL);
+		this.source.tap('X');
+		this.source.release(KeyEvent.VK_CONTROL);
+		this.source.tap('S');
+		assertEquals(0, this.runs);
+		this.source.press(KeyEvent.VK_CONTROL);
+		this.source.tap('X');
+		this.source.tap('S');
+		assertEquals(1, this.runs);
+	}
+
+	@Test
+	public void startsOverAfterTheTimeout() {
+		this.handler.bindSequence(KeySequence.parse("G G").withTimeout(100L), this.count);
+		this.source.tap('G');
+		this.source.advance(200L);
+		this.source.tap('G');
+		assertEquals(0, this.runs);
+		this.source.advance(50L);
+		this.source.tap('G');
+		assertEquals(1, this.runs);
+	}
+
+	@Test
+	public void clearForgetsTheStepsPressed() {
+		this.handler.bindSequence("G G", this.count);
+		this.source.tap('G');
+		this.handler.clear();
+		this.source.tap('G');
+		assertEquals(0, this.runs);
+		this.source.tap('G');
+		assertEquals(1, this.runs);
+	}
+
+	@Test
+	public void everySequenceBoundAtOnceIsFound() {
+		for (int i = 0; i < 26; i++) this.handler.bindSequence(KeySequence.of('Q', 'A' + i), this.count);
+		for (int i = 0; i < 26; i++) {
+			this.source.tap('Q');
+			this.source.tap('A' + i);
+		}
+		assertEquals(26, this.runs);
+	}
+
+	@Test
+	public void unbindStopsTheAction() {
+		this.handler.bindSequence("G G", this.count);
+		this.source.tap('G');
+		this.handler.unbindSequence(KeySequence.parse("G G"));
+		this.source.tap('G');
+		this.source.tap('G');
+		assertEquals(0, this.runs);
+	}
+}
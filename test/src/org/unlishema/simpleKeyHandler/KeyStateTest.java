@@ -0,0 +1,178 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.event.KeyEvent;
+
+import org.junit.Test;
+import org.unlishema.simpleKeyHandler.SimpleKeyEvent.ModifierKey;
+
+/**
+ * Tests for the bitset and overflow array of {@link KeyState}
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyStateTest {
+	private static final int LARGE_KEY = 0x10000 + 'A';
+
+	@Test
+	public void setAndUnsetInsideOfTheBitset() {
+		final KeyState state = new KeyState();
+		assertTrue(state.set('A'));
+		assertFalse(state.set('A'));
+		assertTrue(state.set(KeyState.CAPACITY - 1));
+		assertTrue(state.get('A'));
+		assertTrue(state.get(KeyState.CAPACITY - 1));
+		assertFalse(state.get('B'));
+		assertEquals(2, state.count());
+		assertTrue(state.unset('A'));
+		assertFalse(state.unset('A'));
+		assertFalse(state.get('A'));
+		assertEquals(1, state.count());
+	}
+
+	@Test
+	public void setAndUnsetInsideOfTheOverflow() {
+		final KeyState state = new KeyState();
+		assertTrue(state.set(KeyState.CAPACITY));
+		assertTrue(state.set(LARGE_KEY));
+		assertFalse(state.set(LARGE_KEY));
+		assertTrue(state.get(KeyState.CAPACITY));
+		assertTrue(state.get(LARGE_KEY));
+		assertFalse(state.get('A'));
+		assertEquals(2, state.count());
+		assertTrue(state.unset(KeyState.CAPACITY));
+		assertFalse(state.get(KeyState.CAPACITY));
+		assertTrue(state.get(LARGE_KEY));
+		assertEquals(1, state.count());
+	}
+
+	@Test
+	public void clearReleasesBothRanges() {
+		final KeyState state = new KeyState();
+		state.set('A');
+		state.set(LARGE_KEY);
+		state.clear();
+		assertEquals(0, state.count());
+		assertFalse(state.get('A'));
+		assertFalse(state.get(LARGE_KEY));
+		assertArrayEquals(new int[0], state.keys());
+	}
+
+	@Test
+	public void keysListsTheBitsetThenTheOverflow() {
+		final KeyState state = new KeyState();
+		state.set(LARGE_KEY);
+		state.set('Z');
+		state.set(' ');
+		state.set(700);
+		assertArrayEquals(new int[] { ' ', 'Z', 700, LARGE_KEY }, state.keys());
+	}
+
+	@Test
+	public void copyFromCopiesEveryKey() {
+		final KeyState source = new KeyState(), copy = new KeyState();
+		source.set('A');
+		source.set(LARGE_KEY);
+		copy.set('B');
+		copy.copyFrom(source);
+		assertArrayEquals(source.keys(), copy.keys());
+		assertEquals(2, copy.count());
+	}
+
+	@Test
+	public void pressedAtIsOnlyKnownWhileHeld() {
+		final KeyState state = new KeyState();
+		assertEquals(0L, state.pressedAt('A'));
+		state.set('A');
+		state.set(LARGE_KEY);
+		assertTrue(state.pressedAt('A') != 0L);
+		assertTrue(state.pressedAt(LARGE_KEY) != 0L);
+		state.unset('A');
+		assertEquals(0L, state.pressedAt('A'));
+	}
+
+	@Test
+	public void handlerChecksHeldKeys() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		source.press('A');
+		source.press('S');
+		assertTrue(handler.isKeyPressed('A'));
+		assertTrue(handler.isKeysPressed('A', 'S'));
+		assertFalse(handler.isKeysPressed('A', 'D'));
+		source.release('A');
+		assertFalse(handler.isKeyPressed('A'));
+		assertTrue(handler.isKeyPressed('S'));
+	}
+
+	@Test
+	public void modifiersFollowTheModifierKeys() {
+		final KeyState state = new KeyState();
+		state.set(KeyEvent.VK_CONTROL);
+		state.set(KeyEvent.VK_SHIFT);
+		state.set('S');
+		assertEquals(ModifierKey.CTRL_SHIFT.mask, state.modifiers());
+		state.unset(KeyEvent.VK_CONTROL);
+		assertEquals(ModifierKey.SHIFT.mask, state.modifiers());
+		state.clear();
+		assertEquals(0, state.modifiers());
+	}
+
+	@Test
+	public void modifierPressedMatchesExactly() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		assertTrue(handler.isModifierPressed(ModifierKey.NONE));
+		source.press(KeyEvent.VK_ALT);
+		assertTrue(handler.isModifierPressed(ModifierKey.ALT));
+		source.press(KeyEvent.VK_CONTROL);
+		assertFalse(handler.isModifierPressed(ModifierKey.ALT));
+		assertTrue(handler.isModifierPressed(ModifierKey.ALT_CTRL));
+		assertEquals(ModifierKey.ALT_CTRL, handler.getModifierPressed());
+	}
+
+	@Test
+	public void modifierKeyLooksUpMasksAndCodes() {
+		for (ModifierKey modifier : ModifierKey.values()) assertEquals(modifier, ModifierKey.fromMask(modifier.mask));
+		assertEquals(ModifierKey.WIN, ModifierKey.fromCode(KeyEvent.VK_WINDOWS));
+		assertNull(ModifierKey.fromCode('A'));
+	}
+
+	@Test(timeout = 10000)
+	public void readersNeverSeeHalfOfAChange() throws InterruptedException {
+		// 'A', 700 and the large key are stored apart, so a torn read would see two held
+		final KeyState first = new KeyState(), second = new KeyState(), state = new KeyState();
+		first.set('A');
+		second.set(700);
+		second.set(LARGE_KEY);
+		final long[] mask = new long[KeyState.WORDS];
+		mask['A' >>> 6] |= 1L << 'A';
+		mask[700 >>> 6] |= 1L << 700;
+		final int[] codes = { 'A', 700 };
+		final long[] withA = new long[KeyState.WORDS];
+		withA['A' >>> 6] |= 1L << 'A';
+		final int[] overflow = { LARGE_KEY };
+		final int[] torn = new int[1];
+		final Thread reader = new Thread() {
+			@Override
+			public void run() {
+				while (!this.isInterrupted()) {
+					if (state.containsAll(KeyState.ANY_MODIFIERS, mask, new int[0])) torn[0]++;
+					if (state.containsAll(KeyState.ANY_MODIFIERS, codes)) torn[0]++;
+					if (state.containsAll(KeyState.ANY_MODIFIERS, withA, overflow)) torn[0]++;
+				}
+			}
+		};
+		reader.start();
+		for (int i = 0; i < 200000; i++) state.copyFrom((i & 1) == 0 ? first : second);
+		reader.interrupt();
+		reader.join();
+		assertEquals(0, torn[0]);
+	}
+}
@@ -0,0 +1,93 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import processing.core.PApplet;
+
+/**
+ * Tests for finding and releasing stuck keys with the {@link KeyWatchdog}
+ *
+ * @author Unlishema
+ *
+ */
+public class KeyWatchdogTest {
+	private HeadlessKeySource source;
+	private SimpleKeyHandler handler;
+	private final List<Integer> released = new ArrayList<Integer>();
+
+	@Before
+	public void setUp() {
+		this.source = new HeadlessKeySource(0L);
+		this.handler = new SimpleKeyHandler(this.source);
+		this.handler.addReleaseHandler(event -> this.released.add(event.getKeyCode()));
+	}
+
+	@Test
+	public void losingFocusReleasesEveryKey() {
+		final PApplet sketch = new PApplet();
+		final KeyWatchdog watchdog = new KeyWatchdog(this.handler, sketch);
+		sketch.focused = true;
+		watchdog.check();
+		this.source.press(KeyEvent.VK_SHIFT);
+		this.source.press('A');
+		watchdog.check();
+		assertEquals(2, this.handler.getKeyState().count());
+		sketch.focused = false;
+		watchdog.check();
+		assertEquals(0, this.handler.getKeyState().count());
+		assertEquals(2, this.released.size());
+		assertTrue(this.released.contains((int) 'A'));
+		assertTrue(this.released.contains(KeyEvent.VK_SHIFT));
+	}
+
+	@Test
+	public void focusNeverSeenDoesNotReleaseKeys() {
+		final KeyWatchdog watchdog = new KeyWatchdog(this.handler, new PApplet());
+		this.source.press('A');
+		watchdog.check();
+		assertTrue(this.handler.isKeyPressed('A'));
+	}
+
+	@Test
+	public void keyThatStopsRepeatingIsReleased() throws InterruptedException {
+		this.handler.setStaleKeyTimeout(1L);
+		this.source.press('A');
+		Thread.sleep(20L);
+		this.source.frame();
+		assertFalse(this.handler.isKeyPressed('A'));
+		assertEquals("[65]", this.released.toString());
+	}
+
+	@Test
+	public void modifiersAreNeverTimedOut() throws InterruptedException {
+		this.handler.setStaleKeyTimeout(1L);
+		this.source.press(KeyEvent.VK_CONTROL);
+		Thread.sleep(20L);
+		this.source.frame();
+		assertTrue(this.handler.isKeyPressed(KeyEvent.VK_CONTROL));
+		assertEquals(0, this.released.size());
+	}
+
+	@Test
+	public void noTimeoutNeverReleases() throws InterruptedException {
+		assertEquals(0L, this.handler.getStaleKeyTimeout());
+		this.source.press('A');
+		Thread.sleep(20L);
+		this.source.frame();
+		assertTrue(this.handler.isKeyPressed('A'));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeTimeoutIsRejected() {
+		this.handler.setStaleKeyTimeout(-1L);
+	}
+}
@@ -0,0 +1,72 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for the snapshot {@link ListenerRegistry} and sending Events to it
+ *
+ * @author Unlishema
+ *
+ */
+public class ListenerRegistryTest {
+	@Test
+	public void addIgnoresTheSameListenerTwice() {
+		final ListenerRegistry<String> registry = new ListenerRegistry<String>();
+		final String listener = "a";
+		assertTrue(registry.add(listener));
+		assertFalse(registry.add(listener));
+		assertEquals(1, registry.snapshot().length);
+	}
+
+	@Test
+	public void snapshotKeepsTheOrderListenersWereAdded() {
+		final ListenerRegistry<String> registry = new ListenerRegistry<String>();
+		registry.add("a");
+		registry.add("b");
+		registry.add("c");
+		registry.remove("b");
+		final ListenerRegistry.Entry<String>[] snapshot = registry.snapshot();
+		assertEquals(2, snapshot.length);
+		assertEquals("a", snapshot[0].listener);
+		assertEquals("c", snapshot[1].listener);
+		assertSame(snapshot, registry.snapshot());
+	}
+
+	@Test
+	public void removedListenerIsInactiveInOldSnapshots() {
+		final ListenerRegistry<String> registry = new ListenerRegistry<String>();
+		registry.add("a");
+		final ListenerRegistry.Entry<String>[] snapshot = registry.snapshot();
+		assertTrue(registry.remove("a"));
+		assertFalse(registry.remove("a"));
+		assertFalse(snapshot[0].active);
+		assertEquals(0, registry.snapshot().length);
+	}
+
+	@Test
+	public void listenerCanRemoveTheNextListenerWhileAnEventIsSent() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		final List<String> calls = new ArrayList<String>();
+		final KeyPressHandler second = event -> calls.add("second");
+		handler.addPressHandler(event -> {
+			calls.add("first");
+			handler.removePressHandler(second);
+			handler.addPressHandler(e -> calls.add("added"));
+		});
+		handler.addPressHandler(second);
+		source.press('A');
+		assertEquals("[first]", calls.toString());
+		calls.clear();
+		source.press('B');
+		assertEquals("[first, added]", calls.toString());
+	}
+}
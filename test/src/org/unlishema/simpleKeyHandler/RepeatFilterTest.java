@@ -0,0 +1,136 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.unlishema.simpleKeyHandler.SimpleKeyHandler.RepeatPolicy;
+
+/**
+ * Tests for what the {@link RepeatPolicy} does to a key held down
+ *
+ * @author Unlishema
+ *
+ */
+public class RepeatFilterTest {
+	private HeadlessKeySource source;
+	private SimpleKeyHandler handler;
+	private List<String> events;
+
+	@Before
+	public void setUp() {
+		this.source = new HeadlessKeySource(0L);
+		this.handler = new SimpleKeyHandler(this.source);
+		// The RepeatFilter can send a held back release from its own Thread
+		this.events = Collections.synchronizedList(new ArrayList<String>());
+		this.handler.addListener(new SimpleKeyListener() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+				RepeatFilterTest.this.events.add("press " + (char) event.getKeyCode());
+			}
+
+			@Override
+			public void onKeyReleased(SimpleKeyEvent event) {
+				RepeatFilterTest.this.events.add("release " + (char) event.getKeyCode());
+			}
+
+			@Override
+			public void onKeyTyped(SimpleKeyEvent event) {
+				RepeatFilterTest.this.events.add("type " + event.getLastKeyTyped());
+			}
+		});
+		this.handler.addRepeatListener(new SimpleKeyRepeatListener() {
+			@Override
+			public void onKeyRepeat(SimpleKeyHandler handler, int keyCode, int count) {
+				RepeatFilterTest.this.events.add("repeat " + (char) keyCode + " x" + count);
+			}
+		});
+	}
+
+	/**
+	 * Hold a key down the way a computer repeats it, with a typed key for each
+	 * press
+	 */
+	private void hold(char key, int repeats) {
+		this.source.press(key);
+		this.source.type(Character.toLowerCase(key));
+		for (int i = 0; i < repeats; i++) {
+			this.source.advance(30L);
+			this.source.press(key);
+			this.source.type(Character.toLowerCase(key));
+		}
+	}
+
+	@Test
+	public void deliverSendsEveryRepeat() {
+		this.hold('A', 2);
+		assertEquals("[press A, type a, press A, type a, press A, type a]", this.events.toString());
+	}
+
+	@Test
+	public void suppressDropsTheRepeats() {
+		this.handler.setRepeatPolicy(RepeatPolicy.SUPPRESS);
+		this.hold('A', 5);
+		this.source.release('A');
+		this.source.frame();
+		assertEquals("[press A, type a, type a, type a, type a, type a, type a, release A]", this.events.toString());
+	}
+
+	@Test
+	public void coalesceCountsTheRepeatsOncePerFrame() {
+		this.handler.setRepeatPolicy(RepeatPolicy.COALESCE);
+		this.hold('A', 5);
+		this.source.frame();
+		this.source.advance(30L);
+		this.source.press('A');
+		this.source.release('A');
+		this.source.frame();
+		assertEquals("[press A, type a, type a, type a, type a, type a, type a, repeat A x5, repeat A x1, release A]",
+				this.events.toString());
+	}
+
+	@Test
+	public void releaseAndPressRightAfterIsARepeat() {
+		this.handler.setRepeatPolicy(RepeatPolicy.SUPPRESS, 500L);
+		this.source.press('A');
+		this.source.advance(30L);
+		this.source.release('A');
+		this.source.press('A');
+		assertTrue(this.handler.isKeyPressed('A'));
+		this.source.advance(1000L);
+		this.source.release('A');
+		// The release is only held back until the next frame or the end of the window
+		assertTrue(this.handler.isKeyPressed('A'));
+		this.source.frame();
+		assertFalse(this.handler.isKeyPressed('A'));
+		assertEquals("[press A, release A]", this.events.toString());
+	}
+
+	@Test
+	public void releaseAndPressFarApartAreNotARepeat() {
+		this.handler.setRepeatPolicy(RepeatPolicy.SUPPRESS, 50L);
+		this.source.press('A');
+		this.source.release('A');
+		this.source.advance(100L);
+		this.source.press('A');
+		assertEquals("[press A, release A, press A]", this.events.toString());
+	}
+
+	@Test
+	public void heldBackReleaseIsSentWithoutAFrame() throws InterruptedException {
+		this.handler.setRepeatPolicy(RepeatPolicy.SUPPRESS);
+		this.source.press('A');
+		this.source.release('A');
+		// The source never starts a frame or sends another Event
+		final long deadline = System.currentTimeMillis() + 500L;
+		while (this.events.size() < 2 && System.currentTimeMillis() < deadline) Thread.sleep(5L);
+		assertFalse(this.handler.isKeyPressed('A'));
+		assertEquals("[press A, release A]", this.events.toString());
+	}
+}
@@ -0,0 +1,108 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for sharing one {@link SimpleKeyEngine} between the Handlers of many
+ * windows
+ *
+ * @author Unlishema
+ *
+ */
+public class SimpleKeyEngineTest {
+	private final SimpleKeyEngine engine = new SimpleKeyEngine();
+	private HeadlessKeySource firstSource, secondSource;
+	private SimpleKeyHandler first, second;
+	private int runs;
+	private final KeyAction count = new KeyAction() {
+		@Override
+		public void onAction(SimpleKeyEvent event) {
+			SimpleKeyEngineTest.this.runs++;
+		}
+	};
+
+	@Before
+	public void setUp() {
+		this.firstSource = new HeadlessKeySource(0L);
+		this.secondSource = new HeadlessKeySource(0L);
+		this.first = new SimpleKeyHandler(this.firstSource, this.engine);
+		this.second = new SimpleKeyHandler(this.secondSource, this.engine);
+		this.runs = 0;
+	}
+
+	@Test
+	public void everyWindowKeepsItsOwnKeys() {
+		this.firstSource.press('A');
+		this.secondSource.press('B');
+		assertTrue(this.first.isKeyPressed('A'));
+		assertFalse(this.first.isKeyPressed('B'));
+		assertTrue(this.second.isKeyPressed('B'));
+		assertFalse(this.second.isKeyPressed('A'));
+	}
+
+	@Test
+	public void engineKnowsTheKeysOfAnyWindow() {
+		assertFalse(this.engine.isAnyKeyPressed());
+		this.secondSource.press('B');
+		assertTrue(this.engine.isAnyKeyPressed());
+		assertTrue(this.engine.isKeyPressed('B'));
+		assertFalse(this.engine.isKeyPressed('A'));
+		// A chord has to be held in one window, not spread over two
+		this.firstSource.press('A');
+		assertFalse(this.engine.isKeysPressed(KeyChord.of('A', 'B')));
+		this.secondSource.press('A');
+		assertTrue(this.engine.isKeysPressed(KeyChord.of('A', 'B')));
+	}
+
+	@Test
+	public void listenersAreSharedAndKnowTheWindow() {
+		final List<SimpleKeyHandler> sources = new ArrayList<SimpleKeyHandler>();
+		this.engine.addPressHandler(new KeyPressHandler() {
+			@Override
+			public void onKeyPressed(SimpleKeyEvent event) {
+				sources.add(event.getSource());
+			}
+		});
+		this.firstSource.press('A');
+		this.secondSource.press('A');
+		assertEquals(Arrays.asList(this.first, this.second), sources);
+	}
+
+	@Test
+	public void bindingsAreSharedButMatchedPerWindow() {
+		this.engine.bind(KeyChord.of('A', 'B'), this.count);
+		this.firstSource.press('A');
+		this.secondSource.press('B');
+		assertEquals(0, this.runs);
+		this.secondSource.press('A');
+		assertEquals(1, this.runs);
+	}
+
+	@Test
+	public void sequencesArePressedPerWindow() {
+		this.engine.bindSequence(KeySequence.parse("G G"), this.count);
+		this.firstSource.tap('G');
+		this.secondSource.tap('G');
+		assertEquals(0, this.runs);
+		this.firstSource.tap('G');
+		assertEquals(1, this.runs);
+	}
+
+	@Test
+	public void disposedHandlersLeaveTheEngine() {
+		assertEquals(Arrays.asList(this.first, this.second), this.engine.getHandlers());
+		this.secondSource.press('B');
+		this.second.dispose();
+		assertEquals(Arrays.asList(this.first), this.engine.getHandlers());
+		assertFalse(this.engine.isKeyPressed('B'));
+	}
+}
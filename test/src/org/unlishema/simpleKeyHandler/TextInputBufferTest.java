@@ -0,0 +1,99 @@
+package org.unlishema.simpleKeyHandler;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import processing.core.PConstants;
+
+/**
+ * Tests for typing into a {@link TextInputBuffer}
+ *
+ * @author Unlishema
+ *
+ */
+public class TextInputBufferTest {
+
+	private static void type(TextInputBuffer buffer, String text) {
+		for (int i = 0; i < text.length(); i++) buffer.type(text.charAt(i));
+	}
+
+	@Test
+	public void typedKeysFromTheHandlerGoIntoTheBuffer() {
+		final HeadlessKeySource source = new HeadlessKeySource(0L);
+		final SimpleKeyHandler handler = new SimpleKeyHandler(source);
+		final TextInputBuffer buffer = new TextInputBuffer();
+		handler.setTextInput(buffer);
+		final StringBuilder seen = new StringBuilder();
+		handler.addTypeHandler(new KeyTypeHandler() {
+			@Override
+			public void onKeyTyped(SimpleKeyEvent event) {
+				// Every key is in the buffer before the Listeners are told
+				seen.append(buffer.length());
+			}
+		});
+		source.type('h');
+		source.type('i');
+		assertEquals("hi", buffer.toString());
+		assertEquals("12", seen.toString());
+	}
+
+	@Test
+	public void controlKeysEditTheText() {
+		final TextInputBuffer buffer = new TextInputBuffer();
+		type(buffer, "helo");
+		buffer.setCaret(3);
+		buffer.type('l');
+		assertEquals("hello", buffer.toString());
+		buffer.type(PConstants.BACKSPACE);
+		buffer.type(PConstants.DELETE);
+		assertEquals("hel", buffer.toString());
+		assertEquals(3, buffer.getCaret());
+		buffer.setCaret(0);
+		buffer.type(PConstants.BACKSPACE);
+		buffer.type(PConstants.DELETE);
+		assertEquals("el", buffer.toString());
+		assertEquals(0, buffer.getCaret());
+	}
+
+	@Test
+	public void enterOnlyAddsALineWhenMultiline() {
+		final TextInputBuffer buffer = new TextInputBuffer();
+		type(buffer, "a\nb");
+		buffer.setMultiline(false);
+		buffer.type(PConstants.ENTER);
+		buffer.type(PConstants.ESC);
+		buffer.type((char) 3);
+		buffer.type((char) PConstants.CODED);
+		buffer.type(PConstants.TAB);
+		assertEquals("a\nb\t", buffer.toString());
+	}
+
+	@Test
+	public void growsWhenTheRingWrapsAround() {
+		final TextInputBuffer buffer = new TextInputBuffer(4);
+		type(buffer, "abc");
+		final char[] start = new char[2];
+		assertEquals(2, buffer.drainTo(start, 0));
+		assertEquals("ab", new String(start));
+		// The head is now part way through the ring, so this wraps and then grows
+		type(buffer, "defghij");
+		assertEquals("cdefghij", buffer.toString());
+		assertEquals('j', buffer.charAt(7));
+		assertEquals("efg", buffer.subSequence(2, 5).toString());
+	}
+
+	@Test
+	public void drainMovesAllTheText() {
+		final TextInputBuffer buffer = new TextInputBuffer(4);
+		type(buffer, "abc");
+		buffer.drainTo(new char[2], 0);
+		type(buffer, "de");
+		final StringBuilder text = new StringBuilder(">");
+		assertEquals(3, buffer.drainTo(text));
+		assertEquals(">cde", text.toString());
+		assertEquals(0, buffer.length());
+		assertEquals(0, buffer.getCaret());
+		assertEquals(0, buffer.drainTo(new char[4], 4));
+	}
+}